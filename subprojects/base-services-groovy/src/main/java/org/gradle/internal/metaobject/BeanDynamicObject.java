@@ -57,6 +57,33 @@ public class BeanDynamicObject extends AbstractDynamicObject {
     private static final Field MISSING_PROPERTY_GET_METHOD;
     private static final Field MISSING_PROPERTY_SET_METHOD;
     private static final Field MISSING_METHOD_METHOD;
+    private static final MetaClassLookupCache.PropertyLocator PROPERTY_LOCATOR = new MetaClassLookupCache.PropertyLocator() {
+        /*
+         * MetaClass.getMetaProperty(name) is very expensive when the property is not known.
+         * Instead, we reach into the meta class to call a much more efficient lookup method.
+         */
+        @Nullable
+        @Override
+        public MetaProperty locate(MetaClass metaClass, String name) {
+            if (metaClass instanceof MetaClassImpl) {
+                try {
+                    return (MetaProperty) META_PROP_METHOD.invoke(metaClass, name, false);
+                } catch (Throwable e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+            }
+
+            // Some other meta-class implementation - fall back to the public API
+            return metaClass.getMetaProperty(name);
+        }
+    };
+    private static final MetaClassLookupCache.MethodLocator METHOD_LOCATOR = new MetaClassLookupCache.MethodLocator() {
+        @Nullable
+        @Override
+        public MetaMethod locate(MetaClass metaClass, String name, Class[] arguments) {
+            return metaClass.pickMethod(name, arguments);
+        }
+    };
     private final Object bean;
     private final boolean includeProperties;
     private final MetaClassAdapter delegate;
@@ -325,23 +352,11 @@ public class BeanDynamicObject extends AbstractDynamicObject {
         }
 
         /*
-         * MetaClass.getMetaProperty(name) is very expensive when the property is not known.
-         * Instead, we reach into the meta class to call a much more efficient lookup method.
-         * Since we do this in a hot code path, we also reuse the argument array used for the
-         * reflective call to save memory.
+         * Looking up a property is done for every property access, so the result is cached per meta-class.
          */
         @Nullable
         protected MetaProperty lookupProperty(MetaClass metaClass, String name) {
-            if (metaClass instanceof MetaClassImpl) {
-                try {
-                    return (MetaProperty) META_PROP_METHOD.invoke(metaClass, name, false);
-                } catch (Throwable e) {
-                    throw UncheckedException.throwAsUncheckedException(e);
-                }
-            }
-
-            // Some other meta-class implementation - fall back to the public API
-            return metaClass.getMetaProperty(name);
+            return MetaClassLookupCache.getProperty(metaClass, name, PROPERTY_LOCATOR);
         }
 
         public DynamicInvokeResult setProperty(final String name, Object value) {
@@ -508,7 +523,7 @@ public class BeanDynamicObject extends AbstractDynamicObject {
 
         @Nullable
         protected MetaMethod lookupMethod(MetaClass metaClass, String name, Class[] arguments) {
-            return metaClass.pickMethod(name, arguments);
+            return MetaClassLookupCache.getMethod(metaClass, name, arguments, METHOD_LOCATOR);
         }
 
         protected DynamicInvokeResult invokeOpaqueMethod(MetaClass metaClass, String name, Object[] arguments) {
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.metaobject;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import groovy.lang.MetaClass;
+import groovy.lang.MetaClassImpl;
+import groovy.lang.MetaMethod;
+import groovy.lang.MetaProperty;
+import org.codehaus.groovy.runtime.GroovyCategorySupport;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the properties and methods that {@link BeanDynamicObject} locates for a given meta-class, so that the meta-class
+ * does not need to be searched again for each property access or method invocation.
+ *
+ * <p>Only plain {@link MetaClassImpl} instances are cached, as they cannot change once initialized. Other meta-class implementations,
+ * such as {@link groovy.lang.ExpandoMetaClass}, may change at any time and are always queried. Lookups are also not cached while a
+ * category is in use by the current thread, as a category can add methods to a meta-class for that thread only.</p>
+ */
+class MetaClassLookupCache {
+    private static final Object NOT_FOUND = new Object();
+    private static final LoadingCache<MetaClass, Lookups> LOOKUPS = CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<MetaClass, Lookups>() {
+        @Override
+        public Lookups load(MetaClass metaClass) {
+            return new Lookups();
+        }
+    });
+
+    interface PropertyLocator {
+        @Nullable
+        MetaProperty locate(MetaClass metaClass, String name);
+    }
+
+    interface MethodLocator {
+        @Nullable
+        MetaMethod locate(MetaClass metaClass, String name, Class[] arguments);
+    }
+
+    private MetaClassLookupCache() {
+    }
+
+    @Nullable
+    static MetaProperty getProperty(MetaClass metaClass, String name, PropertyLocator locator) {
+        if (!isCacheable(metaClass)) {
+            return locator.locate(metaClass, name);
+        }
+        ConcurrentMap<String, Object> properties = LOOKUPS.getUnchecked(metaClass).properties;
+        Object property = properties.get(name);
+        if (property == null) {
+            property = locator.locate(metaClass, name);
+            properties.putIfAbsent(name, property == null ? NOT_FOUND : property);
+        }
+        return property == NOT_FOUND ? null : (MetaProperty) property;
+    }
+
+    @Nullable
+    static MetaMethod getMethod(MetaClass metaClass, String name, Class[] arguments, MethodLocator locator) {
+        if (!isCacheable(metaClass)) {
+            return locator.locate(metaClass, name, arguments);
+        }
+        ConcurrentMap<MethodKey, Object> methods = LOOKUPS.getUnchecked(metaClass).methods;
+        MethodKey key = new MethodKey(name, arguments);
+        Object method = methods.get(key);
+        if (method == null) {
+            method = locator.locate(metaClass, name, arguments);
+            methods.putIfAbsent(key, method == null ? NOT_FOUND : method);
+        }
+        return method == NOT_FOUND ? null : (MetaMethod) method;
+    }
+
+    private static boolean isCacheable(MetaClass metaClass) {
+        return metaClass.getClass() == MetaClassImpl.class && !GroovyCategorySupport.hasCategoryInCurrentThread();
+    }
+
+    private static class Lookups {
+        private final ConcurrentMap<String, Object> properties = new ConcurrentHashMap<String, Object>();
+        private final ConcurrentMap<MethodKey, Object> methods = new ConcurrentHashMap<MethodKey, Object>();
+    }
+
+    private static class MethodKey {
+        private final String name;
+        private final Class[] arguments;
+        private final int hashCode;
+
+        MethodKey(String name, Class[] arguments) {
+            this.name = name;
+            this.arguments = arguments;
+            this.hashCode = 31 * name.hashCode() + Arrays.hashCode(arguments);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            MethodKey other = (MethodKey) obj;
+            return name.equals(other.name) && Arrays.equals(arguments, other.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
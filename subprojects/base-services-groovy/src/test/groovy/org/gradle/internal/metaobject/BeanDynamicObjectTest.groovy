@@ -526,6 +526,21 @@ class BeanDynamicObjectTest extends Specification {
         !dynamicObject.hasMethod("methodWithValue", [Integer] as Object[])
     }
 
+    def "can invoke method added to meta-class of groovy object after the method was looked up"() {
+        def bean = new Bean()
+        def dynamicObject = new BeanDynamicObject(bean)
+
+        expect:
+        !dynamicObject.hasMethod("added", [12] as Object[])
+
+        when:
+        bean.metaClass.added = { Integer value -> value + 2 }
+
+        then:
+        dynamicObject.hasMethod("added", [12] as Object[])
+        dynamicObject.invokeMethod("added", [12] as Object[]) == 14
+    }
+
     def "coerces parameters of method of groovy object"() {
         def bean = new EnumBean()
         def dynamicObject = new BeanDynamicObject(bean, EnumBean, true, false, new SomeEnumConverter(), new SomeEnumConverter())
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Looks up services in a hierarchy of registries, similar to the global, user home, build session, build and project scopes.
+ */
+@Fork(2)
+@Threads(2)
+@Warmup(iterations = 10)
+@State(Scope.Benchmark)
+public class DefaultServiceRegistryBenchmark {
+
+    @Param({"1", "3", "6"})
+    int depth;
+
+    private DefaultServiceRegistry root;
+    private DefaultServiceRegistry leaf;
+
+    @Setup(Level.Trial)
+    public void createRegistries() {
+        root = new DefaultServiceRegistry("root");
+        root.addProvider(new RootServices());
+        leaf = root;
+        for (int i = 1; i < depth; i++) {
+            leaf = new DefaultServiceRegistry("scope " + i, leaf);
+            leaf.addProvider(new ScopeServices());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeRegistries() {
+        root.close();
+    }
+
+    @Benchmark
+    public void getServiceFromRootScope(Blackhole bh) {
+        bh.consume(leaf.get(RootService.class));
+    }
+
+    @Benchmark
+    public void getServiceFromOwnScope(Blackhole bh) {
+        bh.consume(leaf.get(leaf == root ? RootService.class : ScopeService.class));
+    }
+
+    @Benchmark
+    public void findMissingService(Blackhole bh) {
+        bh.consume(leaf.find(MissingService.class));
+    }
+
+    public interface RootService {
+    }
+
+    public interface ScopeService {
+    }
+
+    public interface MissingService {
+    }
+
+    private static class RootServices {
+        RootService createRootService() {
+            return new RootService() {
+            };
+        }
+    }
+
+    private static class ScopeServices {
+        ScopeService createScopeService(RootService rootService) {
+            return new ScopeService() {
+            };
+        }
+    }
+}
@@ -17,12 +17,14 @@
 package org.gradle.internal.classloader;
 
 import com.google.common.base.Charsets;
+import com.google.common.collect.Sets;
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.hash.Hasher;
 import org.gradle.internal.hash.Hashing;
 
 import javax.annotation.Nullable;
 import java.util.Map;
+import java.util.Set;
 import java.util.WeakHashMap;
 
 public class ConfigurableClassLoaderHierarchyHasher implements ClassLoaderHierarchyHasher {
@@ -46,12 +48,22 @@ public class ConfigurableClassLoaderHierarchyHasher implements ClassLoaderHierar
         return visitor.getHash();
     }
 
+    /**
+     * Hashes the effective contents of a hierarchy: a class loader reachable through several paths (e.g. a parent
+     * shared by the parents of a {@link MultiParentClassLoader}), or a class loader with the same contents as one
+     * visited before, contributes to the hash only once.
+     */
     private class Visitor extends ClassLoaderVisitor {
         private final Hasher hasher = Hashing.newHasher();
+        private final Set<ClassLoader> visited = Sets.newIdentityHashSet();
+        private final Set<HashCode> hashes = Sets.newHashSet();
         private boolean foundUnknown;
 
         @Override
         public void visit(ClassLoader classLoader) {
+            if (!visited.add(classLoader)) {
+                return;
+            }
             if (addToHash(classLoader)) {
                 super.visit(classLoader);
             }
@@ -72,7 +84,9 @@ public class ConfigurableClassLoaderHierarchyHasher implements ClassLoaderHierar
             }
             HashCode hash = classLoaderHasher.getHash(cl);
             if (hash != null) {
-                hasher.putHash(hash);
+                if (hashes.add(hash)) {
+                    hasher.putHash(hash);
+                }
                 return true;
             }
             foundUnknown = true;
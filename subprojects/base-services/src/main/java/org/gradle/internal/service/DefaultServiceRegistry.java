@@ -39,7 +39,9 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -79,6 +81,9 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     private final ServiceProvider parentServices;
     private final String displayName;
     private final ServiceProvider thisAsServiceProvider;
+    // The services located by class, so that repeated lookups do not need to search this registry and its parents again.
+    // Only contains services created by some DefaultServiceRegistry, as other registries may return a different instance for each lookup.
+    private final ConcurrentMap<Class<?>, SingletonService> servicesByClass = new ConcurrentHashMap<Class<?>, SingletonService>();
 
     private AtomicReference<State> state = new AtomicReference<State>(State.INIT);
 
@@ -287,8 +292,18 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
 
     @Override
     public Object find(Type serviceType) throws ServiceLookupException {
+        if (serviceType instanceof Class) {
+            SingletonService service = servicesByClass.get(serviceType);
+            if (service != null && !service.owner.isClosed()) {
+                serviceRequested();
+                return service.get();
+            }
+        }
         assertValidServiceType(unwrap(serviceType));
         Service provider = getService(serviceType);
+        if (provider instanceof SingletonService && serviceType instanceof Class) {
+            servicesByClass.putIfAbsent((Class<?>) serviceType, (SingletonService) provider);
+        }
         return provider == null ? null : provider.get();
     }
 
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.work;
+
+import org.gradle.concurrent.ParallelismConfiguration;
+import org.gradle.internal.concurrent.ManagedScheduledExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adjusts the number of worker leases that can be granted to the current system load.
+ *
+ * <p>The limit starts at the number of CPUs available to the process (honoring any control group CPU quota), bounded by the configured maximum worker count.
+ * The system load is then sampled in the background, and each sample votes to change the limit:</p>
+ * <ul>
+ *     <li>to decrease it when the heap is almost exhausted after garbage collection, the process is throttled by its CPU quota or its tasks are stalled waiting
+ *     for a CPU,</li>
+ *     <li>to increase it when there are clearly idle CPUs, for example when the running work is I/O bound.</li>
+ * </ul>
+ *
+ * <p>The CPU usage and pressure are those of the control group the process runs in, so that the load of other containers on the same host is not taken into
+ * account. The load average of the host is only used when the control group does not provide any CPU accounting.</p>
+ *
+ * <p>The configured maximum worker count is used as a baseline: the limit may grow up to {@value #MAX_GROWTH_FACTOR} times that count when the CPUs are idle.
+ * The limit only moves by one, and only once {@value #SAMPLES_PER_ADJUSTMENT} consecutive samples agree. This damps the adjustments, as the load reacts to
+ * a change of the limit with a delay. Sampling never happens while granting a lease, which only reads the current limit. The limit is only ever changed by
+ * the sampling thread, which also notifies the listener of the changes.</p>
+ *
+ * <p>Enabled with the {@value #ADAPTIVE_WORKER_COUNT_PROPERTY} system property.</p>
+ */
+public class AdaptiveWorkerLeaseLimit implements Stoppable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveWorkerLeaseLimit.class);
+
+    public static final String ADAPTIVE_WORKER_COUNT_PROPERTY = "org.gradle.workers.adaptive";
+
+    static final long SAMPLE_INTERVAL_MILLIS = 1000;
+    static final int SAMPLES_PER_ADJUSTMENT = 10;
+    static final int MAX_GROWTH_FACTOR = 2;
+    static final double HEAP_PRESSURE_THRESHOLD = 0.9;
+    static final double THROTTLING_THRESHOLD = 0.25;
+    static final double CPU_PRESSURE_THRESHOLD = 0.25;
+    static final double OVERLOAD_FACTOR = 1.5;
+    static final double UNDERLOAD_FACTOR = 0.75;
+
+    private final SystemLoadSampler sampler;
+    private final ManagedScheduledExecutor executor;
+    private volatile int limit;
+    private volatile int maxWorkerCount;
+    private Runnable limitChangedListener;
+
+    // Only accessed by the sampling thread
+    private SystemLoad previousLoad;
+    private int votes;
+
+    public AdaptiveWorkerLeaseLimit(SystemLoadSampler sampler, ManagedScheduledExecutor executor) {
+        this.sampler = sampler;
+        this.executor = executor;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ADAPTIVE_WORKER_COUNT_PROPERTY);
+    }
+
+    /**
+     * Takes the initial sample and starts sampling in the background. The given listener is notified from the sampling thread, without holding any lock,
+     * whenever the limit changes or differs from a newly configured maximum worker count.
+     */
+    public void start(ParallelismConfiguration parallelismConfiguration, Runnable limitChangedListener) {
+        this.limitChangedListener = limitChangedListener;
+        this.maxWorkerCount = parallelismConfiguration.getMaxWorkerCount();
+        previousLoad = sampler.sample();
+        restart();
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                sample();
+            }
+        }, SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Changes the baseline of the limit. The limit restarts from the new baseline on the sampling thread, and is bounded by the new ceiling until then.
+     */
+    public void onParallelismConfigurationChange(ParallelismConfiguration parallelismConfiguration) {
+        int newMaxWorkerCount = parallelismConfiguration.getMaxWorkerCount();
+        if (newMaxWorkerCount == maxWorkerCount) {
+            return;
+        }
+        maxWorkerCount = newMaxWorkerCount;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                restart();
+            }
+        });
+    }
+
+    /**
+     * Returns the number of worker leases that can currently be granted. Does not sample the system load.
+     */
+    public int getLimit() {
+        return Math.max(1, Math.min(limit, getCeiling()));
+    }
+
+    private int getCeiling() {
+        return maxWorkerCount * MAX_GROWTH_FACTOR;
+    }
+
+    private void restart() {
+        int baseline = maxWorkerCount;
+        votes = 0;
+        limit = Math.max(1, Math.min(previousLoad.getAvailableCpus(), baseline));
+        LOGGER.info("Starting with {} worker leases ({}).", limit, previousLoad);
+        if (limit != baseline) {
+            notifyLimitChanged();
+        }
+    }
+
+    void sample() {
+        SystemLoad load = sampler.sample();
+        int vote = vote(previousLoad, load);
+        previousLoad = load;
+        if (vote == 0 || (votes != 0 && Integer.signum(votes) != vote)) {
+            votes = vote;
+        } else {
+            votes += vote;
+        }
+        if (Math.abs(votes) < SAMPLES_PER_ADJUSTMENT) {
+            return;
+        }
+        votes = 0;
+        int current = limit;
+        int newLimit = Math.max(1, Math.min(current + vote, getCeiling()));
+        if (newLimit == current) {
+            return;
+        }
+        LOGGER.info("Using {} worker leases ({}).", newLimit, load);
+        limit = newLimit;
+        notifyLimitChanged();
+    }
+
+    private void notifyLimitChanged() {
+        executor.execute(limitChangedListener);
+    }
+
+    /**
+     * Returns -1 when the given sample suggests decreasing the limit, 1 when it suggests increasing it, and 0 otherwise.
+     */
+    static int vote(@Nullable SystemLoad previousLoad, SystemLoad load) {
+        if (load.getHeapUsage() >= HEAP_PRESSURE_THRESHOLD
+            || throttledRatio(previousLoad, load) >= THROTTLING_THRESHOLD
+            || load.getCpuPressure() >= CPU_PRESSURE_THRESHOLD) {
+            return -1;
+        }
+        double utilization = cpuUtilization(previousLoad, load);
+        if (utilization >= 0) {
+            return utilization < UNDERLOAD_FACTOR ? 1 : 0;
+        }
+        // Without any CPU accounting of the control group, the available CPUs are those of the host the load average is measured on
+        int cpus = load.getAvailableCpus();
+        if (load.getLoadAverage() > cpus * OVERLOAD_FACTOR) {
+            return -1;
+        }
+        if (load.getLoadAverage() >= 0 && load.getLoadAverage() < cpus * UNDERLOAD_FACTOR) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static double throttledRatio(@Nullable SystemLoad previousLoad, SystemLoad load) {
+        if (previousLoad == null || previousLoad.getCpuPeriods() == SystemLoad.UNKNOWN || load.getCpuPeriods() == SystemLoad.UNKNOWN) {
+            return 0;
+        }
+        long periods = load.getCpuPeriods() - previousLoad.getCpuPeriods();
+        if (periods <= 0) {
+            return 0;
+        }
+        return (double) (load.getThrottledCpuPeriods() - previousLoad.getThrottledCpuPeriods()) / periods;
+    }
+
+    /**
+     * Returns the fraction of the available CPUs used by the control group between the two samples, or a negative value when unknown.
+     */
+    private static double cpuUtilization(@Nullable SystemLoad previousLoad, SystemLoad load) {
+        if (previousLoad == null || previousLoad.getCpuUsageNanos() == SystemLoad.UNKNOWN || load.getCpuUsageNanos() == SystemLoad.UNKNOWN) {
+            return -1;
+        }
+        long elapsed = load.getTimestampNanos() - previousLoad.getTimestampNanos();
+        if (elapsed <= 0) {
+            return -1;
+        }
+        return (double) (load.getCpuUsageNanos() - previousLoad.getCpuUsageNanos()) / elapsed / load.getAvailableCpus();
+    }
+
+    @Override
+    public void stop() {
+        executor.stop();
+    }
+}
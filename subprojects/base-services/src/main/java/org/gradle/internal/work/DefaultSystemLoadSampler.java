@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.work;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the system load using the JVM management beans and, on Linux, the CPU controllers of the control group this process runs in.
+ * Both version 1 and version 2 of the control group file system layout are supported, the CPU pressure is only available with version 2.
+ */
+public class DefaultSystemLoadSampler implements SystemLoadSampler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultSystemLoadSampler.class);
+    private static final File DEFAULT_CGROUP_ROOT = new File("/sys/fs/cgroup");
+
+    private final File cgroupRoot;
+
+    public DefaultSystemLoadSampler() {
+        this(DEFAULT_CGROUP_ROOT);
+    }
+
+    @VisibleForTesting
+    DefaultSystemLoadSampler(File cgroupRoot) {
+        this.cgroupRoot = cgroupRoot;
+    }
+
+    @Override
+    public SystemLoad sample() {
+        long timestamp = System.nanoTime();
+        int processors = Runtime.getRuntime().availableProcessors();
+        CgroupCpu cpu = readCgroupCpu();
+        int availableCpus = cpu.quotaCpus <= 0 ? processors : Math.max(1, Math.min(processors, (int) Math.ceil(cpu.quotaCpus)));
+        return new SystemLoad(availableCpus, ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage(), cpu.periods, cpu.throttledPeriods, cpu.usageNanos, cpu.pressure, heapUsageAfterGc(), timestamp);
+    }
+
+    private static double heapUsageAfterGc() {
+        double usage = 0;
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+        for (MemoryPoolMXBean pool : pools) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            MemoryUsage collectionUsage = pool.getCollectionUsage();
+            if (collectionUsage != null && collectionUsage.getMax() > 0) {
+                usage = Math.max(usage, (double) collectionUsage.getUsed() / collectionUsage.getMax());
+            }
+        }
+        return usage;
+    }
+
+    private CgroupCpu readCgroupCpu() {
+        CgroupCpu result = new CgroupCpu();
+        try {
+            if (new File(cgroupRoot, "cpu.stat").isFile() || new File(cgroupRoot, "cpu.max").isFile()) {
+                readCgroupV2Cpu(result);
+            } else {
+                readCgroupV1Cpu(result);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Could not read CPU accounting from {}.", cgroupRoot, e);
+        } catch (NumberFormatException e) {
+            LOGGER.debug("Could not parse CPU accounting from {}.", cgroupRoot, e);
+        }
+        return result;
+    }
+
+    private void readCgroupV2Cpu(CgroupCpu result) throws IOException {
+        File cpuMax = new File(cgroupRoot, "cpu.max");
+        if (cpuMax.isFile()) {
+            // Format is '$MAX $PERIOD', where $MAX may be 'max'
+            String[] quota = readFirstLine(cpuMax).split(" ");
+            if (quota.length == 2 && !quota[0].equals("max")) {
+                result.quotaCpus = (double) Long.parseLong(quota[0]) / Long.parseLong(quota[1]);
+            }
+        }
+        File cpuStat = new File(cgroupRoot, "cpu.stat");
+        if (cpuStat.isFile()) {
+            Map<String, Long> stat = readStat(cpuStat);
+            Long usage = stat.get("usage_usec");
+            if (usage != null) {
+                result.usageNanos = TimeUnit.MICROSECONDS.toNanos(usage);
+            }
+            if (result.quotaCpus > 0) {
+                readThrottling(stat, result);
+            }
+        }
+        File cpuPressure = new File(cgroupRoot, "cpu.pressure");
+        if (cpuPressure.isFile()) {
+            // Format is 'some avg10=$PERCENT avg60=$PERCENT avg300=$PERCENT total=$MICROS'
+            for (String line : Files.readLines(cpuPressure, Charsets.UTF_8)) {
+                String[] entries = line.split(" ");
+                if (entries.length > 1 && entries[0].equals("some") && entries[1].startsWith("avg10=")) {
+                    result.pressure = Double.parseDouble(entries[1].substring("avg10=".length())) / 100;
+                }
+            }
+        }
+    }
+
+    private void readCgroupV1Cpu(CgroupCpu result) throws IOException {
+        File cpuDir = new File(cgroupRoot, "cpu");
+        File cpuQuota = new File(cpuDir, "cpu.cfs_quota_us");
+        if (cpuQuota.isFile()) {
+            long quota = Long.parseLong(readFirstLine(cpuQuota));
+            if (quota > 0) {
+                long period = Long.parseLong(readFirstLine(new File(cpuDir, "cpu.cfs_period_us")));
+                result.quotaCpus = (double) quota / period;
+                File cpuStat = new File(cpuDir, "cpu.stat");
+                if (cpuStat.isFile()) {
+                    readThrottling(readStat(cpuStat), result);
+                }
+            }
+        }
+        File cpuUsage = new File(new File(cgroupRoot, "cpuacct"), "cpuacct.usage");
+        if (cpuUsage.isFile()) {
+            result.usageNanos = Long.parseLong(readFirstLine(cpuUsage));
+        }
+    }
+
+    private static void readThrottling(Map<String, Long> stat, CgroupCpu result) {
+        Long periods = stat.get("nr_periods");
+        Long throttledPeriods = stat.get("nr_throttled");
+        if (periods != null && throttledPeriods != null) {
+            result.periods = periods;
+            result.throttledPeriods = throttledPeriods;
+        }
+    }
+
+    private static Map<String, Long> readStat(File file) throws IOException {
+        Map<String, Long> result = new HashMap<String, Long>();
+        for (String line : Files.readLines(file, Charsets.UTF_8)) {
+            String[] entry = line.split(" ");
+            if (entry.length == 2) {
+                result.put(entry[0], Long.parseLong(entry[1]));
+            }
+        }
+        return result;
+    }
+
+    private static String readFirstLine(File file) throws IOException {
+        String line = Files.readFirstLine(file, Charsets.UTF_8);
+        return line == null ? "" : line.trim();
+    }
+
+    private static class CgroupCpu {
+        double quotaCpus = -1;
+        long periods = SystemLoad.UNKNOWN;
+        long throttledPeriods = SystemLoad.UNKNOWN;
+        long usageNanos = SystemLoad.UNKNOWN;
+        double pressure = -1;
+    }
+}
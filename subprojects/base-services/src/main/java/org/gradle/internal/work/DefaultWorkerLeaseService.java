@@ -26,6 +26,7 @@ import org.gradle.concurrent.ParallelismConfiguration;
 import org.gradle.internal.Factories;
 import org.gradle.internal.Factory;
 import org.gradle.internal.MutableBoolean;
+import org.gradle.internal.concurrent.DefaultParallelismConfiguration;
 import org.gradle.internal.concurrent.ParallelismConfigurationListener;
 import org.gradle.internal.concurrent.ParallelismConfigurationManager;
 import org.gradle.internal.resources.AbstractResourceLockRegistry;
@@ -40,6 +41,7 @@ import org.gradle.util.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -60,26 +62,58 @@ public class DefaultWorkerLeaseService implements WorkerLeaseService, Parallelis
     private final ProjectLockRegistry projectLockRegistry;
     private final WorkerLeaseLockRegistry workerLeaseLockRegistry;
     private final ParallelismConfigurationManager parallelismConfigurationManager;
+    private final AdaptiveWorkerLeaseLimit adaptiveLimit;
+    private volatile ParallelismConfiguration adaptedConfiguration;
 
     public DefaultWorkerLeaseService(ResourceLockCoordinationService coordinationService, ParallelismConfigurationManager parallelismConfigurationManager) {
+        this(coordinationService, parallelismConfigurationManager, null);
+    }
+
+    public DefaultWorkerLeaseService(ResourceLockCoordinationService coordinationService, ParallelismConfigurationManager parallelismConfigurationManager, @Nullable AdaptiveWorkerLeaseLimit adaptiveLimit) {
+        this.adaptiveLimit = adaptiveLimit;
         this.maxWorkerCount = parallelismConfigurationManager.getParallelismConfiguration().getMaxWorkerCount();
         this.coordinationService = coordinationService;
         this.projectLockRegistry = new ProjectLockRegistry(coordinationService, parallelismConfigurationManager.getParallelismConfiguration().isParallelProjectExecutionEnabled());
         this.workerLeaseLockRegistry = new WorkerLeaseLockRegistry(coordinationService);
         this.parallelismConfigurationManager = parallelismConfigurationManager;
         parallelismConfigurationManager.addListener(this);
-        LOGGER.info("Using {} worker leases.", maxWorkerCount);
+        if (adaptiveLimit != null) {
+            LOGGER.info("Using worker leases adapted to the system load, starting from {}.", maxWorkerCount);
+            adaptiveLimit.start(parallelismConfigurationManager.getParallelismConfiguration(), new Runnable() {
+                @Override
+                public void run() {
+                    // Wake up any threads waiting for a lease, and let the thread pools sized by the worker count follow the limit
+                    coordinationService.notifyStateChange();
+                    publishAdaptedConfiguration();
+                }
+            });
+        } else {
+            LOGGER.info("Using {} worker leases.", maxWorkerCount);
+        }
+    }
+
+    private void publishAdaptedConfiguration() {
+        ParallelismConfiguration adapted = new DefaultParallelismConfiguration(parallelismConfigurationManager.getParallelismConfiguration().isParallelProjectExecutionEnabled(), adaptiveLimit.getLimit());
+        adaptedConfiguration = adapted;
+        parallelismConfigurationManager.setParallelismConfiguration(adapted);
     }
 
     @Override
     public void onParallelismConfigurationChange(ParallelismConfiguration parallelismConfiguration) {
+        if (parallelismConfiguration == adaptedConfiguration) {
+            // Published by this service, the configured worker count is unchanged
+            return;
+        }
         this.maxWorkerCount = parallelismConfiguration.getMaxWorkerCount();
         projectLockRegistry.setParallelEnabled(parallelismConfiguration.isParallelProjectExecutionEnabled());
+        if (adaptiveLimit != null) {
+            adaptiveLimit.onParallelismConfigurationChange(parallelismConfiguration);
+        }
     }
 
     @Override
     public int getMaxWorkerCount() {
-        return maxWorkerCount;
+        return adaptiveLimit == null ? maxWorkerCount : adaptiveLimit.getLimit();
     }
 
     @Override
@@ -118,6 +152,9 @@ public class DefaultWorkerLeaseService implements WorkerLeaseService, Parallelis
     @Override
     public void stop() {
         parallelismConfigurationManager.removeListener(this);
+        if (adaptiveLimit != null) {
+            adaptiveLimit.stop();
+        }
         coordinationService.withStateLock(new Transformer<ResourceLockState.Disposition, ResourceLockState>() {
             @Override
             public ResourceLockState.Disposition transform(ResourceLockState resourceLockState) {
@@ -305,7 +342,8 @@ public class DefaultWorkerLeaseService implements WorkerLeaseService, Parallelis
 
         @Override
         public boolean grantLease() {
-            if (leasesInUse >= maxWorkerCount) {
+            int leaseLimit = getMaxWorkerCount();
+            if (leasesInUse >= leaseLimit) {
                 return false;
             }
             leasesInUse++;
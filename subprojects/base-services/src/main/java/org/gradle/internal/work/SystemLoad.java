@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.work;
+
+/**
+ * A point in time view of the load on the machine (or container) that the build runs on.
+ */
+public class SystemLoad {
+    public static final long UNKNOWN = -1;
+
+    private final int availableCpus;
+    private final double loadAverage;
+    private final long cpuPeriods;
+    private final long throttledCpuPeriods;
+    private final long cpuUsageNanos;
+    private final double cpuPressure;
+    private final double heapUsage;
+    private final long timestampNanos;
+
+    public SystemLoad(int availableCpus, double loadAverage, long cpuPeriods, long throttledCpuPeriods, long cpuUsageNanos, double cpuPressure, double heapUsage, long timestampNanos) {
+        this.availableCpus = availableCpus;
+        this.loadAverage = loadAverage;
+        this.cpuPeriods = cpuPeriods;
+        this.throttledCpuPeriods = throttledCpuPeriods;
+        this.cpuUsageNanos = cpuUsageNanos;
+        this.cpuPressure = cpuPressure;
+        this.heapUsage = heapUsage;
+        this.timestampNanos = timestampNanos;
+    }
+
+    /**
+     * The number of CPUs this process can actually use, taking any CPU quota of the enclosing control group into account.
+     */
+    public int getAvailableCpus() {
+        return availableCpus;
+    }
+
+    /**
+     * The system load average of the host (the length of its run queue averaged over the last minute), or a negative value when not available.
+     */
+    public double getLoadAverage() {
+        return loadAverage;
+    }
+
+    /**
+     * The cumulative number of CPU quota enforcement periods, or {@link #UNKNOWN} when this process does not run with a CPU quota.
+     */
+    public long getCpuPeriods() {
+        return cpuPeriods;
+    }
+
+    /**
+     * The cumulative number of CPU quota enforcement periods in which this process was throttled, or {@link #UNKNOWN} when this process does not run with a CPU quota.
+     */
+    public long getThrottledCpuPeriods() {
+        return throttledCpuPeriods;
+    }
+
+    /**
+     * The cumulative CPU time consumed by all processes of the control group this process runs in, or {@link #UNKNOWN} when the control group does not provide
+     * any CPU accounting.
+     */
+    public long getCpuUsageNanos() {
+        return cpuUsageNanos;
+    }
+
+    /**
+     * The fraction of time in which some runnable tasks of the control group this process runs in were waiting for a CPU, averaged over the last 10 seconds,
+     * or a negative value when not available.
+     */
+    public double getCpuPressure() {
+        return cpuPressure;
+    }
+
+    /**
+     * The fraction of the maximum heap which was still in use after the last garbage collection, between 0 and 1.
+     */
+    public double getHeapUsage() {
+        return heapUsage;
+    }
+
+    /**
+     * The value of {@link System#nanoTime()} when this sample was taken.
+     */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("cpus: %d, load average: %.2f, throttled periods: %d/%d, cpu pressure: %.0f%%, heap usage: %.0f%%", availableCpus, loadAverage, throttledCpuPeriods, cpuPeriods, cpuPressure * 100, heapUsage * 100);
+    }
+}
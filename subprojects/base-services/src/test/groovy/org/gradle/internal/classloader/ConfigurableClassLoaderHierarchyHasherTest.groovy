@@ -63,6 +63,22 @@ class ConfigurableClassLoaderHierarchyHasherTest extends Specification {
         hasher.getClassLoaderHash(classLoader) == null
     }
 
+    def "hashes shared parents and class loaders with the same contents once"() {
+        def first = new DelegatingLoader(runtimeLoader)
+        def sameContents = new DelegatingLoader(runtimeLoader)
+        def other = new DelegatingLoader(runtimeLoader)
+        def contentsHash = HashCode.fromInt(123456)
+        def otherHash = HashCode.fromInt(654321)
+        classLoaderHasher.getHash(first) >> contentsHash
+        classLoaderHasher.getHash(sameContents) >> contentsHash
+        classLoaderHasher.getHash(other) >> otherHash
+
+        expect:
+        hasher.getClassLoaderHash(new MultiParentClassLoader(first, sameContents)) == hasher.getClassLoaderHash(first)
+        hasher.getClassLoaderHash(new MultiParentClassLoader(first, sameContents)) == hashFor(contentsHash, "system")
+        hasher.getClassLoaderHash(new MultiParentClassLoader(first, other)) == hashFor(contentsHash, "system", otherHash)
+    }
+
     private ConfigurableClassLoaderHierarchyHasher hasher(Map<ClassLoader, String> classLoaders) {
         classLoaders = new HashMap<>(classLoaders)
         classLoaders.put(ClassLoader.getSystemClassLoader(), "system")
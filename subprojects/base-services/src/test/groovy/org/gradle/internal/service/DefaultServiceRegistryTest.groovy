@@ -1208,6 +1208,40 @@ class DefaultServiceRegistryTest extends Specification {
         0 * childService.close()
     }
 
+    def "cannot lookup parent services from child registry once parent is closed"() {
+        given:
+        registry.addProvider(new Object() {
+            BigDecimal createBigDecimal() {
+                BigDecimal.TEN
+            }
+        })
+        def child = new DefaultServiceRegistry(registry)
+
+        expect:
+        child.get(BigDecimal) == BigDecimal.TEN
+        child.get(BigDecimal) == BigDecimal.TEN
+
+        when:
+        registry.close()
+        child.get(BigDecimal)
+
+        then:
+        IllegalStateException e = thrown()
+        e.message == "TestRegistry has been closed."
+    }
+
+    def "looks up services in a parent registry of another type on every request"() {
+        def parent = Mock(ServiceRegistry)
+        def registry = new TestRegistry(parent)
+
+        when:
+        registry.get(BigDecimal)
+        registry.get(BigDecimal)
+
+        then:
+        2 * parent.get(BigDecimal) >> BigDecimal.TEN
+    }
+
     /*
      * We isolate services in child registries, so we don't leak memory. This test makes
      * sure that we don't overdo the isolation and still track dependencies between services
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.work
+
+import org.gradle.internal.concurrent.DefaultParallelismConfiguration
+import org.gradle.internal.concurrent.ManagedScheduledExecutor
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.TimeUnit
+
+import static org.gradle.internal.work.AdaptiveWorkerLeaseLimit.MAX_GROWTH_FACTOR
+import static org.gradle.internal.work.AdaptiveWorkerLeaseLimit.SAMPLES_PER_ADJUSTMENT
+
+class AdaptiveWorkerLeaseLimitTest extends Specification {
+    def sampler = Mock(SystemLoadSampler)
+    def executor = Mock(ManagedScheduledExecutor)
+    def listener = Mock(Runnable)
+    def limit = new AdaptiveWorkerLeaseLimit(sampler, executor)
+
+    def setup() {
+        // Run anything submitted to the sampling thread right away
+        _ * executor.execute(_) >> { Runnable runnable -> runnable.run() }
+    }
+
+    def "starts with the number of available cpus, samples in the background and publishes a limit that differs from the max worker count"() {
+        when:
+        limit.start(configuration(8), listener)
+
+        then:
+        1 * sampler.sample() >> load(3, 3)
+        1 * executor.scheduleWithFixedDelay(_, _, _, _)
+        1 * listener.run()
+        limit.getLimit() == 3
+    }
+
+    def "starts with the max worker count when more cpus are available"() {
+        when:
+        limit.start(configuration(2), listener)
+
+        then:
+        1 * sampler.sample() >> load(4, 1)
+        0 * listener.run()
+        limit.getLimit() == 2
+    }
+
+    def "does not sample when the limit is requested"() {
+        given:
+        sampler.sample() >> load(4, 4)
+        limit.start(configuration(4), listener)
+
+        when:
+        limit.getLimit()
+        limit.getLimit()
+
+        then:
+        0 * sampler._
+    }
+
+    def "only increases the limit once enough consecutive samples agree and notifies the listener"() {
+        given:
+        sampler.sample() >>> [load(4, 4)] + [load(4, 1)] * SAMPLES_PER_ADJUSTMENT
+        limit.start(configuration(4), listener)
+
+        when:
+        (SAMPLES_PER_ADJUSTMENT - 1).times { limit.sample() }
+
+        then:
+        limit.getLimit() == 4
+        0 * listener.run()
+
+        when:
+        limit.sample()
+
+        then:
+        limit.getLimit() == 5
+        1 * listener.run()
+    }
+
+    def "grows above the max worker count up to a bound"() {
+        given:
+        sampler.sample() >> load(4, 1)
+        limit.start(configuration(2), listener)
+
+        when:
+        (4 * SAMPLES_PER_ADJUSTMENT).times { limit.sample() }
+
+        then:
+        limit.getLimit() == 2 * MAX_GROWTH_FACTOR
+        2 * listener.run()
+    }
+
+    def "samples that disagree reset the adjustment"() {
+        given:
+        sampler.sample() >>> [load(4, 4)] + [load(4, 1)] * (SAMPLES_PER_ADJUSTMENT - 1) + [load(4, 10)] + [load(4, 1)] * (SAMPLES_PER_ADJUSTMENT - 1)
+        limit.start(configuration(4), listener)
+
+        when:
+        (2 * SAMPLES_PER_ADJUSTMENT - 1).times { limit.sample() }
+
+        then:
+        limit.getLimit() == 4
+        0 * listener.run()
+    }
+
+    def "decreases the limit and notifies the listener"() {
+        given:
+        sampler.sample() >>> [load(4, 4)] + [load(4, 4, 0.95)] * SAMPLES_PER_ADJUSTMENT
+        limit.start(configuration(4), listener)
+
+        when:
+        SAMPLES_PER_ADJUSTMENT.times { limit.sample() }
+
+        then:
+        limit.getLimit() == 3
+        1 * listener.run()
+    }
+
+    def "restarts from a changed max worker count"() {
+        given:
+        sampler.sample() >> load(8, 1)
+        limit.start(configuration(4), listener)
+        (2 * SAMPLES_PER_ADJUSTMENT).times { limit.sample() }
+
+        expect:
+        limit.getLimit() == 6
+
+        when:
+        limit.onParallelismConfigurationChange(configuration(2))
+
+        then:
+        limit.getLimit() == 2
+        0 * listener.run()
+
+        when:
+        limit.onParallelismConfigurationChange(configuration(2))
+
+        then:
+        0 * executor.execute(_)
+    }
+
+    def "is bounded by a changed max worker count until restarted by the sampling thread"() {
+        given:
+        Runnable restart = null
+        sampler.sample() >> load(8, 1)
+        limit.start(configuration(4), listener)
+        (4 * SAMPLES_PER_ADJUSTMENT).times { limit.sample() }
+
+        when:
+        limit.onParallelismConfigurationChange(configuration(1))
+
+        then:
+        1 * executor.execute(_) >> { Runnable runnable -> restart = runnable }
+        limit.getLimit() == MAX_GROWTH_FACTOR
+
+        when:
+        restart.run()
+
+        then:
+        limit.getLimit() == 1
+    }
+
+    @Unroll
+    def "votes #expected when #condition"() {
+        expect:
+        AdaptiveWorkerLeaseLimit.vote(previous, sample) == expected
+
+        where:
+        condition                             | previous                 | sample                         | expected
+        "system is saturated"                 | null                     | load(4, 4)                     | 0
+        "system is almost saturated"          | null                     | load(4, 3.5)                   | 0
+        "cpus are idle"                       | null                     | load(4, 2)                     | 1
+        "run queue is overloaded"             | null                     | load(4, 7)                     | -1
+        "cpu quota is throttled"              | throttled(4, 100, 0)     | throttled(4, 200, 50)          | -1
+        "cpu quota is not throttled"          | throttled(4, 100, 0)     | throttled(4, 200, 10)          | 0
+        "heap is almost exhausted"            | null                     | load(4, 2, 0.95)               | -1
+        "load is unknown"                     | null                     | load(4, -1)                    | 0
+        "control group cpus are idle"         | usage(4, 0, 0)           | usage(4, 1, 2)                 | 1
+        "control group cpus are saturated"    | usage(4, 0, 0)           | usage(4, 1, 3.5)               | 0
+        "host is busy but control group idle" | usage(4, 0, 0)           | usage(4, 1, 1, 0, 40)          | 1
+        "control group tasks wait for cpus"   | usage(4, 0, 0)           | usage(4, 1, 4, 0.5)            | -1
+    }
+
+    private static DefaultParallelismConfiguration configuration(int maxWorkerCount) {
+        return new DefaultParallelismConfiguration(true, maxWorkerCount)
+    }
+
+    private static SystemLoad load(int cpus, double loadAverage, double heapUsage = 0.5) {
+        return new SystemLoad(cpus, loadAverage, SystemLoad.UNKNOWN, SystemLoad.UNKNOWN, SystemLoad.UNKNOWN, -1, heapUsage, 0)
+    }
+
+    private static SystemLoad throttled(int cpus, long periods, long throttledPeriods) {
+        return new SystemLoad(cpus, cpus, periods, throttledPeriods, SystemLoad.UNKNOWN, -1, 0.5, 0)
+    }
+
+    /**
+     * A sample taken after the given number of seconds, in which the given number of cpus have been busy since the start.
+     */
+    private static SystemLoad usage(int cpus, long seconds, double busyCpus, double cpuPressure = 0, double loadAverage = 0) {
+        return new SystemLoad(cpus, loadAverage, SystemLoad.UNKNOWN, SystemLoad.UNKNOWN, (long) (TimeUnit.SECONDS.toNanos(seconds) * busyCpus), cpuPressure, 0.5, TimeUnit.SECONDS.toNanos(seconds))
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.work
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class DefaultSystemLoadSamplerTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def "reads cpu quota and throttling from cgroup v2 layout"() {
+        def cgroupRoot = tmpDir.createDir("cgroup")
+        cgroupRoot.file("cpu.max") << "100000 100000\n"
+        cgroupRoot.file("cpu.stat") << "usage_usec 123\nnr_periods 20\nnr_throttled 5\nthrottled_usec 42\n"
+
+        when:
+        def load = new DefaultSystemLoadSampler(cgroupRoot).sample()
+
+        then:
+        load.availableCpus == 1
+        load.cpuPeriods == 20
+        load.throttledCpuPeriods == 5
+        load.cpuUsageNanos == 123000
+    }
+
+    def "reads cpu usage and pressure without cpu quota from cgroup v2 layout"() {
+        def cgroupRoot = tmpDir.createDir("cgroup")
+        cgroupRoot.file("cpu.stat") << "usage_usec 2000\nuser_usec 1500\nsystem_usec 500\n"
+        cgroupRoot.file("cpu.pressure") << "some avg10=12.50 avg60=3.00 avg300=1.00 total=1234\nfull avg10=1.00 avg60=0.00 avg300=0.00 total=12\n"
+
+        when:
+        def load = new DefaultSystemLoadSampler(cgroupRoot).sample()
+
+        then:
+        load.availableCpus == Runtime.runtime.availableProcessors()
+        load.cpuPeriods == SystemLoad.UNKNOWN
+        load.cpuUsageNanos == 2000000
+        load.cpuPressure == 0.125d
+    }
+
+    def "ignores unlimited cpu quota in cgroup v2 layout"() {
+        def cgroupRoot = tmpDir.createDir("cgroup")
+        cgroupRoot.file("cpu.max") << "max 100000\n"
+
+        when:
+        def load = new DefaultSystemLoadSampler(cgroupRoot).sample()
+
+        then:
+        load.availableCpus == Runtime.runtime.availableProcessors()
+        load.cpuPeriods == SystemLoad.UNKNOWN
+    }
+
+    def "reads cpu quota and throttling from cgroup v1 layout"() {
+        def cgroupRoot = tmpDir.createDir("cgroup")
+        cgroupRoot.file("cpu/cpu.cfs_quota_us") << "50000\n"
+        cgroupRoot.file("cpu/cpu.cfs_period_us") << "100000\n"
+        cgroupRoot.file("cpu/cpu.stat") << "nr_periods 10\nnr_throttled 3\nthrottled_time 100\n"
+
+        when:
+        def load = new DefaultSystemLoadSampler(cgroupRoot).sample()
+
+        then:
+        load.availableCpus == 1
+        load.cpuPeriods == 10
+        load.throttledCpuPeriods == 3
+        load.cpuUsageNanos == SystemLoad.UNKNOWN
+    }
+
+    def "reads cpu usage without cpu quota from cgroup v1 layout"() {
+        def cgroupRoot = tmpDir.createDir("cgroup")
+        cgroupRoot.file("cpu/cpu.cfs_quota_us") << "-1\n"
+        cgroupRoot.file("cpuacct/cpuacct.usage") << "123456789\n"
+
+        when:
+        def load = new DefaultSystemLoadSampler(cgroupRoot).sample()
+
+        then:
+        load.availableCpus == Runtime.runtime.availableProcessors()
+        load.cpuUsageNanos == 123456789
+        load.cpuPressure < 0
+    }
+
+    def "ignores unlimited cpu quota in cgroup v1 layout"() {
+        def cgroupRoot = tmpDir.createDir("cgroup")
+        cgroupRoot.file("cpu/cpu.cfs_quota_us") << "-1\n"
+
+        when:
+        def load = new DefaultSystemLoadSampler(cgroupRoot).sample()
+
+        then:
+        load.availableCpus == Runtime.runtime.availableProcessors()
+        load.throttledCpuPeriods == SystemLoad.UNKNOWN
+    }
+
+    def "uses available processors when there is no cgroup"() {
+        when:
+        def load = new DefaultSystemLoadSampler(tmpDir.file("missing")).sample()
+
+        then:
+        load.availableCpus == Runtime.runtime.availableProcessors()
+        load.cpuUsageNanos == SystemLoad.UNKNOWN
+        load.heapUsage >= 0
+        load.heapUsage <= 1
+    }
+}
@@ -18,48 +18,192 @@ package org.gradle.composite.internal;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
 import org.gradle.api.Action;
 import org.gradle.api.artifacts.DependencySubstitution;
 import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.component.ComponentSelector;
+import org.gradle.api.artifacts.component.ModuleComponentSelector;
 import org.gradle.api.artifacts.component.ProjectComponentIdentifier;
+import org.gradle.api.internal.artifacts.DependencySubstitutionInternal;
 import org.gradle.api.internal.composite.CompositeBuildContext;
 import org.gradle.internal.Actions;
+import org.gradle.internal.Factory;
 import org.gradle.internal.Pair;
+import org.gradle.internal.UncheckedException;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 
 public class DefaultBuildableCompositeBuildContext implements CompositeBuildContext {
-    // TODO: Synchronization
-    private final Set<Pair<ModuleVersionIdentifier, ProjectComponentIdentifier>> availableModules = Sets.newHashSet();
+    private final Object lock = new Object();
+    // Marks the threads that discover pending modules, or configure builds on behalf of that discovery
+    private final ThreadLocal<Boolean> discoveringModules = new ThreadLocal<Boolean>();
+    private final Set<Pair<ModuleVersionIdentifier, ProjectComponentIdentifier>> availableModules = Sets.newLinkedHashSet();
     private final List<Action<DependencySubstitution>> substitutionRules = Lists.newArrayList();
+    private final List<PendingModules> pendingModules = Lists.newArrayList();
+    // Substitutes the available modules, recreated when more modules become available
+    private CompositeBuildDependencySubstitutions moduleSubstitutions;
 
     public DefaultBuildableCompositeBuildContext() {
     }
 
     @Override
     public void addAvailableModules(Set<Pair<ModuleVersionIdentifier, ProjectComponentIdentifier>> availableModules) {
-        this.availableModules.addAll(availableModules);
+        synchronized (lock) {
+            this.availableModules.addAll(availableModules);
+            moduleSubstitutions = null;
+        }
+    }
+
+    @Override
+    public void addAvailableModulesOnDemand(Set<String> moduleNames, Factory<Set<Pair<ModuleVersionIdentifier, ProjectComponentIdentifier>>> availableModules) {
+        synchronized (lock) {
+            pendingModules.add(new PendingModules(moduleNames, availableModules));
+        }
+    }
+
+    @Override
+    public void runDuringModuleDiscovery(Runnable action) {
+        Boolean previous = discoveringModules.get();
+        discoveringModules.set(Boolean.TRUE);
+        try {
+            action.run();
+        } finally {
+            discoveringModules.set(previous);
+        }
     }
 
     @Override
     public void registerSubstitution(Action<DependencySubstitution> substitutions) {
-        substitutionRules.add(substitutions);
+        synchronized (lock) {
+            substitutionRules.add(substitutions);
+        }
     }
 
     @Override
     public Action<DependencySubstitution> getRuleAction() {
         List<Action<DependencySubstitution>> allActions = Lists.newArrayList();
-        if (!availableModules.isEmpty()) {
-            // Automatically substitute all available modules
-            allActions.add(new CompositeBuildDependencySubstitutions(availableModules));
+        synchronized (lock) {
+            if (!availableModules.isEmpty() || !pendingModules.isEmpty()) {
+                // Automatically substitute all available modules, discovering the modules of the pending builds as they are requested
+                allActions.add(new AvailableModuleSubstitutions());
+            }
+            allActions.addAll(substitutionRules);
         }
-        allActions.addAll(substitutionRules);
         return Actions.composite(allActions);
     }
 
     @Override
     public boolean hasRules() {
-        return !(availableModules.isEmpty() && substitutionRules.isEmpty());
+        synchronized (lock) {
+            // Pending builds may provide modules, so do not configure them until one of their modules is requested
+            return !(availableModules.isEmpty() && pendingModules.isEmpty() && substitutionRules.isEmpty());
+        }
+    }
+
+    /**
+     * Discovers the available modules of the pending builds that may provide a module with the given name, or waits for the discovery
+     * of those builds started by another thread. Builds that may not provide the module are left unconfigured.
+     *
+     * <p>The factories are invoked without holding the lock, as discovering the modules configures the builds, which may in turn query
+     * this context when resolving their build script classpaths. Such reentrant queries, made from a discovering thread or from a thread
+     * running {@link #runDuringModuleDiscovery(Runnable)}, do not wait and see the modules discovered so far, as waiting would never finish.</p>
+     */
+    private void discoverPendingModules(String moduleName) {
+        if (discoveringModules.get() != null) {
+            return;
+        }
+        while (true) {
+            List<PendingModules> toDiscover = Lists.newArrayList();
+            List<CountDownLatch> inProgress = Lists.newArrayList();
+            synchronized (lock) {
+                for (Iterator<PendingModules> iterator = pendingModules.iterator(); iterator.hasNext();) {
+                    PendingModules pending = iterator.next();
+                    if (!pending.mayProvide(moduleName)) {
+                        continue;
+                    }
+                    if (pending.failure != null) {
+                        throw UncheckedException.throwAsUncheckedException(pending.failure);
+                    }
+                    if (pending.discovery == null) {
+                        pending.discovery = new CountDownLatch(1);
+                        toDiscover.add(pending);
+                    } else if (pending.discovery.getCount() > 0) {
+                        inProgress.add(pending.discovery);
+                    } else {
+                        iterator.remove();
+                    }
+                }
+            }
+            if (toDiscover.isEmpty() && inProgress.isEmpty()) {
+                return;
+            }
+            for (PendingModules pending : toDiscover) {
+                discover(pending);
+            }
+            for (CountDownLatch discovery : inProgress) {
+                Uninterruptibles.awaitUninterruptibly(discovery);
+            }
+            // Check again, to rethrow failures and pick up the builds registered meanwhile
+        }
+    }
+
+    private void discover(PendingModules pending) {
+        Throwable failure = null;
+        discoveringModules.set(Boolean.TRUE);
+        try {
+            addAvailableModules(pending.factory.create());
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            discoveringModules.remove();
+            synchronized (lock) {
+                pending.failure = failure;
+            }
+            pending.discovery.countDown();
+        }
+    }
+
+    private CompositeBuildDependencySubstitutions getModuleSubstitutions() {
+        synchronized (lock) {
+            if (moduleSubstitutions == null) {
+                moduleSubstitutions = new CompositeBuildDependencySubstitutions(availableModules);
+            }
+            return moduleSubstitutions;
+        }
+    }
+
+    private class AvailableModuleSubstitutions implements Action<DependencySubstitution> {
+        @Override
+        public void execute(DependencySubstitution substitution) {
+            ComponentSelector requested = ((DependencySubstitutionInternal) substitution).getTarget();
+            if (requested instanceof ModuleComponentSelector) {
+                discoverPendingModules(((ModuleComponentSelector) requested).getModule());
+                getModuleSubstitutions().execute(substitution);
+            }
+        }
+    }
+
+    /**
+     * The modules of a build that has not been configured yet, keyed by the names of the modules the build may provide.
+     */
+    private static class PendingModules {
+        private final Set<String> moduleNames;
+        private final Factory<Set<Pair<ModuleVersionIdentifier, ProjectComponentIdentifier>>> factory;
+        // Released once the modules have been discovered, null when the discovery has not started yet
+        private CountDownLatch discovery;
+        private Throwable failure;
+
+        PendingModules(Set<String> moduleNames, Factory<Set<Pair<ModuleVersionIdentifier, ProjectComponentIdentifier>>> factory) {
+            this.moduleNames = moduleNames;
+            this.factory = factory;
+        }
+
+        boolean mayProvide(String moduleName) {
+            return moduleNames.contains(moduleName);
+        }
     }
 }
@@ -47,12 +47,18 @@ import java.util.Map;
 import java.util.Set;
 
 public class DefaultIncludedBuildRegistry implements BuildStateRegistry, Stoppable {
+    /**
+     * Opts in to configuring an included build only once dependency resolution requests a module named after one of its projects.
+     */
+    public static final String CONFIGURE_ON_DEMAND_PROPERTY = "org.gradle.internal.composite.configure-on-demand";
+
     private final IncludedBuildFactory includedBuildFactory;
     private final ProjectStateRegistry projectRegistry;
     private final IncludedBuildDependencySubstitutionsBuilder dependencySubstitutionsBuilder;
     private final GradleLauncherFactory gradleLauncherFactory;
     private final ListenerManager listenerManager;
     private final ServiceRegistry rootServices;
+    private final boolean configureOnDemand;
 
     // TODO: Locking around this state
     private RootBuildState rootBuild;
@@ -60,13 +66,14 @@ public class DefaultIncludedBuildRegistry implements BuildStateRegistry, Stoppab
     private final Map<File, IncludedBuildState> includedBuilds = Maps.newLinkedHashMap();
     private final List<IncludedBuildState> pendingIncludedBuilds = Lists.newArrayList();
 
-    public DefaultIncludedBuildRegistry(IncludedBuildFactory includedBuildFactory, ProjectStateRegistry projectRegistry, IncludedBuildDependencySubstitutionsBuilder dependencySubstitutionsBuilder, GradleLauncherFactory gradleLauncherFactory, ListenerManager listenerManager, ServiceRegistry rootServices) {
+    public DefaultIncludedBuildRegistry(IncludedBuildFactory includedBuildFactory, ProjectStateRegistry projectRegistry, IncludedBuildDependencySubstitutionsBuilder dependencySubstitutionsBuilder, GradleLauncherFactory gradleLauncherFactory, ListenerManager listenerManager, ServiceRegistry rootServices, boolean configureOnDemand) {
         this.includedBuildFactory = includedBuildFactory;
         this.projectRegistry = projectRegistry;
         this.dependencySubstitutionsBuilder = dependencySubstitutionsBuilder;
         this.gradleLauncherFactory = gradleLauncherFactory;
         this.listenerManager = listenerManager;
         this.rootServices = rootServices;
+        this.configureOnDemand = configureOnDemand;
     }
 
     @Override
@@ -188,7 +195,11 @@ public class DefaultIncludedBuildRegistry implements BuildStateRegistry, Stoppab
         }
     }
 
-    private void registerSubstitutions(Iterable<IncludedBuildState> includedBuilds) {
+    private void registerSubstitutions(Collection<IncludedBuildState> includedBuilds) {
+        if (configureOnDemand) {
+            dependencySubstitutionsBuilder.buildOnDemand(includedBuilds);
+            return;
+        }
         for (IncludedBuildState includedBuild : includedBuilds) {
             dependencySubstitutionsBuilder.build(includedBuild);
         }
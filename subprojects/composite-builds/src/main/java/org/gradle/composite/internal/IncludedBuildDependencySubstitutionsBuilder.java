@@ -16,23 +16,38 @@
 
 package org.gradle.composite.internal;
 
+import com.google.common.collect.Sets;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.component.ProjectComponentIdentifier;
 import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
 import org.gradle.api.internal.artifacts.ivyservice.dependencysubstitution.DefaultDependencySubstitutions;
 import org.gradle.api.internal.artifacts.ivyservice.dependencysubstitution.DependencySubstitutionsInternal;
 import org.gradle.api.internal.composite.CompositeBuildContext;
+import org.gradle.internal.Factory;
+import org.gradle.internal.Pair;
+import org.gradle.initialization.DefaultProjectDescriptor;
 import org.gradle.internal.build.IncludedBuildState;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.RunnableBuildOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Set;
+
 public class IncludedBuildDependencySubstitutionsBuilder {
     private static final Logger LOGGER = LoggerFactory.getLogger(IncludedBuildDependencySubstitutionsBuilder.class);
 
     private final CompositeBuildContext context;
     private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
+    private final BuildOperationExecutor buildOperationExecutor;
 
-    public IncludedBuildDependencySubstitutionsBuilder(CompositeBuildContext context, ImmutableModuleIdentifierFactory moduleIdentifierFactory) {
+    public IncludedBuildDependencySubstitutionsBuilder(CompositeBuildContext context, ImmutableModuleIdentifierFactory moduleIdentifierFactory, BuildOperationExecutor buildOperationExecutor) {
         this.context = context;
         this.moduleIdentifierFactory = moduleIdentifierFactory;
+        this.buildOperationExecutor = buildOperationExecutor;
     }
 
     public void build(IncludedBuildState build) {
@@ -47,10 +62,67 @@ public class IncludedBuildDependencySubstitutionsBuilder {
         }
     }
 
+    /**
+     * Registers the substitutions of the given builds, without configuring any of them. The builds that do not define explicit substitutions
+     * are configured the first time a module with the name of one of their projects is substituted, as their available modules are only known
+     * once they are configured. Builds providing different modules can be configured concurrently.
+     */
+    public void buildOnDemand(Collection<IncludedBuildState> builds) {
+        for (final IncludedBuildState build : builds) {
+            DependencySubstitutionsInternal substitutions = resolveDependencySubstitutions(build);
+            if (!substitutions.hasRules()) {
+                context.addAvailableModulesOnDemand(projectNames(build), new Factory<Set<Pair<ModuleVersionIdentifier, ProjectComponentIdentifier>>>() {
+                    @Override
+                    public Set<Pair<ModuleVersionIdentifier, ProjectComponentIdentifier>> create() {
+                        buildOperationExecutor.run(new DiscoverAvailableModules(build));
+                        return build.getAvailableModules();
+                    }
+                });
+            } else {
+                context.registerSubstitution(substitutions.getRuleAction());
+            }
+        }
+    }
+
+    /**
+     * The names of the modules the build may provide. These are known from the settings, as the module of a project is named after the project.
+     */
+    private static Set<String> projectNames(IncludedBuildState build) {
+        Set<String> projectNames = Sets.newHashSet();
+        for (DefaultProjectDescriptor project : build.getLoadedSettings().getProjectRegistry().getAllProjects()) {
+            projectNames.add(project.getName());
+        }
+        return projectNames;
+    }
+
     private DependencySubstitutionsInternal resolveDependencySubstitutions(IncludedBuildState build) {
         DependencySubstitutionsInternal dependencySubstitutions = DefaultDependencySubstitutions.forIncludedBuild(build, moduleIdentifierFactory);
         build.getRegisteredDependencySubstitutions().execute(dependencySubstitutions);
         return dependencySubstitutions;
     }
 
+    private class DiscoverAvailableModules implements RunnableBuildOperation {
+        private final IncludedBuildState build;
+
+        DiscoverAvailableModules(IncludedBuildState build) {
+            this.build = build;
+        }
+
+        @Override
+        public void run(BuildOperationContext buildOperationContext) {
+            LOGGER.info("[composite-build] Configuring build: " + build.getModel().getProjectDir());
+            context.runDuringModuleDiscovery(new Runnable() {
+                @Override
+                public void run() {
+                    // The result is retained by the build
+                    build.getAvailableModules();
+                }
+            });
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Configure included build " + build.getBuildIdentifier().getName());
+        }
+    }
 }
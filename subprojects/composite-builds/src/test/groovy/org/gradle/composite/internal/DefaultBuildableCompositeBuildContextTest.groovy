@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.composite.internal
+
+import org.gradle.api.artifacts.component.ProjectComponentSelector
+import org.gradle.api.internal.artifacts.DefaultBuildIdentifier
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.api.internal.artifacts.DefaultModuleVersionIdentifier
+import org.gradle.api.internal.artifacts.DefaultProjectComponentIdentifier
+import org.gradle.api.internal.artifacts.DependencySubstitutionInternal
+import org.gradle.internal.Factory
+import org.gradle.internal.Pair
+import org.gradle.internal.component.external.model.DefaultModuleComponentSelector
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+import org.gradle.util.Path
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+class DefaultBuildableCompositeBuildContextTest extends ConcurrentSpec {
+    def context = new DefaultBuildableCompositeBuildContext()
+    def module = module("a")
+    def substituted = new CopyOnWriteArrayList()
+
+    def "discovers only the pending modules with the name of a substituted module"() {
+        def factoryA = Mock(Factory)
+        def factoryB = Mock(Factory)
+
+        given:
+        context.addAvailableModulesOnDemand(["a"] as Set, factoryA)
+        context.addAvailableModulesOnDemand(["b"] as Set, factoryB)
+
+        when:
+        def hasRules = context.hasRules()
+        def ruleAction = context.getRuleAction()
+
+        then:
+        hasRules
+        0 * factoryA._
+        0 * factoryB._
+
+        when:
+        ruleAction.execute(substitution("a"))
+        ruleAction.execute(substitution("a"))
+
+        then:
+        substituted == ["a", "a"]
+        1 * factoryA.create() >> ([module] as Set)
+        0 * factoryA._
+        0 * factoryB._
+    }
+
+    def "does not discover pending modules for other modules or project selectors"() {
+        def factory = Mock(Factory)
+
+        given:
+        context.addAvailableModulesOnDemand(["a"] as Set, factory)
+
+        when:
+        context.ruleAction.execute(substitution("c"))
+        context.ruleAction.execute(Stub(DependencySubstitutionInternal) {
+            getTarget() >> Stub(ProjectComponentSelector)
+        })
+
+        then:
+        substituted.empty
+        0 * factory._
+    }
+
+    def "waits for the modules discovered by another thread"() {
+        def first = substitution("a")
+        def second = substitution("a")
+
+        given:
+        context.addAvailableModulesOnDemand(["a"] as Set, {
+            instant.discovering
+            thread.block()
+            instant.discovered
+            [module] as Set
+        } as Factory)
+
+        when:
+        async {
+            start {
+                context.ruleAction.execute(first)
+            }
+            start {
+                thread.blockUntil.discovering
+                context.ruleAction.execute(second)
+                instant.queried
+            }
+        }
+
+        then:
+        substituted == ["a", "a"]
+        instant.queried > instant.discovered
+    }
+
+    def "substitutions made while discovering modules use the modules known so far"() {
+        def reentrant = substitution("b")
+        def fromWorker = substitution("b")
+
+        given:
+        context.addAvailableModulesOnDemand(["a"] as Set, {
+            context.ruleAction.execute(reentrant)
+            def worker = Thread.start {
+                context.runDuringModuleDiscovery {
+                    context.ruleAction.execute(fromWorker)
+                }
+            }
+            worker.join()
+            [module] as Set
+        } as Factory)
+        context.addAvailableModulesOnDemand(["a", "b"] as Set, {
+            [module("b")] as Set
+        } as Factory)
+
+        when:
+        context.ruleAction.execute(substitution("a"))
+
+        then:
+        substituted == ["a"]
+
+        when:
+        context.ruleAction.execute(substitution("b"))
+
+        then:
+        substituted == ["a", "b"]
+    }
+
+    def "rethrows the failure to discover modules to all callers"() {
+        def failure = new RuntimeException("broken")
+
+        given:
+        context.addAvailableModulesOnDemand(["a"] as Set, { throw failure } as Factory)
+
+        when:
+        context.ruleAction.execute(substitution("a"))
+
+        then:
+        def e = thrown(RuntimeException)
+        e.is(failure)
+
+        when:
+        context.ruleAction.execute(substitution("a"))
+
+        then:
+        e = thrown(RuntimeException)
+        e.is(failure)
+    }
+
+    private static Pair module(String name) {
+        return Pair.of(DefaultModuleVersionIdentifier.newId("org", name, "1.0"), new DefaultProjectComponentIdentifier(new DefaultBuildIdentifier("included"), Path.path(":included:" + name), Path.path(":" + name), name))
+    }
+
+    private DependencySubstitutionInternal substitution(String name) {
+        return Stub(DependencySubstitutionInternal) {
+            getTarget() >> DefaultModuleComponentSelector.newSelector(DefaultModuleIdentifier.newId("org", name), "1.0")
+            useTarget(_, _) >> { substituted << name }
+        }
+    }
+}
@@ -40,7 +40,8 @@ class DefaultIncludedBuildRegistryTest extends Specification {
     @Rule
     TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
     def includedBuildFactory = Stub(IncludedBuildFactory)
-    def registry = new DefaultIncludedBuildRegistry(includedBuildFactory, Stub(ProjectStateRegistry), Stub(IncludedBuildDependencySubstitutionsBuilder), Stub(GradleLauncherFactory), Stub(ListenerManager), Stub(ServiceRegistry))
+    def dependencySubstitutionsBuilder = Mock(IncludedBuildDependencySubstitutionsBuilder)
+    def registry = new DefaultIncludedBuildRegistry(includedBuildFactory, Stub(ProjectStateRegistry), dependencySubstitutionsBuilder, Stub(GradleLauncherFactory), Stub(ListenerManager), Stub(ServiceRegistry), false)
 
     def "is empty by default"() {
         expect:
@@ -236,6 +237,46 @@ class DefaultIncludedBuildRegistryTest extends Specification {
         nestedBuild4.identityPath == Path.path(":parent:nested:3")
     }
 
+    def "registers substitutions of each included build before configuring the root build"() {
+        def includedBuild1 = Stub(IncludedBuildState)
+        def includedBuild2 = Stub(IncludedBuildState)
+
+        given:
+        registry.register(rootBuild())
+        includedBuildFactory.createBuild(new DefaultBuildIdentifier("b1"), _, _, false, _) >> includedBuild1
+        includedBuildFactory.createBuild(new DefaultBuildIdentifier("b2"), _, _, false, _) >> includedBuild2
+        registry.addIncludedBuild(build(tmpDir.createDir("b1")))
+        registry.addIncludedBuild(build(tmpDir.createDir("b2")))
+
+        when:
+        registry.beforeConfigureRootBuild()
+
+        then:
+        1 * dependencySubstitutionsBuilder.build(includedBuild1)
+        1 * dependencySubstitutionsBuilder.build(includedBuild2)
+        0 * dependencySubstitutionsBuilder._
+    }
+
+    def "defers configuration of included builds when configuring on demand"() {
+        def registry = new DefaultIncludedBuildRegistry(includedBuildFactory, Stub(ProjectStateRegistry), dependencySubstitutionsBuilder, Stub(GradleLauncherFactory), Stub(ListenerManager), Stub(ServiceRegistry), true)
+        def includedBuild1 = Stub(IncludedBuildState)
+        def includedBuild2 = Stub(IncludedBuildState)
+
+        given:
+        registry.register(rootBuild())
+        includedBuildFactory.createBuild(new DefaultBuildIdentifier("b1"), _, _, false, _) >> includedBuild1
+        includedBuildFactory.createBuild(new DefaultBuildIdentifier("b2"), _, _, false, _) >> includedBuild2
+        registry.addIncludedBuild(build(tmpDir.createDir("b1")))
+        registry.addIncludedBuild(build(tmpDir.createDir("b2")))
+
+        when:
+        registry.beforeConfigureRootBuild()
+
+        then:
+        1 * dependencySubstitutionsBuilder.buildOnDemand({ it as List == [includedBuild1, includedBuild2] })
+        0 * dependencySubstitutionsBuilder._
+    }
+
     def build(File rootDir) {
         return BuildDefinition.fromStartParameterForBuild(StartParameter.getConstructor().newInstance(), null, rootDir, DefaultPluginRequests.EMPTY, null)
     }
@@ -19,6 +19,7 @@ package org.gradle.api.tasks
 import org.gradle.api.internal.tasks.DefaultTaskContainer
 import org.gradle.api.internal.tasks.RealizeTaskBuildOperationType
 import org.gradle.api.internal.tasks.RegisterTaskBuildOperationType
+import org.gradle.api.internal.tasks.TaskStatistics
 import org.gradle.api.specs.Spec
 import org.gradle.integtests.fixtures.AbstractIntegrationSpec
 import org.gradle.integtests.fixtures.BuildOperationsFixture
@@ -90,6 +91,22 @@ class TaskCreationBuildOperationIntegrationTest extends AbstractIntegrationSpec
         realize.progress[2].details.message.startsWith("create 3")
     }
 
+    def "records the location that realized a lazily registered task when collecting task statistics"() {
+        buildFile << """
+            tasks.register('foo')
+            tasks.getByName('foo')
+        """
+
+        when:
+        args("-D${TaskStatistics.TASK_STATISTICS_PROPERTY}=")
+        run('help')
+
+        then:
+        def realize = verifyTaskDetails(RealizeTaskBuildOperationType, withPath(':', ':foo'))
+        realize.details.callerLocation.contains("${buildFile.name}:3")
+        outputContains("Locations that realized tasks registered with the new API")
+    }
+
     def "emits registration build ops when tasks not realized"() {
         given:
         stopBeforeTaskGraphCalculation()
@@ -18,6 +18,7 @@ package org.gradle.api.internal;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.SetMultimap;
+import com.google.common.io.ByteStreams;
 import groovy.lang.Closure;
 import groovy.lang.GroovyObject;
 import org.apache.commons.collections.map.AbstractReferenceMap;
@@ -28,6 +29,9 @@ import org.gradle.api.NonExtensible;
 import org.gradle.api.plugins.ExtensionAware;
 import org.gradle.api.provider.HasMultipleValues;
 import org.gradle.api.provider.Property;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
 import org.gradle.internal.reflect.ClassDetails;
 import org.gradle.internal.reflect.ClassInspector;
 import org.gradle.internal.reflect.DirectInstantiator;
@@ -37,6 +41,8 @@ import org.gradle.internal.service.ServiceRegistry;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -50,6 +56,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -70,20 +78,67 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
     private static final Lock CACHE_LOCK = new ReentrantLock();
     private static final Collection<String> SKIP_PROPERTIES = Arrays.asList("class", "metaClass", "conventionMapping", "convention", "asDynamicObject", "extensions");
 
+    private final GeneratedBytecodeCache bytecodeCache;
+    private volatile HashCode generatorHash;
+
+    protected AbstractClassGenerator() {
+        this(null);
+    }
+
+    /**
+     * Creates a generator that reuses the bytecode in the given cache for classes whose type hierarchy has not changed.
+     */
+    protected AbstractClassGenerator(@Nullable GeneratedBytecodeCache bytecodeCache) {
+        this.bytecodeCache = bytecodeCache;
+    }
+
     public <T> T newInstance(Class<T> type, Object... parameters) {
         return DirectInstantiator.instantiate(generate(type), parameters);
     }
 
     public <T> Class<? extends T> generate(Class<T> type) {
+        if (bytecodeCache == null) {
+            return generate(type, null, null);
+        }
+        Class<? extends T> generatedClass = findGenerated(type);
+        if (generatedClass != null) {
+            return generatedClass;
+        }
+
+        // Loading and storing the bytecode involves I/O, so do it without holding the lock
+        HashCode bytecodeCacheKey = bytecodeCacheKey(type);
+        if (bytecodeCacheKey == null) {
+            return generate(type, null, null);
+        }
+        AtomicReference<byte[]> generatedBytecode = new AtomicReference<byte[]>();
+        generatedClass = generate(type, bytecodeCache.load(bytecodeCacheKey), generatedBytecode);
+        if (generatedBytecode.get() != null) {
+            bytecodeCache.store(bytecodeCacheKey, generatedBytecode.get());
+        }
+        return generatedClass;
+    }
+
+    private <T> Class<? extends T> generate(Class<T> type, @Nullable byte[] cachedBytecode, @Nullable AtomicReference<byte[]> generatedBytecode) {
+        try {
+            CACHE_LOCK.lock();
+            return generateUnderLock(type, cachedBytecode, generatedBytecode);
+        } finally {
+            CACHE_LOCK.unlock();
+        }
+    }
+
+    @Nullable
+    private <T> Class<? extends T> findGenerated(Class<T> type) {
         try {
             CACHE_LOCK.lock();
-            return generateUnderLock(type);
+            Class<?> generatedClass = generatedClassesUnderLock().get(type);
+            return generatedClass == null ? null : generatedClass.asSubclass(type);
         } finally {
             CACHE_LOCK.unlock();
         }
     }
 
-    private <T> Class<? extends T> generateUnderLock(Class<T> type) {
+    private Map<Class<?>, Class<?>> generatedClassesUnderLock() {
         Map<Class<?>, Class<?>> cache = GENERATED_CLASSES.get(getClass());
         if (cache == null) {
             // WeakHashMap won't work here. It keeps a strong reference to the mapping value, which is the generated class in this case
@@ -92,6 +147,17 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
             cache = new ReferenceMap(AbstractReferenceMap.WEAK, AbstractReferenceMap.WEAK);
             GENERATED_CLASSES.put(getClass(), cache);
         }
+        return cache;
+    }
+
+    /**
+     * Generates the class for the given type, unless another thread did so meanwhile.
+     *
+     * @param cachedBytecode the bytecode loaded from the persistent cache, if any, which is defined instead of generating the class.
+     * @param generatedBytecode receives the bytecode of a newly generated class, to be stored in the persistent cache.
+     */
+    private <T> Class<? extends T> generateUnderLock(Class<T> type, @Nullable byte[] cachedBytecode, @Nullable AtomicReference<byte[]> generatedBytecode) {
+        Map<Class<?>, Class<?>> cache = generatedClassesUnderLock();
         Class<?> generatedClass = cache.get(type);
         if (generatedClass != null) {
             return generatedClass.asSubclass(type);
@@ -110,6 +176,18 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
             throw new GradleException(String.format("Cannot create a proxy class for final class '%s'.",
                 type.getSimpleName()));
         }
+        if (cachedBytecode != null) {
+            Class<? extends T> subclass;
+            try {
+                subclass = define(type, cachedBytecode);
+            } catch (Throwable e) {
+                throw new GradleException(String.format("Could not generate a proxy class for class %s.", type.getName()), e);
+            }
+            cache.put(type, subclass);
+            cache.put(subclass, subclass);
+            return subclass;
+        }
+
         Class<? extends T> subclass;
         try {
             ClassMetaData classMetaData = inspectType(type);
@@ -224,6 +302,9 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
             }
 
             subclass = builder.generate();
+            if (generatedBytecode != null) {
+                generatedBytecode.set(builder.getBytecode());
+            }
         } catch (Throwable e) {
             throw new GradleException(String.format("Could not generate a proxy class for class %s.", type.getName()), e);
         }
@@ -235,6 +316,121 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 
     protected abstract <T> ClassBuilder<T> start(Class<T> type, ClassMetaData classMetaData);
 
+    /**
+     * Defines the generated class for the given type from bytecode that was generated earlier.
+     */
+    protected abstract <T> Class<? extends T> define(Class<T> type, byte[] bytecode);
+
+    /**
+     * Calculates the key of the generated bytecode for the given type, based on the class files of this generator, of the type hierarchy
+     * and of the hierarchies of the types used in the signatures of the type hierarchy, such as property types. The generated class depends
+     * on the latter, for example on whether a property type is a {@link Property} or an {@link Iterable}.
+     *
+     * @return the key or {@code null} when the class file of some type cannot be found, for example because the type was itself generated.
+     */
+    @Nullable
+    private HashCode bytecodeCacheKey(Class<?> type) {
+        if (generatorHash == null) {
+            Hasher hasher = Hashing.newHasher();
+            Set<Class<?>> generatorTypes = new LinkedHashSet<Class<?>>();
+            for (Class<?> generatorType = getClass(); generatorType != Object.class; generatorType = generatorType.getSuperclass()) {
+                generatorTypes.add(generatorType);
+                generatorTypes.addAll(Arrays.asList(generatorType.getDeclaredClasses()));
+            }
+            for (Class<?> generatorType : generatorTypes) {
+                if (!hashClassFile(hasher, generatorType)) {
+                    return null;
+                }
+            }
+            generatorHash = hasher.hash();
+        }
+
+        Hasher hasher = Hashing.newHasher();
+        hasher.putHash(generatorHash);
+        Set<Class<?>> visited = new HashSet<Class<?>>();
+        // The order of the declared methods is unspecified, so visit the signature types by name
+        Map<String, Class<?>> signatureTypes = new TreeMap<String, Class<?>>();
+        if (!hashTypeHierarchy(hasher, type, visited, signatureTypes)) {
+            return null;
+        }
+        for (Class<?> signatureType : signatureTypes.values()) {
+            if (!hashTypeHierarchy(hasher, signatureType, visited, null)) {
+                return null;
+            }
+        }
+        return hasher.hash();
+    }
+
+    /**
+     * Hashes the class files of the given type and of its supertypes.
+     *
+     * @param signatureTypes receives the types used in the signatures of the methods and constructors of the hierarchy, when not {@code null}.
+     */
+    private static boolean hashTypeHierarchy(Hasher hasher, Class<?> type, Set<Class<?>> visited, @Nullable Map<String, Class<?>> signatureTypes) {
+        List<Class<?>> queue = new ArrayList<Class<?>>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            Class<?> current = queue.remove(0);
+            while (current.isArray()) {
+                current = current.getComponentType();
+            }
+            if (!visited.add(current)) {
+                continue;
+            }
+            if (current.getClassLoader() == null) {
+                // A JVM type, which only changes with the JVM
+                hasher.putString(current.getName());
+                continue;
+            }
+            if (!hashClassFile(hasher, current)) {
+                return false;
+            }
+            if (current.getSuperclass() != null) {
+                queue.add(current.getSuperclass());
+            }
+            queue.addAll(Arrays.asList(current.getInterfaces()));
+            if (signatureTypes != null) {
+                for (Method method : current.getDeclaredMethods()) {
+                    addSignatureType(signatureTypes, method.getReturnType());
+                    addSignatureTypes(signatureTypes, method.getParameterTypes());
+                }
+                for (Constructor<?> constructor : current.getDeclaredConstructors()) {
+                    addSignatureTypes(signatureTypes, constructor.getParameterTypes());
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void addSignatureTypes(Map<String, Class<?>> signatureTypes, Class<?>[] types) {
+        for (Class<?> type : types) {
+            addSignatureType(signatureTypes, type);
+        }
+    }
+
+    private static void addSignatureType(Map<String, Class<?>> signatureTypes, Class<?> type) {
+        signatureTypes.put(type.getName(), type);
+    }
+
+    private static boolean hashClassFile(Hasher hasher, Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader();
+        InputStream classFile = classLoader == null ? null : classLoader.getResourceAsStream(type.getName().replace('.', '/') + ".class");
+        if (classFile == null) {
+            return false;
+        }
+        try {
+            try {
+                hasher.putString(type.getName());
+                hasher.putBytes(ByteStreams.toByteArray(classFile));
+                return true;
+            } finally {
+                classFile.close();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     private ClassMetaData inspectType(Class<?> type) {
         boolean isConventionAware = type.getAnnotation(NoConventionMapping.class) == null;
         boolean extensible = JavaReflectionUtil.getAnnotation(type, NonExtensible.class) == null;
@@ -477,5 +673,10 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
         void generateServiceRegistrySupportMethods() throws Exception;
 
         Class<? extends T> generate() throws Exception;
+
+        /**
+         * Returns the bytecode of the class, once it has been generated.
+         */
+        byte[] getBytecode();
     }
 }
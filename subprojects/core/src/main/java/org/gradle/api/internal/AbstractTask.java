@@ -42,6 +42,7 @@ import org.gradle.api.internal.tasks.DefaultTaskLocalState;
 import org.gradle.api.internal.tasks.DefaultTaskOutputs;
 import org.gradle.api.internal.tasks.ImplementationAwareTaskAction;
 import org.gradle.api.internal.tasks.PropertySpecFactory;
+import org.gradle.api.internal.tasks.RunsWithoutProjectLock;
 import org.gradle.api.internal.tasks.TaskContainerInternal;
 import org.gradle.api.internal.tasks.TaskDependencyInternal;
 import org.gradle.api.internal.tasks.TaskExecutionContext;
@@ -905,6 +906,11 @@ public abstract class AbstractTask implements TaskInternal, DynamicObjectAware {
         return hasCustomActions;
     }
 
+    @Override
+    public boolean isProjectLockRequired() {
+        return hasCustomActions || !GeneratedSubclasses.unpack(getClass()).isAnnotationPresent(RunsWithoutProjectLock.class);
+    }
+
     @Override
     public Property<Duration> getTimeout() {
         return timeout;
@@ -29,6 +29,7 @@ import org.gradle.api.internal.provider.PropertyInternal;
 import org.gradle.api.plugins.Convention;
 import org.gradle.api.plugins.ExtensionAware;
 import org.gradle.internal.UncheckedException;
+import org.gradle.internal.classloader.ClassLoaderUtils;
 import org.gradle.internal.metaobject.AbstractDynamicObject;
 import org.gradle.internal.metaobject.BeanDynamicObject;
 import org.gradle.internal.metaobject.DynamicObject;
@@ -73,11 +74,26 @@ import static org.objectweb.asm.Opcodes.V1_5;
 import static org.objectweb.asm.Type.VOID_TYPE;
 
 public class AsmBackedClassGenerator extends AbstractClassGenerator {
+    private static final String GENERATED_CLASS_SUFFIX = "_Decorated";
+
+    public AsmBackedClassGenerator() {
+    }
+
+    public AsmBackedClassGenerator(GeneratedBytecodeCache bytecodeCache) {
+        super(bytecodeCache);
+    }
+
     @Override
     protected <T> ClassBuilder<T> start(Class<T> type, ClassMetaData classMetaData) {
         return new ClassBuilderImpl<T>(type, classMetaData);
     }
 
+    @Override
+    protected <T> Class<? extends T> define(Class<T> type, byte[] bytecode) {
+        Class<?> generatedClass = ClassLoaderUtils.defineDecorator(type, type.getClassLoader(), type.getName() + GENERATED_CLASS_SUFFIX, bytecode);
+        return generatedClass.asSubclass(type);
+    }
+
     private static class ClassBuilderImpl<T> implements ClassBuilder<T> {
         public static final int PV_FINAL_STATIC = Opcodes.ACC_PRIVATE | ACC_STATIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC;
         private static final Set<? extends Class<?>> PRIMITIVE_TYPES = ImmutableSet.of(Byte.TYPE, Boolean.TYPE, Character.TYPE, Short.TYPE, Integer.TYPE, Long.TYPE, Float.TYPE, Double.TYPE);
@@ -149,7 +165,7 @@ public class AsmBackedClassGenerator extends AbstractClassGenerator {
         private ClassBuilderImpl(Class<T> type, ClassMetaData classMetaData) {
             this.type = type;
 
-            classGenerator = new AsmClassGenerator(type, "_Decorated");
+            classGenerator = new AsmClassGenerator(type, GENERATED_CLASS_SUFFIX);
             visitor = classGenerator.getVisitor();
             generatedType = classGenerator.getGeneratedType();
             superclassType = Type.getType(type);
@@ -978,6 +994,11 @@ public class AsmBackedClassGenerator extends AbstractClassGenerator {
             return classGenerator.define().asSubclass(type);
         }
 
+        @Override
+        public byte[] getBytecode() {
+            return visitor.toByteArray();
+        }
+
         private void writeGenericReturnTypeFields() {
             if (!genericReturnTypeConstantsIndex.isEmpty()) {
                 MethodVisitor mv = visitor.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
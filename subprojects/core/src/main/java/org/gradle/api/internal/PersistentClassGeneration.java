@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal;
+
+import org.gradle.cache.internal.CrossBuildInMemoryCacheFactory;
+
+/**
+ * The class generator and instantiator factory that reuse the bytecode kept in a {@link GeneratedBytecodeCache}.
+ * They live as long as the Gradle user home services, while each build session decides whether to use them.
+ */
+public class PersistentClassGeneration {
+    private final ClassGenerator classGenerator;
+    private final InstantiatorFactory instantiatorFactory;
+
+    public PersistentClassGeneration(GeneratedBytecodeCache bytecodeCache, CrossBuildInMemoryCacheFactory cacheFactory) {
+        this.classGenerator = new AsmBackedClassGenerator(bytecodeCache);
+        this.instantiatorFactory = new DefaultInstantiatorFactory(classGenerator, cacheFactory);
+    }
+
+    public ClassGenerator getClassGenerator() {
+        return classGenerator;
+    }
+
+    public InstantiatorFactory getInstantiatorFactory() {
+        return instantiatorFactory;
+    }
+}
@@ -82,6 +82,14 @@ public interface TaskInternal extends Task, Configurable<Task>, CacheableEntity
     @Internal
     boolean isHasCustomActions();
 
+    /**
+     * Returns whether the lock of the owning project needs to be held while executing this task.
+     *
+     * @see org.gradle.api.internal.tasks.RunsWithoutProjectLock
+     */
+    @Internal
+    boolean isProjectLockRequired();
+
     @Internal
     Path getIdentityPath();
 
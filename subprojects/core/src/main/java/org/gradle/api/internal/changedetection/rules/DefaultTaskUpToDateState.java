@@ -21,10 +21,18 @@ import org.gradle.api.internal.TaskInternal;
 import org.gradle.api.internal.changedetection.state.TaskExecution;
 import org.gradle.internal.changes.TaskStateChange;
 import org.gradle.internal.changes.TaskStateChangeVisitor;
+import org.gradle.internal.hash.HashCode;
 
 @NonNullApi
 public class DefaultTaskUpToDateState implements TaskUpToDateState {
 
+    private static final TaskStateChanges NO_CHANGES = new TaskStateChanges() {
+        @Override
+        public boolean accept(TaskStateChangeVisitor visitor) {
+            return true;
+        }
+    };
+
     private final TaskStateChanges inputFileChanges;
     private final OutputFileTaskStateChanges outputFileChanges;
     private final TaskStateChanges allTaskChanges;
@@ -34,8 +42,17 @@ public class DefaultTaskUpToDateState implements TaskUpToDateState {
     public DefaultTaskUpToDateState(TaskExecution lastExecution, TaskExecution thisExecution, TaskInternal task) {
         TaskStateChanges previousSuccessState = new PreviousSuccessTaskStateChanges(lastExecution);
         TaskStateChanges taskTypeState = new TaskTypeTaskStateChanges(lastExecution, thisExecution, task);
-        TaskStateChanges inputPropertyChanges = new InputPropertyTaskStateChanges(lastExecution, thisExecution, task);
-        TaskStateChanges inputPropertyValueChanges = new InputPropertyValueTaskStateChanges(lastExecution, thisExecution, task);
+        TaskStateChanges inputPropertyChanges;
+        TaskStateChanges inputPropertyValueChanges;
+        HashCode inputPropertiesHash = thisExecution.getInputPropertiesHash();
+        if (inputPropertiesHash != null && inputPropertiesHash.equals(lastExecution.getInputPropertiesHash())) {
+            // Same input property names and values, no need to diff the properties one by one
+            inputPropertyChanges = NO_CHANGES;
+            inputPropertyValueChanges = NO_CHANGES;
+        } else {
+            inputPropertyChanges = new InputPropertyTaskStateChanges(lastExecution, thisExecution, task);
+            inputPropertyValueChanges = new InputPropertyValueTaskStateChanges(lastExecution, thisExecution, task);
+        }
 
         // Capture outputs state
         this.outputFilePropertyChanges = new OutputPropertyTaskChanges(lastExecution, thisExecution, task);
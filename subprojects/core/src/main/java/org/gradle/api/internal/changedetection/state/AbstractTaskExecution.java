@@ -16,29 +16,51 @@
 package org.gradle.api.internal.changedetection.state;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
 import org.gradle.internal.snapshot.ValueSnapshot;
 import org.gradle.internal.snapshot.impl.ImplementationSnapshot;
 
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.SortedMap;
+
 public abstract class AbstractTaskExecution implements TaskExecution {
 
     private final ImplementationSnapshot taskImplementation;
     private final ImmutableList<ImplementationSnapshot> taskActionImplementations;
-    private final ImmutableSortedMap<String, ValueSnapshot> inputProperties;
+    private final HashCode inputPropertiesHash;
     private final ImmutableSortedSet<String> outputPropertyNamesForCacheKey;
 
     public AbstractTaskExecution(
         ImplementationSnapshot taskImplementation,
         ImmutableList<ImplementationSnapshot> taskActionImplementations,
-        ImmutableSortedMap<String, ValueSnapshot> inputProperties,
+        @Nullable HashCode inputPropertiesHash,
         ImmutableSortedSet<String> outputPropertyNames) {
         this.taskImplementation = taskImplementation;
         this.taskActionImplementations = taskActionImplementations;
-        this.inputProperties = inputProperties;
+        this.inputPropertiesHash = inputPropertiesHash;
         this.outputPropertyNamesForCacheKey = outputPropertyNames;
     }
 
+    /**
+     * Calculates the combined hash of the given input property names and value snapshots, or {@code null} when some value cannot be hashed.
+     */
+    @Nullable
+    public static HashCode hashInputProperties(SortedMap<String, ValueSnapshot> inputProperties) {
+        Hasher hasher = Hashing.newHasher();
+        for (Map.Entry<String, ValueSnapshot> entry : inputProperties.entrySet()) {
+            hasher.putString(entry.getKey());
+            entry.getValue().appendToHasher(hasher);
+            if (!hasher.isValid()) {
+                return null;
+            }
+        }
+        return hasher.hash();
+    }
+
     @Override
     public ImmutableSortedSet<String> getOutputPropertyNamesForCacheKey() {
         return ImmutableSortedSet.copyOf(outputPropertyNamesForCacheKey);
@@ -54,9 +76,10 @@ public abstract class AbstractTaskExecution implements TaskExecution {
         return taskActionImplementations;
     }
 
+    @Nullable
     @Override
-    public ImmutableSortedMap<String, ValueSnapshot> getInputProperties() {
-        return inputProperties;
+    public HashCode getInputPropertiesHash() {
+        return inputPropertiesHash;
     }
 
 }
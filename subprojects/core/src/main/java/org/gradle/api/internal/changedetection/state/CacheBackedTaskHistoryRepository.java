@@ -43,6 +43,7 @@ import org.gradle.internal.fingerprint.HistoricalFileCollectionFingerprint;
 import org.gradle.internal.fingerprint.impl.AbsolutePathFingerprintingStrategy;
 import org.gradle.internal.fingerprint.impl.DefaultCurrentFileCollectionFingerprint;
 import org.gradle.internal.fingerprint.impl.EmptyHistoricalFileCollectionFingerprint;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.snapshot.DirectorySnapshot;
 import org.gradle.internal.snapshot.FileSystemLocationSnapshot;
 import org.gradle.internal.snapshot.FileSystemSnapshot;
@@ -137,8 +138,15 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
             LOGGER.debug("Action implementations for {}: {}", task, taskActionImplementations);
         }
 
-        ImmutableSortedMap<String, ValueSnapshot> previousInputProperties = previousExecution == null ? ImmutableSortedMap.<String, ValueSnapshot>of() : previousExecution.getInputProperties();
-        ImmutableSortedMap<String, ValueSnapshot> inputProperties = snapshotTaskInputProperties(task, taskProperties, previousInputProperties, valueSnapshotter);
+        Map<String, Object> inputPropertyValues = taskProperties.getInputPropertyValues().create();
+        assert inputPropertyValues != null;
+        ImmutableSortedMap<String, ValueSnapshot> inputProperties = snapshotTaskInputProperties(task, inputPropertyValues, ImmutableSortedMap.<String, ValueSnapshot>of(), valueSnapshotter);
+        HashCode inputPropertiesHash = AbstractTaskExecution.hashInputProperties(inputProperties);
+        if (previousExecution != null && (inputPropertiesHash == null || !inputPropertiesHash.equals(previousExecution.getInputPropertiesHash()))) {
+            // Only compare against the previous values when they may have changed, so the previous values do not need to be decoded otherwise
+            inputProperties = snapshotTaskInputProperties(task, inputPropertyValues, previousExecution.getInputProperties(), inputProperties, valueSnapshotter);
+            inputPropertiesHash = AbstractTaskExecution.hashInputProperties(inputProperties);
+        }
 
         ImmutableSortedSet<String> outputPropertyNames = getOutputPropertyNamesForCacheKey(taskProperties);
 
@@ -152,6 +160,7 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
             taskImplementation,
             taskActionImplementations,
             inputProperties,
+            inputPropertiesHash,
             outputPropertyNames,
             inputFiles,
             outputFiles,
@@ -304,16 +313,24 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
         return actionImplementations.build();
     }
 
-    private static ImmutableSortedMap<String, ValueSnapshot> snapshotTaskInputProperties(TaskInternal task, TaskProperties taskProperties, ImmutableSortedMap<String, ValueSnapshot> previousInputProperties, ValueSnapshotter valueSnapshotter) {
+    private static ImmutableSortedMap<String, ValueSnapshot> snapshotTaskInputProperties(TaskInternal task, Map<String, Object> inputPropertyValues, ImmutableSortedMap<String, ValueSnapshot> previousInputProperties, ValueSnapshotter valueSnapshotter) {
+        return snapshotTaskInputProperties(task, inputPropertyValues, previousInputProperties, ImmutableSortedMap.<String, ValueSnapshot>of(), valueSnapshotter);
+    }
+
+    /**
+     * Snapshots the input property values, using the previous snapshots as candidates. Properties whose snapshot is already known and equal to the previous one are not snapshotted again.
+     */
+    private static ImmutableSortedMap<String, ValueSnapshot> snapshotTaskInputProperties(TaskInternal task, Map<String, Object> inputPropertyValues, ImmutableSortedMap<String, ValueSnapshot> previousInputProperties, ImmutableSortedMap<String, ValueSnapshot> knownInputProperties, ValueSnapshotter valueSnapshotter) {
         ImmutableSortedMap.Builder<String, ValueSnapshot> builder = ImmutableSortedMap.naturalOrder();
-        Map<String, Object> inputPropertyValues = taskProperties.getInputPropertyValues().create();
-        assert inputPropertyValues != null;
         for (Map.Entry<String, Object> entry : inputPropertyValues.entrySet()) {
             String propertyName = entry.getKey();
             Object value = entry.getValue();
             try {
                 ValueSnapshot previousSnapshot = previousInputProperties.get(propertyName);
-                if (previousSnapshot == null) {
+                ValueSnapshot knownSnapshot = knownInputProperties.get(propertyName);
+                if (knownSnapshot != null && (previousSnapshot == null || knownSnapshot.equals(previousSnapshot))) {
+                    builder.put(propertyName, knownSnapshot);
+                } else if (previousSnapshot == null) {
                     builder.put(propertyName, valueSnapshotter.snapshot(value));
                 } else {
                     builder.put(propertyName, valueSnapshotter.snapshot(value, previousSnapshot));
@@ -27,6 +27,7 @@ import org.gradle.caching.internal.origin.OriginMetadata;
 import org.gradle.internal.fingerprint.CurrentFileCollectionFingerprint;
 import org.gradle.internal.fingerprint.FileCollectionFingerprint;
 import org.gradle.internal.fingerprint.HistoricalFileCollectionFingerprint;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.snapshot.ValueSnapshot;
 import org.gradle.internal.snapshot.impl.ImplementationSnapshot;
 
@@ -43,6 +44,7 @@ public class CurrentTaskExecution extends AbstractTaskExecution {
         }
     };
 
+    private final ImmutableSortedMap<String, ValueSnapshot> inputProperties;
     private ImmutableSortedMap<String, CurrentFileCollectionFingerprint> outputFingerprints;
     private final ImmutableSortedMap<String, CurrentFileCollectionFingerprint> inputFingerprints;
     private final OverlappingOutputs detectedOverlappingOutputs;
@@ -53,12 +55,14 @@ public class CurrentTaskExecution extends AbstractTaskExecution {
         ImplementationSnapshot taskImplementation,
         ImmutableList<ImplementationSnapshot> taskActionImplementations,
         ImmutableSortedMap<String, ValueSnapshot> inputProperties,
+        @Nullable HashCode inputPropertiesHash,
         ImmutableSortedSet<String> outputPropertyNames,
         ImmutableSortedMap<String, CurrentFileCollectionFingerprint> inputFingerprints,
         ImmutableSortedMap<String, CurrentFileCollectionFingerprint> outputFingerprintsBeforeExecution,
         @Nullable OverlappingOutputs detectedOverlappingOutputs
     ) {
-        super(taskImplementation, taskActionImplementations, inputProperties, outputPropertyNames);
+        super(taskImplementation, taskActionImplementations, inputPropertiesHash, outputPropertyNames);
+        this.inputProperties = inputProperties;
         this.outputFingerprints = outputFingerprintsBeforeExecution;
         this.inputFingerprints = inputFingerprints;
         this.detectedOverlappingOutputs = detectedOverlappingOutputs;
@@ -69,6 +73,11 @@ public class CurrentTaskExecution extends AbstractTaskExecution {
         return successful;
     }
 
+    @Override
+    public ImmutableSortedMap<String, ValueSnapshot> getInputProperties() {
+        return inputProperties;
+    }
+
     public void setSuccessful(boolean successful) {
         this.successful = successful;
     }
@@ -103,7 +112,8 @@ public class CurrentTaskExecution extends AbstractTaskExecution {
         return new HistoricalTaskExecution(
             getTaskImplementation(),
             getTaskActionImplementations(),
-            getInputProperties(),
+            inputProperties,
+            getInputPropertiesHash(),
             getOutputPropertyNamesForCacheKey(),
             historicalInputFingerprints,
             historicalOutputFingerprints,
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import org.gradle.api.internal.cache.StringInterner;
+import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.fingerprint.HistoricalFileCollectionFingerprint;
+import org.gradle.internal.fingerprint.impl.DefaultHistoricalFileCollectionFingerprint;
+import org.gradle.internal.fingerprint.impl.FileFingerprintsStore;
+import org.gradle.internal.fingerprint.impl.FingerprintMapSerializer;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.serialize.BaseSerializerFactory;
+import org.gradle.internal.serialize.HashCodeSerializer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Stores the file fingerprints of the task history once per distinct content, keyed by the hash of their encoded form.
+ *
+ * <p>Task history entries reference the stored file fingerprints, see {@link DefaultHistoricalFileCollectionFingerprint.SerializerImpl}.
+ * The number of history entries referencing each stored entry is tracked, so entries are removed once no task history refers to them.
+ * This costs a few persistent cache accesses per fingerprint whenever a history entry is written, and the counts can get out of sync
+ * with the history entries, for example when the build is killed. The store is therefore only used when enabled with the
+ * {@value #SHARE_FILE_FINGERPRINTS_PROPERTY} system property, and a history entry whose stored output fingerprints are missing is
+ * ignored, see {@link #isAvailable(HistoricalFileCollectionFingerprint)}.</p>
+ */
+public class DefaultFileFingerprintsStore implements FileFingerprintsStore {
+    public static final String SHARE_FILE_FINGERPRINTS_PROPERTY = "org.gradle.internal.history.share-file-fingerprints";
+
+    private final PersistentIndexedCache<HashCode, byte[]> fingerprints;
+    private final PersistentIndexedCache<HashCode, Integer> references;
+    private final FingerprintMapSerializer fingerprintMapSerializer;
+
+    public DefaultFileFingerprintsStore(TaskHistoryStore taskHistoryStore, StringInterner stringInterner) {
+        this.fingerprints = taskHistoryStore.createCache("fileFingerprints", new HashCodeSerializer(), BaseSerializerFactory.BYTE_ARRAY_SERIALIZER, 2000, false);
+        this.references = taskHistoryStore.createCache("fileFingerprintReferences", new HashCodeSerializer(), BaseSerializerFactory.INTEGER_SERIALIZER, 10000, false);
+        this.fingerprintMapSerializer = new FingerprintMapSerializer(stringInterner);
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(SHARE_FILE_FINGERPRINTS_PROPERTY);
+    }
+
+    @Nullable
+    @Override
+    public byte[] load(HashCode hash) {
+        return fingerprints.get(hash);
+    }
+
+    /**
+     * Returns whether the file fingerprints referenced by the given fingerprint can be loaded. A missing entry reads as no files.
+     */
+    public boolean isAvailable(HistoricalFileCollectionFingerprint fingerprint) {
+        if (!(fingerprint instanceof DefaultHistoricalFileCollectionFingerprint)) {
+            return true;
+        }
+        HashCode hash = ((DefaultHistoricalFileCollectionFingerprint) fingerprint).getStoredFingerprintsHash();
+        return hash == null || fingerprints.get(hash) != null;
+    }
+
+    /**
+     * Stores the file fingerprints of the given fingerprint, if not already stored, and records a reference to them.
+     */
+    public synchronized void retain(HistoricalFileCollectionFingerprint fingerprint) {
+        if (!(fingerprint instanceof DefaultHistoricalFileCollectionFingerprint)) {
+            return;
+        }
+        DefaultHistoricalFileCollectionFingerprint historicalFingerprint = (DefaultHistoricalFileCollectionFingerprint) fingerprint;
+        HashCode hash = historicalFingerprint.getStoredFingerprintsHash();
+        byte[] encoded = null;
+        if (hash == null) {
+            encoded = fingerprintMapSerializer.toBytes(historicalFingerprint.getFingerprints());
+            hash = Hashing.hashBytes(encoded);
+            historicalFingerprint.setStoredFingerprintsHash(hash);
+        }
+        Integer count = references.get(hash);
+        if (count == null) {
+            if (encoded == null) {
+                encoded = fingerprintMapSerializer.toBytes(historicalFingerprint.getFingerprints());
+            }
+            fingerprints.put(hash, encoded);
+            count = 0;
+        }
+        references.put(hash, count + 1);
+    }
+
+    /**
+     * Removes a reference to the file fingerprints of the given fingerprint, removing them when no longer referenced.
+     */
+    public synchronized void release(HistoricalFileCollectionFingerprint fingerprint) {
+        if (!(fingerprint instanceof DefaultHistoricalFileCollectionFingerprint)) {
+            return;
+        }
+        HashCode hash = ((DefaultHistoricalFileCollectionFingerprint) fingerprint).getStoredFingerprintsHash();
+        if (hash == null) {
+            return;
+        }
+        Integer count = references.get(hash);
+        if (count == null) {
+            return;
+        }
+        if (count <= 1) {
+            references.remove(hash);
+            fingerprints.remove(hash);
+        } else {
+            references.put(hash, count - 1);
+        }
+    }
+}
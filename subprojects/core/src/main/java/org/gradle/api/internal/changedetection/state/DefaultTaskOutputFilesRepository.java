@@ -16,7 +16,15 @@
 
 package org.gradle.api.internal.changedetection.state;
 
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
 import org.gradle.api.NonNullApi;
+import org.gradle.api.Transformer;
+import org.gradle.cache.AsyncCacheAccess;
+import org.gradle.cache.CacheDecorator;
+import org.gradle.cache.CrossProcessCacheAccess;
+import org.gradle.cache.FileLock;
+import org.gradle.cache.MultiProcessSafePersistentIndexedCache;
 import org.gradle.cache.PersistentCache;
 import org.gradle.cache.PersistentIndexedCache;
 import org.gradle.cache.PersistentIndexedCacheParameters;
@@ -25,19 +33,58 @@ import org.gradle.internal.snapshot.DirectorySnapshot;
 import org.gradle.internal.snapshot.FileSystemLocationSnapshot;
 import org.gradle.internal.snapshot.FileSystemSnapshot;
 import org.gradle.internal.snapshot.FileSystemSnapshotVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 
+/**
+ * Records the output files of tasks in a persistent index.
+ *
+ * A bloom filter of all the paths in the index is kept in memory, so most lookups for files which have not been produced by Gradle do not need to query the index.
+ * The filter is stored next to the index when the repository is closed, together with the length and timestamp of the index file, and loaded again by the next build.
+ * When the filter cannot be trusted to contain all the paths in the index, every lookup queries the index. This is the case when
+ * <ul>
+ *     <li>a previous build did not finish properly, or the index file changed since the filter was stored,</li>
+ *     <li>another process changes the index while this build uses it,</li>
+ *     <li>more paths have been recorded than the filter was sized for, so that it would no longer skip most lookups.</li>
+ * </ul>
+ * A new filter is only started together with a new index.
+ */
 @NonNullApi
 public class DefaultTaskOutputFilesRepository implements TaskOutputFilesRepository, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultTaskOutputFilesRepository.class);
+
+    private static final String OUTPUT_FILES_CACHE_NAME = "outputFiles";
+    private static final int EXPECTED_OUTPUT_PATHS = 100000;
+    private static final double MAX_FALSE_POSITIVE_PROBABILITY = 0.05;
 
     private final PersistentCache cacheAccess;
     private final PersistentIndexedCache<String, Boolean> outputFiles; // The value is true if it is an output file, false if it is a parent of an output file
+    private final File indexFile;
+    private final File recordedPathsFile;
+    @Nullable
+    private volatile BloomFilter<CharSequence> recordedPaths; // Contains all the paths in the index, or null if that is not known
+    @Nullable
+    private volatile FileLock.State lockStateAtRelease;
+    private volatile IndexFileStamp indexFileStampAtRelease;
 
     public DefaultTaskOutputFilesRepository(PersistentCache cacheAccess, InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory) {
         this.cacheAccess = cacheAccess;
+        File baseDir = cacheAccess.getBaseDir();
+        this.indexFile = new File(baseDir, OUTPUT_FILES_CACHE_NAME + ".bin");
+        this.recordedPathsFile = new File(baseDir, OUTPUT_FILES_CACHE_NAME + ".bloom");
+        this.indexFileStampAtRelease = IndexFileStamp.of(indexFile);
+        this.recordedPaths = loadRecordedPaths(!indexFile.exists());
         this.outputFiles = cacheAccess.createCache(cacheParameters(inMemoryCacheDecoratorFactory));
     }
 
@@ -50,7 +97,8 @@ public class DefaultTaskOutputFilesRepository implements TaskOutputFilesReposito
     private boolean isContainedInAnOutput(File absoluteFile) {
         File currentFile = absoluteFile;
         while (currentFile != null) {
-            if (outputFiles.get(currentFile.getPath()) == Boolean.TRUE) {
+            String path = currentFile.getPath();
+            if (mightBeRecorded(path) && outputFiles.get(path) == Boolean.TRUE) {
                 return true;
             }
             currentFile = currentFile.getParentFile();
@@ -59,7 +107,28 @@ public class DefaultTaskOutputFilesRepository implements TaskOutputFilesReposito
     }
 
     private boolean containsFilesGeneratedByGradle(File absoluteFile) {
-        return outputFiles.get(absoluteFile.getPath()) != null;
+        String path = absoluteFile.getPath();
+        return mightBeRecorded(path) && outputFiles.get(path) != null;
+    }
+
+    private boolean mightBeRecorded(String path) {
+        BloomFilter<CharSequence> recordedPaths = this.recordedPaths;
+        return recordedPaths == null || recordedPaths.mightContain(path);
+    }
+
+    private void record(String path, Boolean isOutput) {
+        BloomFilter<CharSequence> recordedPaths = this.recordedPaths;
+        if (recordedPaths != null) {
+            recordedPaths.put(path);
+        }
+        outputFiles.put(path, isOutput);
+    }
+
+    private void discardRecordedPaths(String reason) {
+        if (recordedPaths != null) {
+            LOGGER.debug("Not using recorded output paths any more, as {}.", reason);
+            recordedPaths = null;
+        }
     }
 
     @Override
@@ -82,14 +151,14 @@ public class DefaultTaskOutputFilesRepository implements TaskOutputFilesReposito
                 private void recordOutputSnapshot(FileSystemLocationSnapshot directorySnapshot) {
                     String outputFilePath = directorySnapshot.getAbsolutePath();
                     File outputFile = new File(outputFilePath);
-                    outputFiles.put(outputFilePath, Boolean.TRUE);
+                    record(outputFilePath, Boolean.TRUE);
                     File outputFileParent = outputFile.getParentFile();
                     while (outputFileParent != null) {
                         String parentPath = outputFileParent.getPath();
                         if (outputFiles.get(parentPath) != null) {
                             break;
                         }
-                        outputFiles.put(parentPath, Boolean.FALSE);
+                        record(parentPath, Boolean.FALSE);
                         outputFileParent = outputFileParent.getParentFile();
                     }
                 }
@@ -101,13 +170,169 @@ public class DefaultTaskOutputFilesRepository implements TaskOutputFilesReposito
         }
     }
 
-    private static PersistentIndexedCacheParameters<String, Boolean> cacheParameters(InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory) {
-        return new PersistentIndexedCacheParameters<String, Boolean>("outputFiles", String.class, Boolean.class)
-            .cacheDecorator(inMemoryCacheDecoratorFactory.decorator(100000, true));
+    private PersistentIndexedCacheParameters<String, Boolean> cacheParameters(InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory) {
+        return new PersistentIndexedCacheParameters<String, Boolean>(OUTPUT_FILES_CACHE_NAME, String.class, Boolean.class)
+            .cacheDecorator(new IndexChangeTrackingDecorator(inMemoryCacheDecoratorFactory.decorator(100000, true)));
+    }
+
+    @Nullable
+    private BloomFilter<CharSequence> loadRecordedPaths(boolean newIndex) {
+        if (!recordedPathsFile.isFile()) {
+            return newIndex ? BloomFilter.create(Funnels.unencodedCharsFunnel(), EXPECTED_OUTPUT_PATHS) : null;
+        }
+        try {
+            DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(recordedPathsFile)));
+            try {
+                IndexFileStamp storedStamp = new IndexFileStamp(inputStream.readLong(), inputStream.readLong());
+                if (!storedStamp.equals(indexFileStampAtRelease)) {
+                    LOGGER.debug("Not using recorded output paths from {}, as the index has changed since they were stored.", recordedPathsFile);
+                    return null;
+                }
+                BloomFilter<CharSequence> recordedPaths = BloomFilter.readFrom(inputStream, Funnels.unencodedCharsFunnel());
+                if (recordedPaths.expectedFpp() > MAX_FALSE_POSITIVE_PROBABILITY) {
+                    LOGGER.debug("Not using recorded output paths from {}, as too many paths have been recorded.", recordedPathsFile);
+                    return null;
+                }
+                return recordedPaths;
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Could not read recorded output paths from {}.", recordedPathsFile, e);
+            return null;
+        } finally {
+            // The index is about to change, so the stored filter is only valid again once it has been written on close
+            recordedPathsFile.delete();
+        }
+    }
+
+    private void storeRecordedPaths(BloomFilter<CharSequence> recordedPaths, IndexFileStamp indexFileStamp) {
+        File tempFile = new File(recordedPathsFile.getPath() + ".tmp");
+        try {
+            DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            try {
+                outputStream.writeLong(indexFileStamp.length);
+                outputStream.writeLong(indexFileStamp.lastModified);
+                recordedPaths.writeTo(outputStream);
+            } finally {
+                outputStream.close();
+            }
+            if (tempFile.renameTo(recordedPathsFile)) {
+                return;
+            }
+            LOGGER.debug("Could not store recorded output paths in {}.", recordedPathsFile);
+        } catch (IOException e) {
+            LOGGER.debug("Could not store recorded output paths in {}.", recordedPathsFile, e);
+        }
+        tempFile.delete();
     }
 
     @Override
     public void close() throws IOException {
+        // Closing releases the lock, which records the state of the index file the filter matches
         cacheAccess.close();
+        BloomFilter<CharSequence> recordedPaths = this.recordedPaths;
+        if (recordedPaths != null && recordedPaths.expectedFpp() <= MAX_FALSE_POSITIVE_PROBABILITY) {
+            storeRecordedPaths(recordedPaths, indexFileStampAtRelease);
+        }
+    }
+
+    private void afterLockAcquire(FileLock.State currentCacheState) {
+        if (!currentCacheState.canDetectChanges()) {
+            discardRecordedPaths("changes to the index by other processes cannot be detected");
+        } else if (lockStateAtRelease == null ? !IndexFileStamp.of(indexFile).equals(indexFileStampAtRelease) : currentCacheState.hasBeenUpdatedSince(lockStateAtRelease)) {
+            discardRecordedPaths("the index has been changed by another process");
+        }
+    }
+
+    private void beforeLockRelease(FileLock.State currentCacheState) {
+        lockStateAtRelease = currentCacheState;
+        indexFileStampAtRelease = IndexFileStamp.of(indexFile);
+    }
+
+    private static class IndexFileStamp {
+        private final long length;
+        private final long lastModified;
+
+        IndexFileStamp(long length, long lastModified) {
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        static IndexFileStamp of(File indexFile) {
+            return new IndexFileStamp(indexFile.length(), indexFile.lastModified());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            IndexFileStamp other = (IndexFileStamp) obj;
+            return length == other.length && lastModified == other.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (length ^ lastModified);
+        }
+    }
+
+    /**
+     * Notices when another process changes the index, in which case the recorded paths no longer contain all the paths in it.
+     */
+    private class IndexChangeTrackingDecorator implements CacheDecorator {
+        private final CacheDecorator delegate;
+
+        IndexChangeTrackingDecorator(CacheDecorator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public <K, V> MultiProcessSafePersistentIndexedCache<K, V> decorate(String cacheId, String cacheName, MultiProcessSafePersistentIndexedCache<K, V> persistentCache, CrossProcessCacheAccess crossProcessCacheAccess, AsyncCacheAccess asyncCacheAccess) {
+            final MultiProcessSafePersistentIndexedCache<K, V> cache = delegate.decorate(cacheId, cacheName, persistentCache, crossProcessCacheAccess, asyncCacheAccess);
+            return new MultiProcessSafePersistentIndexedCache<K, V>() {
+                @Nullable
+                @Override
+                public V get(K key) {
+                    return cache.get(key);
+                }
+
+                @Override
+                public V get(K key, Transformer<? extends V, ? super K> producer) {
+                    return cache.get(key, producer);
+                }
+
+                @Override
+                public void put(K key, V value) {
+                    cache.put(key, value);
+                }
+
+                @Override
+                public void remove(K key) {
+                    cache.remove(key);
+                }
+
+                @Override
+                public void afterLockAcquire(FileLock.State currentCacheState) {
+                    DefaultTaskOutputFilesRepository.this.afterLockAcquire(currentCacheState);
+                    cache.afterLockAcquire(currentCacheState);
+                }
+
+                @Override
+                public void finishWork() {
+                    cache.finishWork();
+                }
+
+                @Override
+                public void beforeLockRelease(FileLock.State currentCacheState) {
+                    cache.beforeLockRelease(currentCacheState);
+                    DefaultTaskOutputFilesRepository.this.beforeLockRelease(currentCacheState);
+                }
+            };
+        }
     }
 }
@@ -21,11 +21,14 @@ import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
 import org.gradle.api.NonNullApi;
 import org.gradle.caching.internal.origin.OriginMetadata;
+import org.gradle.internal.Factory;
 import org.gradle.internal.fingerprint.HistoricalFileCollectionFingerprint;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.snapshot.ValueSnapshot;
 import org.gradle.internal.snapshot.impl.ImplementationSnapshot;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * State of a task when it was executed.
@@ -33,6 +36,8 @@ import javax.annotation.Nonnull;
 @NonNullApi
 public class HistoricalTaskExecution extends AbstractTaskExecution {
 
+    private ImmutableSortedMap<String, ValueSnapshot> inputProperties;
+    private Factory<ImmutableSortedMap<String, ValueSnapshot>> inputPropertiesDecoder;
     private final boolean successful;
     private final OriginMetadata originExecutionMetadata;
     private final ImmutableSortedMap<String, HistoricalFileCollectionFingerprint> inputFingerprints;
@@ -42,19 +47,64 @@ public class HistoricalTaskExecution extends AbstractTaskExecution {
         ImplementationSnapshot taskImplementation,
         ImmutableList<ImplementationSnapshot> taskActionsImplementations,
         ImmutableSortedMap<String, ValueSnapshot> inputProperties,
+        @Nullable HashCode inputPropertiesHash,
         ImmutableSortedSet<String> outputPropertyNames,
         ImmutableSortedMap<String, HistoricalFileCollectionFingerprint> inputFingerprints,
         ImmutableSortedMap<String, HistoricalFileCollectionFingerprint> outputFingerprints,
         boolean successful,
         OriginMetadata originExecutionMetadata
     ) {
-        super(taskImplementation, taskActionsImplementations, inputProperties, outputPropertyNames);
+        this(taskImplementation, taskActionsImplementations, inputProperties, null, inputPropertiesHash, outputPropertyNames, inputFingerprints, outputFingerprints, successful, originExecutionMetadata);
+    }
+
+    /**
+     * Creates an execution whose input properties are only decoded when they are queried.
+     * This is not necessary when the combined hash of the input properties is enough to tell that they did not change.
+     */
+    public HistoricalTaskExecution(
+        ImplementationSnapshot taskImplementation,
+        ImmutableList<ImplementationSnapshot> taskActionsImplementations,
+        Factory<ImmutableSortedMap<String, ValueSnapshot>> inputPropertiesDecoder,
+        @Nullable HashCode inputPropertiesHash,
+        ImmutableSortedSet<String> outputPropertyNames,
+        ImmutableSortedMap<String, HistoricalFileCollectionFingerprint> inputFingerprints,
+        ImmutableSortedMap<String, HistoricalFileCollectionFingerprint> outputFingerprints,
+        boolean successful,
+        OriginMetadata originExecutionMetadata
+    ) {
+        this(taskImplementation, taskActionsImplementations, null, inputPropertiesDecoder, inputPropertiesHash, outputPropertyNames, inputFingerprints, outputFingerprints, successful, originExecutionMetadata);
+    }
+
+    private HistoricalTaskExecution(
+        ImplementationSnapshot taskImplementation,
+        ImmutableList<ImplementationSnapshot> taskActionsImplementations,
+        @Nullable ImmutableSortedMap<String, ValueSnapshot> inputProperties,
+        @Nullable Factory<ImmutableSortedMap<String, ValueSnapshot>> inputPropertiesDecoder,
+        @Nullable HashCode inputPropertiesHash,
+        ImmutableSortedSet<String> outputPropertyNames,
+        ImmutableSortedMap<String, HistoricalFileCollectionFingerprint> inputFingerprints,
+        ImmutableSortedMap<String, HistoricalFileCollectionFingerprint> outputFingerprints,
+        boolean successful,
+        OriginMetadata originExecutionMetadata
+    ) {
+        super(taskImplementation, taskActionsImplementations, inputPropertiesHash, outputPropertyNames);
+        this.inputProperties = inputProperties;
+        this.inputPropertiesDecoder = inputPropertiesDecoder;
         this.inputFingerprints = inputFingerprints;
         this.outputFingerprints = outputFingerprints;
         this.successful = successful;
         this.originExecutionMetadata = originExecutionMetadata;
     }
 
+    @Override
+    public synchronized ImmutableSortedMap<String, ValueSnapshot> getInputProperties() {
+        if (inputProperties == null) {
+            inputProperties = inputPropertiesDecoder.create();
+            inputPropertiesDecoder = null;
+        }
+        return inputProperties;
+    }
+
     @Override
     public boolean isSuccessful() {
         return successful;
@@ -18,12 +18,17 @@ package org.gradle.api.internal.changedetection.state;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedMap;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.InputStreamBackedDecoder;
+import org.gradle.internal.serialize.OutputStreamBackedEncoder;
 import org.gradle.internal.serialize.Serializer;
 import org.gradle.internal.snapshot.ValueSnapshot;
 import org.gradle.internal.snapshot.impl.SnapshotSerializer;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.Map;
 
 class InputPropertiesSerializer implements Serializer<ImmutableMap<String, ValueSnapshot>> {
@@ -61,4 +66,27 @@ class InputPropertiesSerializer implements Serializer<ImmutableMap<String, Value
     private void writeSnapshot(Encoder encoder, ValueSnapshot snapshot) throws Exception {
         snapshotSerializer.write(encoder, snapshot);
     }
+
+    /**
+     * Encodes the input properties on their own, so they can be decoded separately from the rest of a task execution.
+     */
+    public byte[] toBytes(ImmutableMap<String, ValueSnapshot> properties) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputStreamBackedEncoder encoder = new OutputStreamBackedEncoder(bytes);
+        try {
+            write(encoder, properties);
+            encoder.flush();
+        } catch (Exception e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public ImmutableSortedMap<String, ValueSnapshot> fromBytes(byte[] bytes) {
+        try {
+            return read(new InputStreamBackedDecoder(new ByteArrayInputStream(bytes)));
+        } catch (Exception e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
 }
@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
 import org.gradle.caching.internal.origin.OriginMetadata;
 import org.gradle.internal.fingerprint.FileCollectionFingerprint;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.snapshot.ValueSnapshot;
 import org.gradle.internal.snapshot.impl.ImplementationSnapshot;
 
@@ -47,6 +48,13 @@ public interface TaskExecution {
 
     ImmutableSortedMap<String, ValueSnapshot> getInputProperties();
 
+    /**
+     * Returns the combined hash of the input property names and values, or {@code null} when some value cannot be hashed.
+     * When the hashes of two executions are equal, their input properties are equal as well.
+     */
+    @Nullable
+    HashCode getInputPropertiesHash();
+
     ImmutableSortedMap<String, ? extends FileCollectionFingerprint> getOutputFingerprints();
 
     ImmutableSortedMap<String, ? extends FileCollectionFingerprint> getInputFingerprints();
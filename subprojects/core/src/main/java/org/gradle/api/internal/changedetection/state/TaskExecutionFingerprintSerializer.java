@@ -20,21 +20,33 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
 import org.gradle.caching.internal.origin.OriginMetadata;
+import org.gradle.internal.Factory;
 import org.gradle.internal.fingerprint.HistoricalFileCollectionFingerprint;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.id.UniqueId;
 import org.gradle.internal.serialize.AbstractSerializer;
 import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.HashCodeSerializer;
 import org.gradle.internal.serialize.Serializer;
 import org.gradle.internal.snapshot.ValueSnapshot;
 import org.gradle.internal.snapshot.impl.ImplementationSnapshot;
 
 import java.util.Map;
 
+/**
+ * Serializes the task history.
+ *
+ * <p>The cheap sections that are compared first when checking whether a task is up-to-date, the task implementation and the
+ * input properties, come before the file fingerprints. The file fingerprints of each property are stored as a separate section,
+ * only their root hashes are decoded when reading, see {@link org.gradle.internal.fingerprint.impl.DefaultHistoricalFileCollectionFingerprint}.
+ * Likewise, the input properties are stored as a separate section after their combined hash, and are only decoded when queried.</p>
+ */
 public class TaskExecutionFingerprintSerializer extends AbstractSerializer<HistoricalTaskExecution> {
     private final InputPropertiesSerializer inputPropertiesSerializer;
     private final Serializer<HistoricalFileCollectionFingerprint> fileCollectionFingerprintSerializer;
     private final Serializer<ImplementationSnapshot> implementationSnapshotSerializer;
+    private final HashCodeSerializer hashCodeSerializer = new HashCodeSerializer();
 
     public TaskExecutionFingerprintSerializer(Serializer<HistoricalFileCollectionFingerprint> fileCollectionFingerprintSerializer) {
         this.fileCollectionFingerprintSerializer = fileCollectionFingerprintSerializer;
@@ -50,9 +62,6 @@ public class TaskExecutionFingerprintSerializer extends AbstractSerializer<Histo
             decoder.readLong()
         );
 
-        ImmutableSortedMap<String, HistoricalFileCollectionFingerprint> inputFilesFingerprints = readFingerprints(decoder);
-        ImmutableSortedMap<String, HistoricalFileCollectionFingerprint> outputFilesFingerprints = readFingerprints(decoder);
-
         ImplementationSnapshot taskImplementation = implementationSnapshotSerializer.read(decoder);
 
         // We can't use an immutable list here because some hashes can be null
@@ -71,12 +80,23 @@ public class TaskExecutionFingerprintSerializer extends AbstractSerializer<Histo
         }
         ImmutableSortedSet<String> cacheableOutputProperties = cacheableOutputPropertiesBuilder.build();
 
-        ImmutableSortedMap<String, ValueSnapshot> inputProperties = inputPropertiesSerializer.read(decoder);
+        HashCode inputPropertiesHash = decoder.readBoolean() ? hashCodeSerializer.read(decoder) : null;
+        final byte[] encodedInputProperties = decoder.readBinary();
+        Factory<ImmutableSortedMap<String, ValueSnapshot>> inputProperties = new Factory<ImmutableSortedMap<String, ValueSnapshot>>() {
+            @Override
+            public ImmutableSortedMap<String, ValueSnapshot> create() {
+                return inputPropertiesSerializer.fromBytes(encodedInputProperties);
+            }
+        };
+
+        ImmutableSortedMap<String, HistoricalFileCollectionFingerprint> inputFilesFingerprints = readFingerprints(decoder);
+        ImmutableSortedMap<String, HistoricalFileCollectionFingerprint> outputFilesFingerprints = readFingerprints(decoder);
 
         return new HistoricalTaskExecution(
             taskImplementation,
             taskActionImplementations,
             inputProperties,
+            inputPropertiesHash,
             cacheableOutputProperties,
             inputFilesFingerprints,
             outputFilesFingerprints,
@@ -89,8 +109,6 @@ public class TaskExecutionFingerprintSerializer extends AbstractSerializer<Histo
         encoder.writeBoolean(execution.isSuccessful());
         encoder.writeString(execution.getOriginExecutionMetadata().getBuildInvocationId().asString());
         encoder.writeLong(execution.getOriginExecutionMetadata().getExecutionTime());
-        writeFingerprints(encoder, execution.getInputFingerprints());
-        writeFingerprints(encoder, execution.getOutputFingerprints());
         implementationSnapshotSerializer.write(encoder, execution.getTaskImplementation());
         encoder.writeSmallInt(execution.getTaskActionImplementations().size());
         for (ImplementationSnapshot actionImpl : execution.getTaskActionImplementations()) {
@@ -100,7 +118,14 @@ public class TaskExecutionFingerprintSerializer extends AbstractSerializer<Histo
         for (String outputFile : execution.getOutputPropertyNamesForCacheKey()) {
             encoder.writeString(outputFile);
         }
-        inputPropertiesSerializer.write(encoder, execution.getInputProperties());
+        HashCode inputPropertiesHash = execution.getInputPropertiesHash();
+        encoder.writeBoolean(inputPropertiesHash != null);
+        if (inputPropertiesHash != null) {
+            hashCodeSerializer.write(encoder, inputPropertiesHash);
+        }
+        encoder.writeBinary(inputPropertiesSerializer.toBytes(execution.getInputProperties()));
+        writeFingerprints(encoder, execution.getInputFingerprints());
+        writeFingerprints(encoder, execution.getOutputFingerprints());
     }
 
     private ImmutableSortedMap<String, HistoricalFileCollectionFingerprint> readFingerprints(Decoder decoder) throws Exception {
@@ -17,15 +17,27 @@
 package org.gradle.api.internal.changedetection.state;
 
 import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.fingerprint.HistoricalFileCollectionFingerprint;
 
 import javax.annotation.Nullable;
 
 public class TaskHistoryCache {
     private final PersistentIndexedCache<String, HistoricalTaskExecution> cache;
+    private final DefaultFileFingerprintsStore fingerprintsStore;
 
     public TaskHistoryCache(TaskHistoryStore cacheAccess, TaskExecutionFingerprintSerializer serializer) {
+        this(cacheAccess, serializer, null);
+    }
+
+    /**
+     * Creates a task history cache whose entries reference file fingerprints shared through the given store.
+     * The serializer needs to write references into the same store. As the entries are written in a different format,
+     * they are kept in a different cache than the entries of a task history without a store.
+     */
+    public TaskHistoryCache(TaskHistoryStore cacheAccess, TaskExecutionFingerprintSerializer serializer, @Nullable DefaultFileFingerprintsStore fingerprintsStore) {
+        this.fingerprintsStore = fingerprintsStore;
         this.cache = cacheAccess.createCache(
-            "taskHistory",
+            fingerprintsStore == null ? "taskHistory" : "taskHistoryWithSharedFingerprints",
             String.class,
             serializer,
             10000,
@@ -35,10 +47,40 @@ public class TaskHistoryCache {
 
     @Nullable
     public HistoricalTaskExecution get(String key) {
-        return cache.get(key);
+        HistoricalTaskExecution execution = cache.get(key);
+        if (execution == null || fingerprintsStore == null) {
+            return execution;
+        }
+        for (HistoricalFileCollectionFingerprint fingerprint : execution.getOutputFingerprints().values()) {
+            if (!fingerprintsStore.isAvailable(fingerprint)) {
+                // Without the previous output files, stale outputs would not be removed and overlapping outputs not detected, so treat the task as never executed
+                return null;
+            }
+        }
+        return execution;
     }
 
     public void put(String key, HistoricalTaskExecution value) {
+        if (fingerprintsStore == null) {
+            cache.put(key, value);
+            return;
+        }
+        // Retain the new file fingerprints before releasing the previous ones, so the ones they share stay stored
+        HistoricalTaskExecution previous = cache.get(key);
+        for (HistoricalFileCollectionFingerprint fingerprint : value.getInputFingerprints().values()) {
+            fingerprintsStore.retain(fingerprint);
+        }
+        for (HistoricalFileCollectionFingerprint fingerprint : value.getOutputFingerprints().values()) {
+            fingerprintsStore.retain(fingerprint);
+        }
         cache.put(key, value);
+        if (previous != null) {
+            for (HistoricalFileCollectionFingerprint fingerprint : previous.getInputFingerprints().values()) {
+                fingerprintsStore.release(fingerprint);
+            }
+            for (HistoricalFileCollectionFingerprint fingerprint : previous.getOutputFingerprints().values()) {
+                fingerprintsStore.release(fingerprint);
+            }
+        }
     }
 }
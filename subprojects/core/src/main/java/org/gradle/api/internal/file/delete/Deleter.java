@@ -87,11 +87,11 @@ public class Deleter {
         }
     }
 
-    private boolean isRunGcOnFailedDelete() {
+    private static boolean isRunGcOnFailedDelete() {
         return OperatingSystem.current().isWindows();
     }
 
-    private void handleFailedDelete(File file) {
+    static void handleFailedDelete(File file) {
         // This is copied from Ant (see org.apache.tools.ant.util.FileUtils.tryHardToDelete).
         // It mentions that there is a bug in the Windows JDK impls that this is a valid
         // workaround for. I've been unable to find a definitive reference to this bug.
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.delete;
+
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.exceptions.DefaultMultiCauseException;
+import org.gradle.internal.nativeintegration.filesystem.FileSystem;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Deletes files and directory trees using several threads.
+ *
+ * The contents of each directory are deleted by a separate task, so large trees are deleted concurrently.
+ * The directories themselves are deleted once all of their contents are gone, deepest first.
+ * Symbolic links are deleted, but not followed.
+ */
+public class ParallelTreeDeleter implements Stoppable {
+    private static final Comparator<File> DEEPEST_FIRST = new Comparator<File>() {
+        @Override
+        public int compare(File o1, File o2) {
+            return o2.getPath().length() - o1.getPath().length();
+        }
+    };
+
+    private final FileSystem fileSystem;
+    private final ManagedExecutor executor;
+
+    public ParallelTreeDeleter(FileSystem fileSystem, ManagedExecutor executor) {
+        this.fileSystem = fileSystem;
+        this.executor = executor;
+    }
+
+    /**
+     * Deletes the given files and directories, waiting until they are all gone.
+     * When deleting fails, waits for the deletions already started before reporting all failures.
+     */
+    public void delete(Iterable<File> roots) {
+        DeleteOperation operation = new DeleteOperation();
+        try {
+            for (File root : roots) {
+                if (operation.isDirectoryToTraverse(root)) {
+                    operation.submit(root);
+                } else {
+                    operation.deleteFile(root);
+                }
+            }
+        } catch (Throwable t) {
+            operation.failed(t);
+        } finally {
+            operation.awaitContents();
+        }
+        operation.rethrowFailures();
+        operation.deleteDirectories();
+    }
+
+    @Override
+    public void stop() {
+        executor.stop();
+    }
+
+    private class DeleteOperation {
+        private final Queue<File> directories = new ConcurrentLinkedQueue<File>();
+        private final Queue<Throwable> failures = new ConcurrentLinkedQueue<Throwable>();
+        private int pending;
+
+        boolean isDirectoryToTraverse(File file) {
+            return file.isDirectory() && !fileSystem.isSymlink(file);
+        }
+
+        void submit(final File directory) {
+            synchronized (this) {
+                pending++;
+            }
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (failures.isEmpty()) {
+                            deleteContents(directory);
+                        }
+                    } catch (Throwable t) {
+                        failed(t);
+                    } finally {
+                        finished();
+                    }
+                }
+            });
+        }
+
+        private void deleteContents(File directory) {
+            directories.add(directory);
+            File[] children = directory.listFiles();
+
+            // Something else may have removed it
+            if (children == null) {
+                return;
+            }
+
+            for (File child : children) {
+                if (isDirectoryToTraverse(child)) {
+                    submit(child);
+                } else {
+                    deleteFile(child);
+                }
+            }
+        }
+
+        void deleteFile(File file) {
+            if (!file.delete() && file.exists()) {
+                Deleter.handleFailedDelete(file);
+            }
+        }
+
+        void failed(Throwable failure) {
+            failures.add(failure);
+        }
+
+        private synchronized void finished() {
+            pending--;
+            if (pending == 0) {
+                notifyAll();
+            }
+        }
+
+        synchronized void awaitContents() {
+            try {
+                while (pending > 0) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+
+        void rethrowFailures() {
+            if (failures.isEmpty()) {
+                return;
+            }
+            if (failures.size() == 1) {
+                throw UncheckedException.throwAsUncheckedException(failures.peek());
+            }
+            throw new DefaultMultiCauseException("Could not delete files.", failures);
+        }
+
+        void deleteDirectories() {
+            List<File> sorted = new ArrayList<File>(directories);
+            Collections.sort(sorted, DEEPEST_FIRST);
+            for (File directory : sorted) {
+                deleteFile(directory);
+            }
+        }
+    }
+}
@@ -27,7 +27,8 @@ public class ClassLoaderIds {
 
     public enum Type {
         SCRIPT,
-        TEST_TASK_CLASSPATH
+        TEST_TASK_CLASSPATH,
+        WORKER_ACTION_CLASSPATH
     }
 
     private static ClassLoaderId of(Type type, String... attributes) {
@@ -42,6 +43,10 @@ public class ClassLoaderIds {
         return of(Type.TEST_TASK_CLASSPATH, testTaskPath);
     }
 
+    public static ClassLoaderId workerActionClasspath(String classpath, String classpathHash, String sharedPackages) {
+        return of(Type.WORKER_ACTION_CLASSPATH, classpath, classpathHash, sharedPackages);
+    }
+
     private static class DefaultClassLoaderId implements ClassLoaderId {
         private final Type type;
         private final String[] attributes;
@@ -30,10 +30,16 @@ import org.gradle.internal.classloader.HashingClassLoaderFactory;
 import org.gradle.internal.classpath.ClassPath;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.snapshot.WellKnownFileLocations;
 
 import javax.annotation.Nullable;
+import java.io.File;
 import java.util.Map;
 
+/**
+ * Caches the classloaders of the build across builds in the daemon. A classloader is shared by all users of the same classpath, and is reference counted
+ * by {@link ClassLoaderId}. Classpaths that only contain files in immutable locations, such as the artifact cache, are shared by content.
+ */
 public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
     private static final Logger LOGGER = Logging.getLogger(DefaultClassLoaderCache.class);
 
@@ -42,10 +48,12 @@ public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
     private final Map<ClassLoaderSpec, CachedClassLoader> bySpec = Maps.newHashMap();
     private final ClasspathHasher classpathHasher;
     private final HashingClassLoaderFactory classLoaderFactory;
+    private final WellKnownFileLocations wellKnownFileLocations;
 
-    public DefaultClassLoaderCache(HashingClassLoaderFactory classLoaderFactory, ClasspathHasher classpathHasher) {
+    public DefaultClassLoaderCache(HashingClassLoaderFactory classLoaderFactory, ClasspathHasher classpathHasher, WellKnownFileLocations wellKnownFileLocations) {
         this.classLoaderFactory = classLoaderFactory;
         this.classpathHasher = classpathHasher;
+        this.wellKnownFileLocations = wellKnownFileLocations;
     }
 
     @Override
@@ -58,7 +66,7 @@ public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
         if (implementationHash == null) {
             implementationHash = classpathHasher.hash(classPath);
         }
-        ManagedClassLoaderSpec spec = new ManagedClassLoaderSpec(id.toString(), parent, classPath, implementationHash, filterSpec);
+        ManagedClassLoaderSpec spec = new ManagedClassLoaderSpec(id.toString(), parent, isImmutable(classPath) ? null : classPath, implementationHash, filterSpec);
 
         synchronized (lock) {
             CachedClassLoader cachedLoader = byId.get(id);
@@ -101,9 +109,23 @@ public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
         }
     }
 
+    /**
+     * Whether the files of the classpath cannot change, so that other copies with the same content can share the classloader.
+     */
+    private boolean isImmutable(ClassPath classPath) {
+        for (File file : classPath.getAsFiles()) {
+            if (!wellKnownFileLocations.isImmutable(file.getPath())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private CachedClassLoader getAndRetainLoader(ClassPath classPath, ManagedClassLoaderSpec spec, ClassLoaderId id) {
         CachedClassLoader cachedLoader = bySpec.get(spec);
-        if (cachedLoader == null) {
+        if (cachedLoader != null) {
+            LOGGER.debug("Sharing {} with {}", cachedLoader, id);
+        } else {
             ClassLoader classLoader;
             CachedClassLoader parentCachedLoader = null;
             if (spec.isFiltered()) {
@@ -129,7 +151,12 @@ public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
     @Override
     public void stop() {
         synchronized (lock) {
-            for (CachedClassLoader cachedClassLoader : byId.values()) {
+            if (LOGGER.isDebugEnabled()) {
+                for (CachedClassLoader cachedClassLoader : byId.values()) {
+                    LOGGER.debug("Closing {}", cachedClassLoader);
+                }
+            }
+            for (CachedClassLoader cachedClassLoader : bySpec.values()) {
                 ClassLoaderUtils.tryClose(cachedClassLoader.classLoader);
             }
             byId.clear();
@@ -146,8 +173,17 @@ public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
         public UnmanagedClassLoaderSpec(ClassLoader loader) {
             this.loader = loader;
         }
+
+        @Override
+        public String toString() {
+            return loader.toString();
+        }
     }
 
+    /**
+     * Identifies a managed classloader by its parent, its classpath, the content hash of its classpath and its filter.
+     * The classpath is left out for immutable classpaths, so that copies of the same jars share a classloader.
+     */
     private static class ManagedClassLoaderSpec extends ClassLoaderSpec {
         private final String name;
         private final ClassLoader parent;
@@ -155,7 +191,7 @@ public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
         private final HashCode implementationHash;
         private final FilteringClassLoader.Spec filterSpec;
 
-        public ManagedClassLoaderSpec(String name, ClassLoader parent, ClassPath classPath, HashCode implementationHash, FilteringClassLoader.Spec filterSpec) {
+        public ManagedClassLoaderSpec(String name, ClassLoader parent, @Nullable ClassPath classPath, HashCode implementationHash, FilteringClassLoader.Spec filterSpec) {
             this.name = name;
             this.parent = parent;
             this.classPath = classPath;
@@ -182,18 +218,23 @@ public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
             ManagedClassLoaderSpec that = (ManagedClassLoaderSpec) o;
             return Objects.equal(this.parent, that.parent)
                 && this.implementationHash.equals(that.implementationHash)
-                && this.classPath.equals(that.classPath)
+                && Objects.equal(this.classPath, that.classPath)
                 && Objects.equal(this.filterSpec, that.filterSpec);
         }
 
         @Override
         public int hashCode() {
             int result = implementationHash.hashCode();
-            result = 31 * result + classPath.hashCode();
+            result = 31 * result + (classPath != null ? classPath.hashCode() : 0);
             result = 31 * result + (filterSpec != null ? filterSpec.hashCode() : 0);
             result = 31 * result + (parent != null ? parent.hashCode() : 0);
             return result;
         }
+
+        @Override
+        public String toString() {
+            return isFiltered() ? name + " (filtered)" : name;
+        }
     }
 
     private class CachedClassLoader {
@@ -233,6 +274,11 @@ public class DefaultClassLoaderCache implements ClassLoaderCache, Stoppable {
                 throw new IllegalStateException("Classloader '" + this + "' not used by '" + loaderId + "'");
             }
         }
+
+        @Override
+        public String toString() {
+            return "classloader " + spec + " used by " + usedBy.elementSet();
+        }
     }
 
     // Used in org.gradle.api.internal.initialization.loadercache.ClassLoadersCachingIntegrationTest
@@ -20,6 +20,9 @@ import com.google.common.collect.Maps;
 import groovy.lang.Closure;
 import org.gradle.api.Action;
 import org.gradle.api.GradleException;
+import org.gradle.api.internal.MutationGuard;
+import org.gradle.api.internal.MutationGuards;
+import org.gradle.api.plugins.ExtensionContainer;
 import org.gradle.api.plugins.Convention;
 import org.gradle.api.plugins.ExtensionsSchema;
 import org.gradle.api.plugins.ExtraPropertiesExtension;
@@ -44,8 +47,9 @@ public class DefaultConvention implements Convention, ExtensionContainerInternal
     private static final TypeOf<ExtraPropertiesExtension> EXTRA_PROPERTIES_EXTENSION_TYPE = typeOf(ExtraPropertiesExtension.class);
     private final DefaultConvention.ExtensionsDynamicObject extensionsDynamicObject = new ExtensionsDynamicObject();
     private final ExtensionsStorage extensionsStorage = new ExtensionsStorage();
-    private final ExtraPropertiesExtension extraProperties = new DefaultExtraPropertiesExtension();
+    private final ExtraPropertiesExtension extraProperties;
     private final Instantiator instantiator;
+    private final MutationGuard mutationGuard;
 
     private Map<String, Object> plugins;
     private Map<Object, BeanDynamicObject> dynamicObjects;
@@ -63,7 +67,16 @@ public class DefaultConvention implements Convention, ExtensionContainerInternal
     }
 
     public DefaultConvention(Instantiator instantiator) {
+        this(instantiator, MutationGuards.identity());
+    }
+
+    /**
+     * Creates a convention whose extensions and extra properties can only be added or set when the given guard allows it.
+     */
+    public DefaultConvention(Instantiator instantiator, MutationGuard mutationGuard) {
         this.instantiator = instantiator;
+        this.mutationGuard = mutationGuard;
+        this.extraProperties = new DefaultExtraPropertiesExtension(mutationGuard);
         add(EXTRA_PROPERTIES_EXTENSION_TYPE, ExtraPropertiesExtension.EXTENSION_NAME, extraProperties);
     }
 
@@ -134,6 +147,7 @@ public class DefaultConvention implements Convention, ExtensionContainerInternal
 
     @Override
     public <T> void add(TypeOf<T> publicType, String name, T extension) {
+        mutationGuard.assertMutationAllowed("add", this, ExtensionContainer.class);
         extensionsStorage.add(publicType, name, extension);
     }
 
@@ -20,6 +20,8 @@ import groovy.lang.Closure;
 import groovy.lang.GroovyObjectSupport;
 import groovy.lang.MissingPropertyException;
 import groovy.lang.ReadOnlyPropertyException;
+import org.gradle.api.internal.MutationGuard;
+import org.gradle.api.internal.MutationGuards;
 import org.gradle.api.plugins.ExtraPropertiesExtension;
 
 import javax.annotation.Nullable;
@@ -29,6 +31,15 @@ import java.util.Map;
 public class DefaultExtraPropertiesExtension extends GroovyObjectSupport implements ExtraPropertiesExtension {
 
     private final Map<String, Object> storage = new HashMap<String, Object>();
+    private final MutationGuard mutationGuard;
+
+    public DefaultExtraPropertiesExtension() {
+        this(MutationGuards.identity());
+    }
+
+    public DefaultExtraPropertiesExtension(MutationGuard mutationGuard) {
+        this.mutationGuard = mutationGuard;
+    }
 
     public boolean has(String name) {
         return storage.containsKey(name);
@@ -49,6 +60,7 @@ public class DefaultExtraPropertiesExtension extends GroovyObjectSupport impleme
     }
 
     public void set(String name, @Nullable Object value) {
+        mutationGuard.assertMutationAllowed("set", this, ExtraPropertiesExtension.class);
         storage.put(name, value);
     }
 
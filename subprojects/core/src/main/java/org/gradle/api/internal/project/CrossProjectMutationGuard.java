@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.project;
+
+import org.gradle.api.Action;
+import org.gradle.api.internal.MutationGuard;
+import org.gradle.api.internal.plugins.DslObject;
+
+/**
+ * Rejects mutations of the domain objects of a project, such as its tasks, configurations, extensions and extra properties, from a thread that holds the mutable state of other projects only, while projects are configured in parallel.
+ * This happens when the build logic of one project reaches into another project. Once configuration has finished, for example when tasks are executed, mutations are not checked.
+ */
+public class CrossProjectMutationGuard implements MutationGuard {
+    private final ProjectInternal project;
+    private final ParallelProjectConfiguration parallelProjectConfiguration;
+    private final MutationGuard delegate;
+
+    public CrossProjectMutationGuard(ProjectInternal project, ParallelProjectConfiguration parallelProjectConfiguration, MutationGuard delegate) {
+        this.project = project;
+        this.parallelProjectConfiguration = parallelProjectConfiguration;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns a guard for the domain objects of the given project, which applies the given guard and, when projects may be configured in parallel, rejects mutations from other projects.
+     */
+    public static MutationGuard of(ProjectInternal project, ParallelProjectConfiguration parallelProjectConfiguration, MutationGuard delegate) {
+        if (parallelProjectConfiguration.isEnabled()) {
+            return new CrossProjectMutationGuard(project, parallelProjectConfiguration, delegate);
+        }
+        return delegate;
+    }
+
+    @Override
+    public <T> Action<? super T> withMutationDisabled(Action<? super T> action) {
+        return delegate.withMutationDisabled(action);
+    }
+
+    @Override
+    public <T> Action<? super T> withMutationEnabled(Action<? super T> action) {
+        return delegate.withMutationEnabled(action);
+    }
+
+    @Override
+    public boolean isMutationAllowed() {
+        return delegate.isMutationAllowed() && !isMutatedFromOtherProject();
+    }
+
+    @Override
+    public void assertMutationAllowed(String methodName, Object target) {
+        delegate.assertMutationAllowed(methodName, target);
+        assertNotMutatedFromOtherProject(new DslObject(target).getPublicType().getConcreteClass(), methodName, target);
+    }
+
+    @Override
+    public <T> void assertMutationAllowed(String methodName, T target, Class<T> targetType) {
+        delegate.assertMutationAllowed(methodName, target, targetType);
+        assertNotMutatedFromOtherProject(targetType, methodName, target);
+    }
+
+    private void assertNotMutatedFromOtherProject(Class<?> targetType, String methodName, Object target) {
+        if (isMutatedFromOtherProject()) {
+            throw new IllegalStateException(String.format("%s#%s on %s cannot be executed from another project while projects are configured in parallel. Use a cross-project configuration block such as project('%s') {} instead.", targetType.getSimpleName(), methodName, target, project.getPath()));
+        }
+    }
+
+    private boolean isMutatedFromOtherProject() {
+        return parallelProjectConfiguration.isInProgress() && project.getMutationState().hasOnlyMutableStateOfOtherProjects();
+    }
+}
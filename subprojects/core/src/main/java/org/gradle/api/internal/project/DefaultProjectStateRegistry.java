@@ -230,6 +230,15 @@ public class DefaultProjectStateRegistry implements ProjectStateRegistry {
         public boolean hasMutableState() {
             return LENIENT_MUTATION_STATE.get() || workerLeaseService.getCurrentProjectLocks().contains(projectLock);
         }
+
+        @Override
+        public boolean hasOnlyMutableStateOfOtherProjects() {
+            if (LENIENT_MUTATION_STATE.get()) {
+                return false;
+            }
+            Collection<? extends ResourceLock> currentLocks = workerLeaseService.getCurrentProjectLocks();
+            return !currentLocks.isEmpty() && !currentLocks.contains(projectLock);
+        }
     }
 
     private class SafeExclusiveLockImpl implements SafeExclusiveLock {
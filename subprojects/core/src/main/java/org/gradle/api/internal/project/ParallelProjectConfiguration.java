@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.project;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Whether the projects of a build are configured in parallel, and whether that is currently happening.
+ */
+public class ParallelProjectConfiguration {
+    private final boolean enabled;
+    private final AtomicInteger inProgress = new AtomicInteger();
+
+    public ParallelProjectConfiguration(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns true while projects are being configured in parallel.
+     */
+    public boolean isInProgress() {
+        return inProgress.get() > 0;
+    }
+
+    /**
+     * Runs the given action, which configures projects in parallel.
+     */
+    public void configureInParallel(Runnable action) {
+        inProgress.incrementAndGet();
+        try {
+            action.run();
+        } finally {
+            inProgress.decrementAndGet();
+        }
+    }
+}
@@ -64,4 +64,9 @@ public interface ProjectState {
      * Returns whether or not the current thread holds the mutable state for this project.
      */
     boolean hasMutableState();
+
+    /**
+     * Returns whether or not the current thread holds the mutable state of some other project, but not the mutable state of this project.
+     */
+    boolean hasOnlyMutableStateOfOtherProjects();
 }
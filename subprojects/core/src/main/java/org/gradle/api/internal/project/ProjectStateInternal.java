@@ -19,6 +19,8 @@ package org.gradle.api.internal.project;
 import org.gradle.api.ProjectState;
 import org.gradle.internal.UncheckedException;
 
+import javax.annotation.Nullable;
+
 /**
  * Represents the the lifecycle state of a project, with regard to configuration.
  *
@@ -37,8 +39,9 @@ public class ProjectStateInternal implements ProjectState {
         CONFIGURED
     }
 
-    private State state = State.UNCONFIGURED;
+    private volatile State state = State.UNCONFIGURED;
     private Throwable failure;
+    private Thread configuringThread;
 
     @Override
     public boolean getExecuted() {
@@ -57,6 +60,47 @@ public class ProjectStateInternal implements ProjectState {
         return state == State.UNCONFIGURED;
     }
 
+    /**
+     * Claims the configuration of the project for the current thread.
+     *
+     * @return true if the project was unconfigured and the current thread should now configure it, false if some thread has already claimed it.
+     */
+    public synchronized boolean startConfiguring() {
+        if (state != State.UNCONFIGURED || configuringThread != null) {
+            return false;
+        }
+        configuringThread = Thread.currentThread();
+        return true;
+    }
+
+    /**
+     * Returns the thread that has claimed the configuration of the project and not yet finished it, if any.
+     */
+    @Nullable
+    public synchronized Thread getConfiguringThread() {
+        return configuringThread;
+    }
+
+    /**
+     * Returns true when the project is being configured by a thread other than the current thread.
+     */
+    public synchronized boolean isConfiguringOnOtherThread() {
+        return configuringThread != null && configuringThread != Thread.currentThread();
+    }
+
+    /**
+     * Blocks until the project has been configured.
+     */
+    public synchronized void awaitConfigured() {
+        while (state != State.CONFIGURED) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+    }
+
     public void toBeforeEvaluate() {
         assert state == State.UNCONFIGURED;
         state = State.IN_BEFORE_EVALUATE;
@@ -72,9 +116,11 @@ public class ProjectStateInternal implements ProjectState {
         state = State.IN_AFTER_EVALUATE;
     }
 
-    public void configured() {
+    public synchronized void configured() {
         assert state != State.CONFIGURED;
         state = State.CONFIGURED;
+        configuringThread = null;
+        notifyAll();
     }
 
     public void failed(Throwable failure) {
@@ -29,10 +29,13 @@ import org.gradle.api.NonNullApi;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
 import org.gradle.api.UnknownTaskException;
+import org.gradle.api.internal.MutationGuard;
 import org.gradle.api.internal.MutationGuards;
 import org.gradle.api.internal.NamedDomainObjectContainerConfigureDelegate;
 import org.gradle.api.internal.TaskInternal;
 import org.gradle.api.internal.project.CrossProjectConfigurator;
+import org.gradle.api.internal.project.CrossProjectMutationGuard;
+import org.gradle.api.internal.project.ParallelProjectConfiguration;
 import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.api.internal.project.taskfactory.ITaskFactory;
 import org.gradle.api.internal.project.taskfactory.TaskIdentity;
@@ -92,10 +95,11 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
 
     private final TaskStatistics statistics;
     private final boolean eagerlyCreateLazyTasks;
+    private final MutationGuard mutationGuard;
 
     private MutableModelNode modelNode;
 
-    public DefaultTaskContainer(final ProjectInternal project, Instantiator instantiator, final ITaskFactory taskFactory, ProjectAccessListener projectAccessListener, TaskStatistics statistics, BuildOperationExecutor buildOperationExecutor, CrossProjectConfigurator crossProjectConfigurator) {
+    public DefaultTaskContainer(final ProjectInternal project, Instantiator instantiator, final ITaskFactory taskFactory, ProjectAccessListener projectAccessListener, TaskStatistics statistics, BuildOperationExecutor buildOperationExecutor, CrossProjectConfigurator crossProjectConfigurator, ParallelProjectConfiguration parallelProjectConfiguration) {
         super(Task.class, instantiator, project, MutationGuards.of(crossProjectConfigurator));
         this.taskFactory = taskFactory;
         taskInstantiator = new TaskInstantiator(taskFactory, project);
@@ -103,6 +107,12 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         this.statistics = statistics;
         this.eagerlyCreateLazyTasks = Boolean.getBoolean(EAGERLY_CREATE_LAZY_TASKS_PROPERTY);
         this.buildOperationExecutor = buildOperationExecutor;
+        this.mutationGuard = CrossProjectMutationGuard.of(project, parallelProjectConfiguration, super.getMutationGuard());
+    }
+
+    @Override
+    public MutationGuard getMutationGuard() {
+        return mutationGuard;
     }
 
     public Task create(Map<String, ?> options) {
@@ -134,7 +144,7 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         return buildOperationExecutor.call(new CallableBuildOperation<Task>() {
             @Override
             public BuildOperationDescriptor.Builder description() {
-                return realizeDescriptor(identity, replace, true);
+                return realizeDescriptor(identity, replace, true, null);
             }
 
             @Override
@@ -304,7 +314,7 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
 
             @Override
             public BuildOperationDescriptor.Builder description() {
-                return realizeDescriptor(identity, false, true);
+                return realizeDescriptor(identity, false, true, null);
             }
         });
     }
@@ -430,7 +440,7 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
 
             @Override
             public BuildOperationDescriptor.Builder description() {
-                return realizeDescriptor(identity, true, true);
+                return realizeDescriptor(identity, true, true, null);
             }
         });
     }
@@ -649,6 +659,7 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
 
         @Override
         protected void tryCreate() {
+            final TaskStatistics.LazyTaskRealization realization = statistics.startLazyTaskRealization();
             buildOperationExecutor.run(new RunnableBuildOperation() {
                 @Override
                 public void run(BuildOperationContext context) {
@@ -658,12 +669,15 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
                         context.setResult(REALIZE_RESULT);
                     } finally {
                         constructorArgs = null;
+                        if (realization != null) {
+                            realization.finished();
+                        }
                     }
                 }
 
                 @Override
                 public BuildOperationDescriptor.Builder description() {
-                    return realizeDescriptor(identity, false, false);
+                    return realizeDescriptor(identity, false, false, realization == null ? null : realization.getCallerLocation());
                 }
             });
         }
@@ -691,9 +705,9 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         return new TaskCreationException(String.format("Could not create task '%s'.", project.identityPath(name)), cause);
     }
 
-    private static BuildOperationDescriptor.Builder realizeDescriptor(TaskIdentity<?> identity, boolean replacement, boolean eager) {
+    private static BuildOperationDescriptor.Builder realizeDescriptor(TaskIdentity<?> identity, boolean replacement, boolean eager, @Nullable String callerLocation) {
         return BuildOperationDescriptor.displayName("Realize task " + identity.identityPath)
-            .details(new RealizeDetails(identity, replacement, eager));
+            .details(new RealizeDetails(identity, replacement, eager, callerLocation));
     }
 
     private static BuildOperationDescriptor.Builder registerDescriptor(TaskIdentity<?> identity) {
@@ -769,11 +783,13 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         private final TaskIdentity<?> identity;
         private final boolean replacement;
         private final boolean eager;
+        private final String callerLocation;
 
-        RealizeDetails(TaskIdentity<?> identity, boolean replacement, boolean eager) {
+        RealizeDetails(TaskIdentity<?> identity, boolean replacement, boolean eager, @Nullable String callerLocation) {
             this.identity = identity;
             this.replacement = replacement;
             this.eager = eager;
+            this.callerLocation = callerLocation;
         }
 
         @Override
@@ -801,6 +817,12 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
             return eager;
         }
 
+        @Nullable
+        @Override
+        public String getCallerLocation() {
+            return callerLocation;
+        }
+
     }
 
     private static final class RegisterDetails implements RegisterTaskBuildOperationType.Details {
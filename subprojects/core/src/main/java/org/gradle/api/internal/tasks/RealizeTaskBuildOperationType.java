@@ -19,6 +19,8 @@ package org.gradle.api.internal.tasks;
 import org.gradle.internal.operations.BuildOperationType;
 import org.gradle.internal.scan.UsedByScanPlugin;
 
+import javax.annotation.Nullable;
+
 /**
  * Represents a creation request for a task. Actual task may be realized later.
  *
@@ -40,6 +42,15 @@ public final class RealizeTaskBuildOperationType implements BuildOperationType<R
         boolean isReplacement();
 
         boolean isEager();
+
+        /**
+         * The location of the plugin or script code that caused a lazily registered task to be realized.
+         * Only available when task statistics are collected.
+         *
+         * @since 5.1
+         */
+        @Nullable
+        String getCallerLocation();
     }
 
     @UsedByScanPlugin
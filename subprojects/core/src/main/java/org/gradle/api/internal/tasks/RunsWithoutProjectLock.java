@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a task type whose actions do not touch the mutable state of the owning project, so that the project lock is released while the actions of its instances
+ * execute. This allows the actions of several tasks of the same project to be executed concurrently. The lock is still held while preparing and finishing the
+ * execution, for example while fingerprinting inputs. The annotation is not inherited, as subclasses may override the actions.
+ *
+ * <p>Instances with custom actions (added via {@code doFirst()} or {@code doLast()}) always require the project lock.</p>
+ *
+ * @see org.gradle.api.internal.TaskInternal#isProjectLockRequired()
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RunsWithoutProjectLock {
+}
@@ -22,25 +22,36 @@ import org.gradle.api.logging.Logging;
 import org.gradle.internal.IoActions;
 import org.gradle.util.CollectionUtils;
 
+import javax.annotation.Nullable;
 import java.io.Closeable;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class TaskStatistics implements Closeable {
     private final static Logger LOGGER = Logging.getLogger(TaskStatistics.class);
-    private final static String TASK_STATISTICS_PROPERTY = "org.gradle.internal.tasks.stats";
+    public final static String TASK_STATISTICS_PROPERTY = "org.gradle.internal.tasks.stats";
+    private final static String[] INFRASTRUCTURE_PACKAGES = {
+        "org.gradle.api.internal.", "org.gradle.internal.", "org.gradle.util.", "org.gradle.kotlin.dsl.",
+        "org.gradle.execution.", "org.gradle.configuration.", "org.gradle.initialization.",
+        "org.codehaus.groovy.", "groovy.", "kotlin.", "java.", "javax.", "jdk.internal.", "sun.", "com.sun."
+    };
 
     private final AtomicInteger eagerTasks = new AtomicInteger();
     private final AtomicInteger lazyTasks = new AtomicInteger();
     private final AtomicInteger lazyRealizedTasks = new AtomicInteger();
     private final Map<Class, Integer> typeCounts = Maps.newHashMap();
     private final Map<Class, Integer> realizedTypeCounts = Maps.newHashMap();
+    private final Map<String, RealizationCost> realizationCostsByCaller = Maps.newHashMap();
     private final boolean collectStatistics;
+    private final com.sun.management.ThreadMXBean allocationTracker;
 
     private PrintWriter lazyTaskLog;
 
@@ -58,6 +69,19 @@ public class TaskStatistics implements Closeable {
         } else {
             collectStatistics = false;
         }
+        allocationTracker = collectStatistics ? allocationTracker() : null;
+    }
+
+    @Nullable
+    private static com.sun.management.ThreadMXBean allocationTracker() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationTracker = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (allocationTracker.isThreadAllocatedMemorySupported() && allocationTracker.isThreadAllocatedMemoryEnabled()) {
+                return allocationTracker;
+            }
+        }
+        return null;
     }
 
     public boolean isCollecting() {
@@ -103,6 +127,41 @@ public class TaskStatistics implements Closeable {
         }
     }
 
+    /**
+     * Starts measuring the realization of a lazily registered task, attributing it to the plugin or script that triggered it.
+     *
+     * @return the measurement, or null when statistics are not collected.
+     */
+    @Nullable
+    public LazyTaskRealization startLazyTaskRealization() {
+        if (!collectStatistics) {
+            return null;
+        }
+        return new LazyTaskRealization(callerLocation(new Throwable().getStackTrace()), System.nanoTime(), allocatedBytes());
+    }
+
+    private long allocatedBytes() {
+        return allocationTracker == null ? 0 : allocationTracker.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static String callerLocation(StackTraceElement[] stackTrace) {
+        for (StackTraceElement element : stackTrace) {
+            if (!isInfrastructure(element.getClassName())) {
+                return element.toString();
+            }
+        }
+        return "unknown location";
+    }
+
+    private static boolean isInfrastructure(String className) {
+        for (String infrastructurePackage : INFRASTRUCTURE_PACKAGES) {
+            if (className.startsWith(infrastructurePackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void close() throws IOException {
         if (collectStatistics) {
@@ -117,6 +176,7 @@ public class TaskStatistics implements Closeable {
 
             printTypeCounts("\nTask types that were created with the old API", typeCounts);
             printTypeCounts("\nTask types that were registered with the new API but were created anyways", realizedTypeCounts);
+            printRealizationCosts();
             IoActions.closeQuietly(lazyTaskLog);
         }
     }
@@ -135,4 +195,66 @@ public class TaskStatistics implements Closeable {
             }
         }
     }
+
+    private void printRealizationCosts() {
+        Map<String, RealizationCost> realizationCosts;
+        synchronized (realizationCostsByCaller) {
+            if (realizationCostsByCaller.isEmpty()) {
+                return;
+            }
+            realizationCosts = Maps.newHashMap(realizationCostsByCaller);
+            realizationCostsByCaller.clear();
+        }
+        LOGGER.lifecycle("\nLocations that realized tasks registered with the new API (time and allocation include nested realizations)");
+        List<Map.Entry<String, RealizationCost>> sorted = CollectionUtils.sort(realizationCosts.entrySet(), new Comparator<Map.Entry<String, RealizationCost>>() {
+            @Override
+            public int compare(Map.Entry<String, RealizationCost> a, Map.Entry<String, RealizationCost> b) {
+                return Long.valueOf(b.getValue().nanos).compareTo(a.getValue().nanos);
+            }
+        });
+        for (Map.Entry<String, RealizationCost> entry : sorted) {
+            RealizationCost cost = entry.getValue();
+            LOGGER.lifecycle("{} realized {} tasks in {}ms, allocating {}KB", entry.getKey(), cost.count, TimeUnit.NANOSECONDS.toMillis(cost.nanos), cost.allocatedBytes / 1024);
+        }
+    }
+
+    private static class RealizationCost {
+        int count;
+        long nanos;
+        long allocatedBytes;
+    }
+
+    public class LazyTaskRealization {
+        private final String callerLocation;
+        private final long startNanos;
+        private final long startAllocatedBytes;
+
+        private LazyTaskRealization(String callerLocation, long startNanos, long startAllocatedBytes) {
+            this.callerLocation = callerLocation;
+            this.startNanos = startNanos;
+            this.startAllocatedBytes = startAllocatedBytes;
+        }
+
+        /**
+         * The location of the plugin or script code that caused the task to be realized.
+         */
+        public String getCallerLocation() {
+            return callerLocation;
+        }
+
+        public void finished() {
+            long nanos = System.nanoTime() - startNanos;
+            long allocated = allocatedBytes() - startAllocatedBytes;
+            synchronized (realizationCostsByCaller) {
+                RealizationCost cost = realizationCostsByCaller.get(callerLocation);
+                if (cost == null) {
+                    cost = new RealizationCost();
+                    realizationCostsByCaller.put(callerLocation, cost);
+                }
+                cost.count++;
+                cost.nanos += nanos;
+                cost.allocatedBytes += allocated;
+            }
+        }
+    }
 }
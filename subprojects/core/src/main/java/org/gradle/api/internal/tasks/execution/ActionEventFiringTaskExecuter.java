@@ -38,7 +38,13 @@ public class ActionEventFiringTaskExecuter implements TaskExecuter {
     public void execute(TaskInternal task, TaskStateInternal state, TaskExecutionContext context) {
         listener.beforeActions(task);
         if (task.hasTaskActions()) {
-            outputsGenerationListener.beforeTaskOutputChanged();
+            TaskProperties taskProperties = context.getTaskProperties();
+            if (taskProperties.hasDeclaredOutputs()) {
+                outputsGenerationListener.beforeTaskOutputChanged(taskProperties.getOutputFiles().plus(taskProperties.getLocalStateFiles()).plus(taskProperties.getDestroyableFiles()));
+            } else {
+                // Without declared outputs, we cannot tell which files the task is going to change
+                outputsGenerationListener.beforeTaskOutputChanged();
+            }
         }
         try {
             delegate.execute(task, state, context);
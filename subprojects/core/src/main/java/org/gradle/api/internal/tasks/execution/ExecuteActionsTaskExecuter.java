@@ -30,6 +30,7 @@ import org.gradle.api.tasks.StopActionException;
 import org.gradle.api.tasks.StopExecutionException;
 import org.gradle.api.tasks.TaskExecutionException;
 import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.Factory;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.exceptions.Contextual;
 import org.gradle.internal.exceptions.DefaultMultiCauseException;
@@ -39,6 +40,7 @@ import org.gradle.internal.operations.BuildOperationDescriptor;
 import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.operations.BuildOperationRef;
 import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resources.ProjectLeaseRegistry;
 import org.gradle.internal.work.AsyncWorkTracker;
 
 import java.util.ArrayList;
@@ -52,17 +54,30 @@ public class ExecuteActionsTaskExecuter implements TaskExecuter {
     private final BuildOperationExecutor buildOperationExecutor;
     private final AsyncWorkTracker asyncWorkTracker;
     private final BuildCancellationToken buildCancellationToken;
+    private final ProjectLeaseRegistry projectLeaseRegistry;
 
-    public ExecuteActionsTaskExecuter(BuildOperationExecutor buildOperationExecutor, AsyncWorkTracker asyncWorkTracker, BuildCancellationToken buildCancellationToken) {
+    public ExecuteActionsTaskExecuter(BuildOperationExecutor buildOperationExecutor, AsyncWorkTracker asyncWorkTracker, BuildCancellationToken buildCancellationToken, ProjectLeaseRegistry projectLeaseRegistry) {
         this.buildOperationExecutor = buildOperationExecutor;
         this.asyncWorkTracker = asyncWorkTracker;
         this.buildCancellationToken = buildCancellationToken;
+        this.projectLeaseRegistry = projectLeaseRegistry;
     }
 
-    public void execute(TaskInternal task, TaskStateInternal state, TaskExecutionContext context) {
+    public void execute(final TaskInternal task, final TaskStateInternal state, final TaskExecutionContext context) {
         state.setExecuting(true);
         try {
-            GradleException failure = executeActions(task, state, context);
+            GradleException failure;
+            if (task.isProjectLockRequired()) {
+                failure = executeActions(task, state, context);
+            } else {
+                // Only the actions run without the project lock, the steps before and after them may still access project state
+                failure = projectLeaseRegistry.withoutProjectLock(new Factory<GradleException>() {
+                    @Override
+                    public GradleException create() {
+                        return executeActions(task, state, context);
+                    }
+                });
+            }
             if (failure != null) {
                 state.setOutcome(failure);
             } else {
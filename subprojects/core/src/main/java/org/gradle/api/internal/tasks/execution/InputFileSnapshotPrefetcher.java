@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.execution;
+
+import org.gradle.api.internal.file.FileCollectionInternal;
+import org.gradle.api.internal.file.FileCollectionLeafVisitor;
+import org.gradle.api.internal.file.FileTreeInternal;
+import org.gradle.api.internal.file.collections.DirectoryFileTree;
+import org.gradle.api.internal.tasks.TaskInputFilePropertySpec;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.resources.ResourceLockCoordinationService;
+import org.gradle.internal.snapshot.FileSystemSnapshotter;
+import org.gradle.internal.work.WorkerLeaseRegistry;
+import org.gradle.internal.work.WorkerLeaseRegistry.WorkerLease;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static org.gradle.internal.resources.DefaultResourceLockCoordinationService.tryLock;
+import static org.gradle.internal.resources.DefaultResourceLockCoordinationService.unlock;
+
+/**
+ * Snapshots the input file roots of a task concurrently, so that fingerprinting the inputs for the cache key finds them already snapshotted.
+ *
+ * The file collections are resolved on the calling thread, only the walking and hashing of the roots happens on other threads.
+ * Failures are ignored here, as the same roots are snapshotted again when the inputs are fingerprinted, which reports them.
+ *
+ * Each root snapshotted on another thread needs a child of the task's worker lease, so prefetching never uses more threads than
+ * the configured number of workers. A root is skipped when no lease is free, and is then snapshotted as part of fingerprinting.
+ */
+public class InputFileSnapshotPrefetcher implements Stoppable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InputFileSnapshotPrefetcher.class);
+
+    private final FileSystemSnapshotter fileSystemSnapshotter;
+    private final ManagedExecutor executor;
+    private final WorkerLeaseRegistry workerLeaseRegistry;
+    private final ResourceLockCoordinationService coordinationService;
+
+    public InputFileSnapshotPrefetcher(FileSystemSnapshotter fileSystemSnapshotter, ManagedExecutor executor, WorkerLeaseRegistry workerLeaseRegistry, ResourceLockCoordinationService coordinationService) {
+        this.fileSystemSnapshotter = fileSystemSnapshotter;
+        this.executor = executor;
+        this.workerLeaseRegistry = workerLeaseRegistry;
+        this.coordinationService = coordinationService;
+    }
+
+    public void prefetch(TaskProperties taskProperties) {
+        final Set<File> roots = new LinkedHashSet<File>();
+        for (TaskInputFilePropertySpec propertySpec : taskProperties.getInputFileProperties()) {
+            ((FileCollectionInternal) propertySpec.getPropertyFiles()).visitLeafCollections(new FileCollectionLeafVisitor() {
+                @Override
+                public void visitCollection(FileCollectionInternal fileCollection) {
+                    for (File file : fileCollection) {
+                        roots.add(file);
+                    }
+                }
+
+                @Override
+                public void visitGenericFileTree(FileTreeInternal fileTree) {
+                    // Not backed by a file system location we can snapshot up front
+                }
+
+                @Override
+                public void visitDirectoryTree(DirectoryFileTree directoryTree) {
+                    // Filtered trees may only use a small part of the directory, so only snapshot complete ones
+                    if (directoryTree.getPatterns().isEmpty()) {
+                        roots.add(directoryTree.getDir());
+                    }
+                }
+            });
+        }
+        if (roots.size() < 2) {
+            return;
+        }
+
+        WorkerLease taskLease = workerLeaseRegistry.getCurrentWorkerLease();
+        // The task's own thread only waits here, so the first child lease borrows the task's lease
+        List<Future<?>> pending = new ArrayList<Future<?>>(roots.size());
+        for (final File root : roots) {
+            final WorkerLease lease = taskLease.createChild();
+            pending.add(executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    if (!coordinationService.withStateLock(tryLock(lease))) {
+                        return null;
+                    }
+                    try {
+                        return fileSystemSnapshotter.snapshot(root);
+                    } finally {
+                        coordinationService.withStateLock(unlock(lease));
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            } catch (ExecutionException e) {
+                LOGGER.debug("Could not snapshot input file root ahead of fingerprinting.", e.getCause());
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        executor.stop();
+    }
+}
@@ -66,11 +66,20 @@ public class ResolveBuildCacheKeyExecuter implements TaskExecuter {
     private final TaskExecuter delegate;
     private final BuildOperationExecutor buildOperationExecutor;
     private final boolean buildCacheDebugLogging;
+    private final InputFileSnapshotPrefetcher inputFileSnapshotPrefetcher;
 
     public ResolveBuildCacheKeyExecuter(TaskExecuter delegate, BuildOperationExecutor buildOperationExecutor, boolean buildCacheDebugLogging) {
+        this(delegate, buildOperationExecutor, buildCacheDebugLogging, null);
+    }
+
+    /**
+     * Creates an executer which snapshots the input file roots of a task concurrently using the given prefetcher before calculating its cache key.
+     */
+    public ResolveBuildCacheKeyExecuter(TaskExecuter delegate, BuildOperationExecutor buildOperationExecutor, boolean buildCacheDebugLogging, @Nullable InputFileSnapshotPrefetcher inputFileSnapshotPrefetcher) {
         this.delegate = delegate;
         this.buildOperationExecutor = buildOperationExecutor;
         this.buildCacheDebugLogging = buildCacheDebugLogging;
+        this.inputFileSnapshotPrefetcher = inputFileSnapshotPrefetcher;
     }
 
     @Override
@@ -115,6 +124,9 @@ public class ResolveBuildCacheKeyExecuter implements TaskExecuter {
     }
 
     private TaskOutputCachingBuildCacheKey doResolve(TaskInternal task, TaskExecutionContext context) {
+        if (inputFileSnapshotPrefetcher != null) {
+            inputFileSnapshotPrefetcher.prefetch(context.getTaskProperties());
+        }
         TaskArtifactState taskState = context.getTaskArtifactState();
         TaskOutputCachingBuildCacheKey cacheKey = taskState.calculateCacheKey();
         if (context.getTaskProperties().hasDeclaredOutputs() && cacheKey.isValid()) { // A task with no outputs has no cache key.
@@ -67,7 +67,7 @@ public class SkipCachedTaskExecuter implements TaskExecuter {
     public void execute(final TaskInternal task, TaskStateInternal state, TaskExecutionContext context) {
         LOGGER.debug("Determining if {} is cached already", task);
 
-        TaskProperties taskProperties = context.getTaskProperties();
+        final TaskProperties taskProperties = context.getTaskProperties();
         TaskOutputCachingBuildCacheKey cacheKey = context.getBuildCacheKey();
         boolean taskOutputCachingEnabled = state.getTaskOutputCaching().isEnabled();
 
@@ -86,7 +86,7 @@ public class SkipCachedTaskExecuter implements TaskExecuter {
                         commandFactory.createLoad(cacheKey, outputProperties, task, taskProperties.getLocalStateFiles(), new BuildCacheLoadListener() {
                             @Override
                             public void beforeLoad() {
-                                taskOutputChangesListener.beforeTaskOutputChanged();
+                                taskOutputChangesListener.beforeTaskOutputChanged(taskProperties.getOutputFiles().plus(taskProperties.getLocalStateFiles()));
                             }
 
                             @Override
@@ -16,10 +16,17 @@
 
 package org.gradle.api.internal.tasks.execution;
 
+import java.io.File;
+
 public interface TaskOutputChangesListener {
     /**
      * Invoked when the outputs for a task are about to change.
      * This is for example just before the task actions are executed or the outputs are loaded from the cache.
      */
     void beforeTaskOutputChanged();
+
+    /**
+     * Invoked when the outputs for a task are about to change, where only files in the given locations can be changed.
+     */
+    void beforeTaskOutputChanged(Iterable<File> outputLocations);
 }
@@ -416,6 +416,8 @@ public class DefaultPropertyMetadataStore implements PropertyMetadataStore {
         DefaultPropertyMetadata(String fieldName, Method method, Class<? extends Annotation> propertyType, PropertyAnnotationHandler annotationHandler, ImmutableMap<Class<? extends Annotation>, Annotation> annotations, ImmutableList<String> validationMessages) {
             this.fieldName = fieldName;
             this.method = method;
+            // Make the getter accessible once for the type, rather than for every bean whose properties are visited
+            method.setAccessible(true);
             this.propertyType = propertyType;
             this.annotationHandler = annotationHandler;
             this.annotations = annotations;
@@ -95,7 +95,6 @@ public abstract class AbstractNestedRuntimeBeanNode extends RuntimeBeanNode<Obje
             this.propertyMetadata = propertyMetadata;
             this.bean = bean;
             this.method = method;
-            method.setAccessible(true);
         }
 
         @Override
@@ -28,6 +28,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A factory for {@link CrossBuildInMemoryCache} instances.
@@ -69,7 +70,8 @@ public class DefaultCrossBuildInMemoryCacheFactory extends CrossBuildInMemoryCac
 
     private static class DefaultCrossBuildInMemoryCache<K, V> implements CrossBuildInMemoryCache<K, V>, SessionLifecycleListener {
         private final Object lock = new Object();
-        private final Map<K, V> valuesForThisSession = new HashMap<K, V>();
+        // Read without holding the lock, so that values already used by this session can be located without contention. Does not hold null values.
+        private final Map<K, V> valuesForThisSession = new ConcurrentHashMap<K, V>();
         // This is used only to retain strong references to the values
         private final Set<V> valuesForPreviousSession = new HashSet<V>();
         private final Map<K, SoftReference<V>> allValues;
@@ -104,6 +106,10 @@ public class DefaultCrossBuildInMemoryCacheFactory extends CrossBuildInMemoryCac
         @Nullable
         @Override
         public V get(K key) {
+            V v = valuesForThisSession.get(key);
+            if (v != null) {
+                return v;
+            }
             synchronized (lock) {
                 return getIfPresent(key);
             }
@@ -111,8 +117,12 @@ public class DefaultCrossBuildInMemoryCacheFactory extends CrossBuildInMemoryCac
 
         @Override
         public V get(K key, Transformer<V, K> factory) {
+            V v = valuesForThisSession.get(key);
+            if (v != null) {
+                return v;
+            }
             synchronized (lock) {
-                V v = getIfPresent(key);
+                v = getIfPresent(key);
                 if (v != null) {
                     return v;
                 }
@@ -121,8 +131,10 @@ public class DefaultCrossBuildInMemoryCacheFactory extends CrossBuildInMemoryCac
                 v = factory.transform(key);
 
                 allValues.put(key, new SoftReference<V>(v));
-                // Retain strong reference
-                valuesForThisSession.put(key, v);
+                if (v != null) {
+                    // Retain strong reference
+                    valuesForThisSession.put(key, v);
+                }
 
                 return v;
             }
@@ -132,7 +144,11 @@ public class DefaultCrossBuildInMemoryCacheFactory extends CrossBuildInMemoryCac
         public void put(K key, V value) {
             synchronized (lock) {
                 allValues.put(key, new SoftReference<V>(value));
-                valuesForThisSession.put(key, value);
+                if (value != null) {
+                    valuesForThisSession.put(key, value);
+                } else {
+                    valuesForThisSession.remove(key);
+                }
             }
         }
 
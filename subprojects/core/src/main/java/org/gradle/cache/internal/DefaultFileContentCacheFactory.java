@@ -108,6 +108,11 @@ public class DefaultFileContentCacheFactory implements FileContentCacheFactory,
             cache.clear();
         }
 
+        @Override
+        public void beforeTaskOutputChanged(Iterable<File> outputLocations) {
+            cache.clear();
+        }
+
         @Override
         public V get(File file) {
             // TODO - don't calculate the same value concurrently
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.cache.internal;
+
+import com.google.common.io.Files;
+import org.gradle.api.internal.GeneratedBytecodeCache;
+import org.gradle.cache.CacheRepository;
+import org.gradle.cache.FileLockManager;
+import org.gradle.cache.PersistentCache;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.resource.local.FileAccessTimeJournal;
+import org.gradle.internal.resource.local.FileAccessTracker;
+import org.gradle.internal.resource.local.SingleDepthFileAccessTracker;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+import static org.gradle.cache.internal.LeastRecentlyUsedCacheCleanup.DEFAULT_MAX_AGE_IN_DAYS_FOR_RECREATABLE_CACHE_ENTRIES;
+import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
+
+/**
+ * Stores the bytecode of generated classes in the Gradle user home, so that new daemons can define them without generating them again.
+ *
+ * Each class is kept in a file named after its key. Files that have not been used for a while are removed when the cache is cleaned up.
+ */
+public class DefaultGeneratedBytecodeCache implements GeneratedBytecodeCache, Closeable {
+    /**
+     * Opts in to persisting the bytecode of generated classes.
+     */
+    public static final String PERSISTENT_CACHE_PROPERTY = "org.gradle.internal.generated-classes.persistent";
+    private static final int FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP = 1;
+
+    private final CacheRepository cacheRepository;
+    private final FileAccessTimeJournal fileAccessTimeJournal;
+    private PersistentCache cache;
+    private FileAccessTracker fileAccessTracker;
+
+    public DefaultGeneratedBytecodeCache(CacheRepository cacheRepository, FileAccessTimeJournal fileAccessTimeJournal) {
+        this.cacheRepository = cacheRepository;
+        this.fileAccessTimeJournal = fileAccessTimeJournal;
+    }
+
+    private synchronized PersistentCache getCache() {
+        if (cache == null) {
+            cache = cacheRepository
+                .cache("generated-classes")
+                .withDisplayName("generated classes cache")
+                .withLockOptions(mode(FileLockManager.LockMode.None)) // Entries are written atomically
+                .withCleanup(new LeastRecentlyUsedCacheCleanup(new SingleDepthFilesFinder(FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP), fileAccessTimeJournal, DEFAULT_MAX_AGE_IN_DAYS_FOR_RECREATABLE_CACHE_ENTRIES))
+                .open();
+            fileAccessTracker = new SingleDepthFileAccessTracker(fileAccessTimeJournal, cache.getBaseDir(), FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP);
+        }
+        return cache;
+    }
+
+    @Nullable
+    @Override
+    public byte[] load(HashCode key) {
+        File bytecodeFile = bytecodeFile(key);
+        if (!bytecodeFile.isFile()) {
+            return null;
+        }
+        byte[] bytecode;
+        try {
+            bytecode = Files.toByteArray(bytecodeFile);
+        } catch (IOException e) {
+            // Removed by the cleanup of another process meanwhile
+            return null;
+        }
+        fileAccessTracker.markAccessed(bytecodeFile);
+        return bytecode;
+    }
+
+    @Override
+    public void store(HashCode key, byte[] bytecode) {
+        File bytecodeFile = bytecodeFile(key);
+        if (!bytecodeFile.isFile()) {
+            try {
+                // Other processes may store the same class concurrently, so write to a temporary file and move it into place
+                File tempFile = File.createTempFile(key.toString(), ".tmp", bytecodeFile.getParentFile());
+                Files.write(bytecode, tempFile);
+                if (!tempFile.renameTo(bytecodeFile)) {
+                    tempFile.delete();
+                }
+            } catch (IOException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+        fileAccessTracker.markAccessed(bytecodeFile);
+    }
+
+    private File bytecodeFile(HashCode key) {
+        return new File(getCache().getBaseDir(), key.toString() + ".class");
+    }
+
+    @Override
+    public synchronized void close() {
+        if (cache != null) {
+            cache.close();
+        }
+    }
+}
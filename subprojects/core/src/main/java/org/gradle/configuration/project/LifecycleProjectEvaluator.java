@@ -16,6 +16,7 @@
 package org.gradle.configuration.project;
 
 import org.gradle.api.Action;
+import org.gradle.api.CircularReferenceException;
 import org.gradle.api.ProjectConfigurationException;
 import org.gradle.api.ProjectEvaluationListener;
 import org.gradle.api.internal.project.ProjectInternal;
@@ -26,10 +27,14 @@ import org.gradle.internal.operations.BuildOperationContext;
 import org.gradle.internal.operations.BuildOperationDescriptor;
 import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resources.ProjectLeaseRegistry;
 import org.gradle.util.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Notifies listeners before and after delegating to the provided delegate to the actual evaluation,
  * wrapping the work in build operations.
@@ -49,6 +54,9 @@ import org.slf4j.LoggerFactory;
  * The use of term “evaluate” is a legacy constraint.
  * Project evaluation is synonymous with “project configuration” (the latter being the preferred term).
  *
+ * When projects are configured in parallel, a project that is being configured by another thread is waited for,
+ * without holding any project lock. Threads waiting on each other's projects are reported as a circular reference.
+ *
  * @see ProjectEvaluationListener
  */
 public class LifecycleProjectEvaluator implements ProjectEvaluator {
@@ -56,16 +64,49 @@ public class LifecycleProjectEvaluator implements ProjectEvaluator {
     private static final Logger LOGGER = LoggerFactory.getLogger(LifecycleProjectEvaluator.class);
 
     private final BuildOperationExecutor buildOperationExecutor;
+    private final ProjectLeaseRegistry projectLeaseRegistry;
     private final ProjectEvaluator delegate;
+    // The project each thread is waiting for, guarded by itself
+    private final Map<Thread, ProjectStateInternal> awaitedProjects = new HashMap<Thread, ProjectStateInternal>();
 
-    public LifecycleProjectEvaluator(BuildOperationExecutor buildOperationExecutor, ProjectEvaluator delegate) {
+    public LifecycleProjectEvaluator(BuildOperationExecutor buildOperationExecutor, ProjectLeaseRegistry projectLeaseRegistry, ProjectEvaluator delegate) {
         this.buildOperationExecutor = buildOperationExecutor;
+        this.projectLeaseRegistry = projectLeaseRegistry;
         this.delegate = delegate;
     }
 
     public void evaluate(final ProjectInternal project, final ProjectStateInternal state) {
-        if (state.isUnconfigured()) {
+        if (state.startConfiguring()) {
             buildOperationExecutor.run(new EvaluateProject(project, state));
+        } else if (state.isConfiguringOnOtherThread()) {
+            awaitConfiguration(project, state);
+        }
+    }
+
+    private void awaitConfiguration(ProjectInternal project, final ProjectStateInternal state) {
+        Thread currentThread = Thread.currentThread();
+        synchronized (awaitedProjects) {
+            Thread configuringThread = state.getConfiguringThread();
+            while (configuringThread != null) {
+                if (configuringThread == currentThread) {
+                    throw new CircularReferenceException(String.format("Circular referencing during evaluation for %s.", project));
+                }
+                ProjectStateInternal awaitedByConfiguringThread = awaitedProjects.get(configuringThread);
+                configuringThread = awaitedByConfiguringThread == null ? null : awaitedByConfiguringThread.getConfiguringThread();
+            }
+            awaitedProjects.put(currentThread, state);
+        }
+        try {
+            projectLeaseRegistry.withoutProjectLock(new Runnable() {
+                @Override
+                public void run() {
+                    state.awaitConfigured();
+                }
+            });
+        } finally {
+            synchronized (awaitedProjects) {
+                awaitedProjects.remove(currentThread);
+            }
         }
     }
 
@@ -16,16 +16,32 @@
 
 package org.gradle.execution;
 
+import org.gradle.api.Action;
 import org.gradle.api.BuildCancelledException;
 import org.gradle.api.Project;
+import org.gradle.api.internal.project.ParallelProjectConfiguration;
 import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
 
 public class TaskPathProjectEvaluator implements ProjectConfigurer {
+    /**
+     * Opts in to configuring the projects of a hierarchy in parallel.
+     */
+    public static final String PARALLEL_CONFIGURATION_PROPERTY = "org.gradle.internal.configuration.parallel";
+
     private final BuildCancellationToken cancellationToken;
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final ParallelProjectConfiguration parallelProjectConfiguration;
 
-    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken) {
+    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken, BuildOperationExecutor buildOperationExecutor, ParallelProjectConfiguration parallelProjectConfiguration) {
         this.cancellationToken = cancellationToken;
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.parallelProjectConfiguration = parallelProjectConfiguration;
     }
 
     public void configure(ProjectInternal project) {
@@ -57,6 +73,10 @@ public class TaskPathProjectEvaluator implements ProjectConfigurer {
     }
 
     public void configureHierarchy(ProjectInternal project) {
+        if (parallelProjectConfiguration.isEnabled()) {
+            configureHierarchyInParallel(project);
+            return;
+        }
         configure(project);
         for (Project sub : project.getSubprojects()) {
             configure((ProjectInternal) sub);
@@ -65,9 +85,76 @@ public class TaskPathProjectEvaluator implements ProjectConfigurer {
 
     @Override
     public void configureHierarchyFully(ProjectInternal project) {
+        if (parallelProjectConfiguration.isEnabled()) {
+            configureHierarchyInParallel(project);
+            discoverTasksAndBindModelRules(project);
+            for (Project sub : project.getSubprojects()) {
+                discoverTasksAndBindModelRules((ProjectInternal) sub);
+            }
+            return;
+        }
         configureFully(project);
         for (Project sub : project.getSubprojects()) {
             configureFully((ProjectInternal) sub);
         }
     }
+
+    private void discoverTasksAndBindModelRules(final ProjectInternal project) {
+        project.getMutationState().withMutableState(new Runnable() {
+            @Override
+            public void run() {
+                discoverTasks(project);
+                bindAllModelRules(project);
+            }
+        });
+    }
+
+    /**
+     * Configures the given project, then all of its sub-projects concurrently. Each project is configured holding its own project lock,
+     * and only once its parent has been configured. Projects that are already being configured by another thread, for example due to
+     * {@code evaluationDependsOn()}, are waited for.
+     */
+    private void configureHierarchyInParallel(final ProjectInternal project) {
+        parallelProjectConfiguration.configureInParallel(new Runnable() {
+            @Override
+            public void run() {
+                configure(project);
+                buildOperationExecutor.runAll(new Action<BuildOperationQueue<RunnableBuildOperation>>() {
+                    @Override
+                    public void execute(BuildOperationQueue<RunnableBuildOperation> queue) {
+                        // Sub-projects are sorted by path, so parents are queued before their children
+                        for (Project sub : project.getSubprojects()) {
+                            queue.add(new ConfigureProjectAndParents((ProjectInternal) sub));
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private class ConfigureProjectAndParents implements RunnableBuildOperation {
+        private final ProjectInternal project;
+
+        ConfigureProjectAndParents(ProjectInternal project) {
+            this.project = project;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            configureWithParents(project);
+        }
+
+        private void configureWithParents(ProjectInternal project) {
+            ProjectInternal parent = project.getParent();
+            if (parent != null) {
+                configureWithParents(parent);
+            }
+            configure(project);
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Configure " + project.getDisplayName() + " in parallel");
+        }
+    }
 }
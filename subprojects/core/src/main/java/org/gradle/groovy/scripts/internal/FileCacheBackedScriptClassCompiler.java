@@ -21,6 +21,8 @@ import org.codehaus.groovy.ast.ClassNode;
 import org.gradle.api.Action;
 import org.gradle.api.internal.initialization.loadercache.ClassLoaderCache;
 import org.gradle.api.internal.initialization.loadercache.ClassLoaderId;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.cache.CacheRepository;
 import org.gradle.cache.PersistentCache;
 import org.gradle.groovy.scripts.ScriptSource;
@@ -52,6 +54,7 @@ import java.net.URI;
  * A {@link ScriptClassCompiler} which compiles scripts to a cache directory, and loads them from there.
  */
 public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler, Closeable {
+    private static final Logger LOGGER = Logging.getLogger(FileCacheBackedScriptClassCompiler.class);
     private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
     private final ScriptCompilationHandler scriptCompilationHandler;
     private final ProgressLoggerFactory progressLoggerFactory;
@@ -59,6 +62,7 @@ public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler,
     private final ScriptSourceHasher hasher;
     private final ClassLoaderCache classLoaderCache;
     private final ClassLoaderHierarchyHasher classLoaderHierarchyHasher;
+    private final ScriptCompilationStatistics statistics = new ScriptCompilationStatistics();
 
     public FileCacheBackedScriptClassCompiler(CacheRepository cacheRepository, ScriptCompilationHandler scriptCompilationHandler,
                                               ProgressLoggerFactory progressLoggerFactory, ScriptSourceHasher hasher, ClassLoaderCache classLoaderCache,
@@ -82,6 +86,7 @@ public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler,
         if (source.getResource().getHasEmptyContent()) {
             return emptyCompiledScript(classLoaderId, operation);
         }
+        statistics.scriptRequested();
 
         HashCode sourceHashCode = hasher.hash(source);
         final String sourceHash = HashUtil.compactStringFor(sourceHashCode);
@@ -120,7 +125,14 @@ public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler,
         return new EmptyCompiledScript<T, M>(operation);
     }
 
+    public ScriptCompilationStatistics getStatistics() {
+        return statistics;
+    }
+
     public void close() {
+        if (statistics.getRequested() > 0) {
+            LOGGER.info("Build script compilation: {}.", statistics);
+        }
     }
 
     private File classesDir(PersistentCache cache) {
@@ -150,6 +162,7 @@ public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler,
         public void execute(PersistentCache cache) {
             File classesDir = classesDir(cache);
             File metadataDir = metadataDir(cache);
+            statistics.scriptCompiled();
             scriptCompilationHandler.compileToDir(source, classLoader, classesDir, metadataDir, transformer, scriptBaseClass, verifier);
         }
     }
@@ -413,6 +426,7 @@ public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler,
         }
 
         public void execute(final PersistentCache remappedClassesCache) {
+            statistics.scriptRemapped();
             final PersistentCache cache = cacheRepository.cache("scripts/" + sourceHash + "/" + dslId + "/" + classpathHash)
                 .withDisplayName(dslId + " generic class cache for " + source.getDisplayName())
                 .withInitializer(new ProgressReportingInitializer(
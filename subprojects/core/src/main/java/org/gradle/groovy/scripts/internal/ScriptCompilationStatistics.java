@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.groovy.scripts.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counters describing how often compiled scripts are served from the persistent script caches. Thread safe.
+ */
+public class ScriptCompilationStatistics {
+    private final AtomicInteger requested = new AtomicInteger();
+    private final AtomicInteger remapped = new AtomicInteger();
+    private final AtomicInteger compiled = new AtomicInteger();
+
+    void scriptRequested() {
+        requested.incrementAndGet();
+    }
+
+    void scriptRemapped() {
+        remapped.incrementAndGet();
+    }
+
+    void scriptCompiled() {
+        compiled.incrementAndGet();
+    }
+
+    /**
+     * The number of non-empty scripts requested from the persistent caches.
+     */
+    public int getRequested() {
+        return requested.get();
+    }
+
+    /**
+     * The number of scripts that were not cached for their location, and were remapped from the classes compiled for the same content and classpath.
+     * Includes the scripts that had to be compiled first.
+     */
+    public int getRemapped() {
+        return remapped.get();
+    }
+
+    /**
+     * The number of scripts that had to be compiled, because no script with the same content and classpath had been compiled before.
+     */
+    public int getCompiled() {
+        return compiled.get();
+    }
+
+    /**
+     * The percentage of requested scripts whose classes were already cached for their location.
+     */
+    public int getHitRate() {
+        return percentageOfRequested(requested.get() - remapped.get());
+    }
+
+    /**
+     * The percentage of requested scripts that were only remapped from the classes already compiled for the same content and classpath.
+     */
+    public int getRemapRate() {
+        return percentageOfRequested(remapped.get() - compiled.get());
+    }
+
+    /**
+     * The percentage of requested scripts that had to be compiled.
+     */
+    public int getCompileRate() {
+        return percentageOfRequested(compiled.get());
+    }
+
+    private int percentageOfRequested(int count) {
+        int total = requested.get();
+        return total == 0 ? 0 : count * 100 / total;
+    }
+
+    @Override
+    public String toString() {
+        return getRequested() + " requested, " + getRemapped() + " remapped, " + getCompiled() + " compiled ("
+            + getHitRate() + "% hit rate, " + getRemapRate() + "% remap rate, " + getCompileRate() + "% compile rate)";
+    }
+}
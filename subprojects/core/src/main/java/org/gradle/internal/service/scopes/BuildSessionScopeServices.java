@@ -19,7 +19,10 @@ package org.gradle.internal.service.scopes;
 import org.apache.tools.ant.DirectoryScanner;
 import org.gradle.StartParameter;
 import org.gradle.api.Action;
+import org.gradle.api.internal.ClassGenerator;
 import org.gradle.api.internal.FeaturePreviews;
+import org.gradle.api.internal.InstantiatorFactory;
+import org.gradle.api.internal.PersistentClassGeneration;
 import org.gradle.api.internal.attributes.DefaultImmutableAttributesFactory;
 import org.gradle.api.internal.cache.StringInterner;
 import org.gradle.api.internal.changedetection.state.BuildScopeFileTimeStampInspector;
@@ -41,6 +44,7 @@ import org.gradle.cache.PersistentIndexedCache;
 import org.gradle.cache.internal.CacheRepositoryServices;
 import org.gradle.cache.internal.CacheScopeMapping;
 import org.gradle.cache.internal.CleanupActionFactory;
+import org.gradle.cache.internal.DefaultGeneratedBytecodeCache;
 import org.gradle.cache.internal.VersionStrategy;
 import org.gradle.deployment.internal.DefaultDeploymentRegistry;
 import org.gradle.groovy.scripts.internal.DefaultScriptSourceHasher;
@@ -137,6 +141,20 @@ public class BuildSessionScopeServices extends DefaultServiceRegistry {
         return new BuildOperationCrossProjectConfigurator(buildOperationExecutor);
     }
 
+    ClassGenerator createClassGenerator(ClassGenerator parent, PersistentClassGeneration persistentClassGeneration) {
+        if (!Boolean.getBoolean(DefaultGeneratedBytecodeCache.PERSISTENT_CACHE_PROPERTY)) {
+            return parent;
+        }
+        return persistentClassGeneration.getClassGenerator();
+    }
+
+    InstantiatorFactory createInstantiatorFactory(InstantiatorFactory parent, PersistentClassGeneration persistentClassGeneration) {
+        if (!Boolean.getBoolean(DefaultGeneratedBytecodeCache.PERSISTENT_CACHE_PROPERTY)) {
+            return parent;
+        }
+        return persistentClassGeneration.getInstantiatorFactory();
+    }
+
     ProjectCacheDir createCacheLayout(StartParameter startParameter, BuildLayoutFactory buildLayoutFactory, ProgressLoggerFactory progressLoggerFactory) {
         BuildLayout buildLayout = buildLayoutFactory.getLayoutFor(new BuildLayoutConfiguration(startParameter));
         File cacheDir = startParameter.getProjectCacheDir() != null ? startParameter.getProjectCacheDir() : new File(buildLayout.getRootDirectory(), ".gradle");
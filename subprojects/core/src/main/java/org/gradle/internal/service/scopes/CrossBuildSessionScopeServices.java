@@ -43,6 +43,8 @@ import org.gradle.internal.resources.ResourceLockCoordinationService;
 import org.gradle.internal.service.DefaultServiceRegistry;
 import org.gradle.internal.service.ServiceRegistry;
 import org.gradle.internal.time.Clock;
+import org.gradle.internal.work.AdaptiveWorkerLeaseLimit;
+import org.gradle.internal.work.DefaultSystemLoadSampler;
 import org.gradle.internal.work.DefaultWorkerLeaseService;
 import org.gradle.internal.work.StopShieldingWorkerLeaseService;
 import org.gradle.internal.work.WorkerLeaseService;
@@ -137,8 +139,9 @@ public class CrossBuildSessionScopeServices implements Closeable {
             );
         }
 
-        WorkerLeaseService createWorkerLeaseService(ResourceLockCoordinationService resourceLockCoordinationService, ParallelismConfigurationManager parallelismConfigurationManager) {
-            return new DefaultWorkerLeaseService(resourceLockCoordinationService, parallelismConfigurationManager);
+        WorkerLeaseService createWorkerLeaseService(ResourceLockCoordinationService resourceLockCoordinationService, ParallelismConfigurationManager parallelismConfigurationManager, ExecutorFactory executorFactory) {
+            AdaptiveWorkerLeaseLimit adaptiveLimit = AdaptiveWorkerLeaseLimit.isEnabled() ? new AdaptiveWorkerLeaseLimit(new DefaultSystemLoadSampler(), executorFactory.createScheduled("Worker lease limit sampler", 1)) : null;
+            return new DefaultWorkerLeaseService(resourceLockCoordinationService, parallelismConfigurationManager, adaptiveLimit);
         }
 
         BuildOperationExecutor createBuildOperationExecutor(
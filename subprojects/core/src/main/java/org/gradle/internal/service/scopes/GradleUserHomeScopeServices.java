@@ -20,6 +20,7 @@ import org.apache.tools.ant.DirectoryScanner;
 import org.gradle.api.internal.ClassPathRegistry;
 import org.gradle.api.internal.DefaultClassPathProvider;
 import org.gradle.api.internal.DefaultClassPathRegistry;
+import org.gradle.api.internal.PersistentClassGeneration;
 import org.gradle.api.internal.cache.StringInterner;
 import org.gradle.api.internal.changedetection.state.CachingFileHasher;
 import org.gradle.api.internal.changedetection.state.CrossBuildFileHashCache;
@@ -44,6 +45,7 @@ import org.gradle.cache.internal.CacheRepositoryServices;
 import org.gradle.cache.internal.CacheScopeMapping;
 import org.gradle.cache.internal.CrossBuildInMemoryCacheFactory;
 import org.gradle.cache.internal.DefaultFileContentCacheFactory;
+import org.gradle.cache.internal.DefaultGeneratedBytecodeCache;
 import org.gradle.cache.internal.DefaultGeneratedGradleJarCache;
 import org.gradle.cache.internal.FileContentCacheFactory;
 import org.gradle.cache.internal.GradleUserHomeCleanupServices;
@@ -145,6 +147,14 @@ public class GradleUserHomeScopeServices {
         return new CrossBuildInMemoryCachingScriptClassCache(hasher, cacheFactory);
     }
 
+    DefaultGeneratedBytecodeCache createGeneratedBytecodeCache(CacheRepository cacheRepository, FileAccessTimeJournal fileAccessTimeJournal) {
+        return new DefaultGeneratedBytecodeCache(cacheRepository, fileAccessTimeJournal);
+    }
+
+    PersistentClassGeneration createPersistentClassGeneration(DefaultGeneratedBytecodeCache generatedBytecodeCache, CrossBuildInMemoryCacheFactory cacheFactory) {
+        return new PersistentClassGeneration(generatedBytecodeCache, cacheFactory);
+    }
+
     ValueSnapshotter createValueSnapshotter(ClassLoaderHierarchyHasher classLoaderHierarchyHasher) {
         return new DefaultValueSnapshotter(classLoaderHierarchyHasher, NamedObjectInstantiator.INSTANCE);
     }
@@ -164,6 +174,11 @@ public class GradleUserHomeScopeServices {
             public void beforeTaskOutputChanged() {
                 fileSystemMirror.beforeTaskOutputChanged();
             }
+
+            @Override
+            public void beforeTaskOutputChanged(Iterable<File> outputLocations) {
+                fileSystemMirror.beforeTaskOutputChanged(outputLocations);
+            }
         });
         listenerManager.addListener(new RootBuildLifecycleListener() {
             @Override
@@ -199,8 +214,8 @@ public class GradleUserHomeScopeServices {
         return new DefaultHashingClassLoaderFactory(classpathHasher);
     }
 
-    ClassLoaderCache createClassLoaderCache(HashingClassLoaderFactory classLoaderFactory, ClasspathHasher classpathHasher) {
-        return new DefaultClassLoaderCache(classLoaderFactory, classpathHasher);
+    ClassLoaderCache createClassLoaderCache(HashingClassLoaderFactory classLoaderFactory, ClasspathHasher classpathHasher, WellKnownFileLocations wellKnownFileLocations) {
+        return new DefaultClassLoaderCache(classLoaderFactory, classpathHasher, wellKnownFileLocations);
     }
 
     CachedClasspathTransformer createCachedClasspathTransformer(CacheRepository cacheRepository, FileHasher fileHasher, FileAccessTimeJournal fileAccessTimeJournal,
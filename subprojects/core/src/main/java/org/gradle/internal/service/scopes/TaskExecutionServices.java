@@ -17,6 +17,7 @@ package org.gradle.internal.service.scopes;
 
 import com.google.common.collect.ImmutableList;
 import org.gradle.api.internal.cache.StringInterner;
+import org.gradle.api.internal.changedetection.state.DefaultFileFingerprintsStore;
 import org.gradle.api.internal.changedetection.state.DefaultTaskHistoryStore;
 import org.gradle.api.internal.changedetection.state.DefaultTaskOutputFilesRepository;
 import org.gradle.api.internal.changedetection.state.InMemoryCacheDecoratorFactory;
@@ -24,6 +25,8 @@ import org.gradle.api.internal.changedetection.state.TaskExecutionFingerprintSer
 import org.gradle.api.internal.changedetection.state.TaskHistoryCache;
 import org.gradle.api.internal.changedetection.state.TaskHistoryStore;
 import org.gradle.api.internal.changedetection.state.TaskOutputFilesRepository;
+import org.gradle.api.internal.file.delete.ParallelTreeDeleter;
+import org.gradle.api.internal.tasks.execution.InputFileSnapshotPrefetcher;
 import org.gradle.api.internal.tasks.timeout.DefaultTimeoutHandler;
 import org.gradle.api.internal.tasks.timeout.TimeoutHandler;
 import org.gradle.api.invocation.Gradle;
@@ -44,10 +47,12 @@ import org.gradle.internal.fingerprint.impl.DefaultHistoricalFileCollectionFinge
 import org.gradle.internal.fingerprint.impl.EmptyHistoricalFileCollectionFingerprint;
 import org.gradle.internal.fingerprint.impl.IgnoredPathCompareStrategy;
 import org.gradle.internal.fingerprint.impl.NormalizedPathFingerprintCompareStrategy;
+import org.gradle.internal.nativeintegration.filesystem.FileSystem;
 import org.gradle.internal.resources.ResourceLockCoordinationService;
 import org.gradle.internal.serialize.DefaultSerializerRegistry;
 import org.gradle.internal.serialize.SerializerRegistry;
 import org.gradle.internal.serialize.Serializers;
+import org.gradle.internal.snapshot.FileSystemSnapshotter;
 import org.gradle.internal.work.WorkerLeaseService;
 import org.gradle.util.GradleVersion;
 
@@ -68,16 +73,26 @@ public class TaskExecutionServices {
         return new DefaultTimeoutHandler(executorFactory.createScheduled("task timeouts", 1));
     }
 
+    InputFileSnapshotPrefetcher createInputFileSnapshotPrefetcher(FileSystemSnapshotter fileSystemSnapshotter, ExecutorFactory executorFactory, ParallelismConfigurationManager parallelismConfigurationManager,
+                                                                  WorkerLeaseService workerLeaseService, ResourceLockCoordinationService coordinationService) {
+        return new InputFileSnapshotPrefetcher(fileSystemSnapshotter, executorFactory.create("Input file snapshotter", parallelismConfigurationManager.getParallelismConfiguration().getMaxWorkerCount()), workerLeaseService, coordinationService);
+    }
+
+    ParallelTreeDeleter createStaleOutputDeleter(FileSystem fileSystem, ExecutorFactory executorFactory, ParallelismConfigurationManager parallelismConfigurationManager) {
+        return new ParallelTreeDeleter(fileSystem, executorFactory.create("Stale output deleter", parallelismConfigurationManager.getParallelismConfiguration().getMaxWorkerCount()));
+    }
+
     TaskHistoryStore createCacheAccess(Gradle gradle, CacheRepository cacheRepository, InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory) {
         return new DefaultTaskHistoryStore(gradle, cacheRepository, inMemoryCacheDecoratorFactory);
     }
 
     TaskHistoryCache createTaskHistoryCache(TaskHistoryStore taskHistoryStore, StringInterner stringInterner) {
+        DefaultFileFingerprintsStore fingerprintsStore = DefaultFileFingerprintsStore.isEnabled() ? new DefaultFileFingerprintsStore(taskHistoryStore, stringInterner) : null;
         SerializerRegistry serializerRegistry = new DefaultSerializerRegistry();
-        serializerRegistry.register(DefaultHistoricalFileCollectionFingerprint.class, new DefaultHistoricalFileCollectionFingerprint.SerializerImpl(stringInterner, FINGERPRINT_COMPARE_STRATEGIES));
+        serializerRegistry.register(DefaultHistoricalFileCollectionFingerprint.class, new DefaultHistoricalFileCollectionFingerprint.SerializerImpl(stringInterner, FINGERPRINT_COMPARE_STRATEGIES, fingerprintsStore));
         serializerRegistry.register(EmptyHistoricalFileCollectionFingerprint.class, Serializers.constant(EmptyHistoricalFileCollectionFingerprint.INSTANCE));
         TaskExecutionFingerprintSerializer serializer = new TaskExecutionFingerprintSerializer(serializerRegistry.build(HistoricalFileCollectionFingerprint.class));
-        return new TaskHistoryCache(taskHistoryStore, serializer);
+        return new TaskHistoryCache(taskHistoryStore, serializer, fingerprintsStore);
     }
 
     TaskOutputFilesRepository createTaskOutputFilesRepository(CacheRepository cacheRepository, Gradle gradle, InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory) {
@@ -21,6 +21,7 @@ import org.gradle.api.Action
 import org.gradle.api.NonExtensible
 import org.gradle.api.plugins.ExtensionAware
 import org.gradle.internal.BiAction
+import org.gradle.internal.hash.HashCode
 import org.gradle.internal.reflect.DirectInstantiator
 import org.gradle.internal.service.ServiceRegistry
 import org.gradle.internal.util.BiFunction
@@ -369,6 +370,124 @@ class AsmBackedClassGeneratorGroovyTest extends Specification {
         then:
         values == ["bar"]
     }
+
+    def "stores the bytecode of generated classes in the bytecode cache"() {
+        given:
+        def bytecodeCache = Mock(GeneratedBytecodeCache)
+        def cachingGenerator = new AsmBackedClassGenerator(bytecodeCache)
+
+        when:
+        def type = cachingGenerator.generate(BeanWithCachedBytecode)
+
+        then:
+        type.name == BeanWithCachedBytecode.name + AsmBackedClassGenerator.GENERATED_CLASS_SUFFIX
+        1 * bytecodeCache.load(_) >> null
+        1 * bytecodeCache.store(_, { it.length > 0 })
+        0 * bytecodeCache._
+
+        when:
+        def again = cachingGenerator.generate(BeanWithCachedBytecode)
+
+        then:
+        again == type
+        0 * bytecodeCache._
+    }
+
+    def "defines classes from the bytecode loaded from the bytecode cache"() {
+        given:
+        def bytecodeCache = Mock(GeneratedBytecodeCache)
+        def cachingGenerator = new AsmBackedClassGenerator(bytecodeCache)
+        HashCode key = null
+        byte[] bytecode = null
+
+        when:
+        cachingGenerator.generate(BeanWithLoadedBytecode)
+
+        then:
+        1 * bytecodeCache.load(_) >> { HashCode k -> key = k; null }
+        1 * bytecodeCache.store(_, _) >> { HashCode k, byte[] b -> bytecode = b }
+
+        when:
+        // Load the type again in another class loader, as a new process would, so that its class has not been generated yet
+        def isolatedType = new IsolatingClassLoader(BeanWithLoadedBytecode).loadClass(BeanWithLoadedBytecode.name)
+        def type = cachingGenerator.generate(isolatedType)
+
+        then:
+        1 * bytecodeCache.load(key) >> bytecode
+        0 * bytecodeCache._
+
+        and:
+        type.name == BeanWithLoadedBytecode.name + AsmBackedClassGenerator.GENERATED_CLASS_SUFFIX
+        type.superclass == isolatedType
+        type.classLoader == isolatedType.classLoader
+
+        when:
+        def bean = type.newInstance()
+        bean.prop = "value"
+
+        then:
+        bean.prop == "value"
+        bean instanceof DynamicObjectAware
+    }
+
+    def "does not block the generation of other classes while accessing the bytecode cache"() {
+        given:
+        def bytecodeCache = Mock(GeneratedBytecodeCache)
+        def cachingGenerator = new AsmBackedClassGenerator(bytecodeCache)
+        def generatedMeanwhile = []
+
+        when:
+        cachingGenerator.generate(BeanWithSlowCachedBytecode)
+
+        then:
+        1 * bytecodeCache.load(_) >> {
+            def other = Thread.start {
+                generatedMeanwhile << new AsmBackedClassGenerator().generate(BeanGeneratedMeanwhile)
+            }
+            other.join(10000)
+            return null
+        }
+        1 * bytecodeCache.store(_, _)
+        generatedMeanwhile.size() == 1
+    }
+}
+
+class BeanWithCachedBytecode {
+    String prop
+}
+
+class BeanWithLoadedBytecode {
+    String prop
+}
+
+class IsolatingClassLoader extends ClassLoader {
+    private final Class<?> isolatedType
+
+    IsolatingClassLoader(Class<?> isolatedType) {
+        super(isolatedType.classLoader)
+        this.isolatedType = isolatedType
+    }
+
+    @Override
+    protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (name != isolatedType.name) {
+            return super.loadClass(name, resolve)
+        }
+        def loadedClass = findLoadedClass(name)
+        if (loadedClass == null) {
+            byte[] classFile = getResourceAsStream(name.replace('.', '/') + ".class").bytes
+            loadedClass = defineClass(name, classFile, 0, classFile.length)
+        }
+        return loadedClass
+    }
+}
+
+class BeanWithSlowCachedBytecode {
+    String prop
+}
+
+class BeanGeneratedMeanwhile {
+    String prop
 }
 
 enum TestEnum {
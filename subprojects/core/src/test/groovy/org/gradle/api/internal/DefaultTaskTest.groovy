@@ -24,6 +24,7 @@ import org.gradle.api.Project
 import org.gradle.api.Task
 import org.gradle.api.internal.project.taskfactory.TaskIdentity
 import org.gradle.api.internal.tasks.ContextAwareTaskAction
+import org.gradle.api.internal.tasks.RunsWithoutProjectLock
 import org.gradle.api.logging.Logger
 import org.gradle.api.tasks.AbstractTaskTest
 import org.gradle.api.tasks.TaskExecutionException
@@ -535,6 +536,29 @@ class DefaultTaskTest extends AbstractTaskTest {
         then:
         task.logger == logger
     }
+
+    def "only task types annotated to run without the project lock do not require it"() {
+        expect:
+        task.projectLockRequired
+        !createTask(WithoutProjectLock, project, "withoutLock").projectLockRequired
+        createTask(ExtendsWithoutProjectLock, project, "extendsWithoutLock").projectLockRequired
+    }
+
+    def "task that runs without the project lock requires it when it has custom actions"() {
+        given:
+        def task = createTask(WithoutProjectLock, project, "withoutLock")
+
+        when:
+        task.doLast {}
+
+        then:
+        task.projectLockRequired
+    }
+
+    @RunsWithoutProjectLock
+    static class WithoutProjectLock extends DefaultTask {}
+
+    static class ExtendsWithoutProjectLock extends WithoutProjectLock {}
 }
 
 class TestConvention {
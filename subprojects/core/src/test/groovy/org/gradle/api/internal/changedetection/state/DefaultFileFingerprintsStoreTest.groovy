@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state
+
+import com.google.common.collect.ImmutableMultimap
+import com.google.common.collect.ImmutableSortedMap
+import org.gradle.api.Transformer
+import org.gradle.api.internal.cache.StringInterner
+import org.gradle.cache.PersistentIndexedCache
+import org.gradle.internal.file.FileType
+import org.gradle.internal.fingerprint.impl.AbsolutePathFingerprintCompareStrategy
+import org.gradle.internal.fingerprint.impl.DefaultFileSystemLocationFingerprint
+import org.gradle.internal.fingerprint.impl.DefaultHistoricalFileCollectionFingerprint
+import org.gradle.internal.fingerprint.impl.EmptyHistoricalFileCollectionFingerprint
+import org.gradle.internal.hash.HashCode
+import spock.lang.Specification
+
+class DefaultFileFingerprintsStoreTest extends Specification {
+    def caches = [:]
+    def taskHistoryStore = Stub(TaskHistoryStore) {
+        createCache(_ as String, _, _, _, _) >> { args -> caches[args[0]] = new MapBackedCache() }
+    }
+    def store = new DefaultFileFingerprintsStore(taskHistoryStore, new StringInterner())
+
+    def "stores identical file fingerprints once"() {
+        def first = fingerprint("/a")
+        def second = fingerprint("/a")
+
+        when:
+        store.retain(first)
+        store.retain(second)
+
+        then:
+        first.storedFingerprintsHash != null
+        first.storedFingerprintsHash == second.storedFingerprintsHash
+        caches.fileFingerprints.entries.size() == 1
+        caches.fileFingerprintReferences.entries[first.storedFingerprintsHash] == 2
+        store.load(first.storedFingerprintsHash) != null
+    }
+
+    def "removes file fingerprints once no longer referenced"() {
+        def first = fingerprint("/a")
+        def second = fingerprint("/a")
+        store.retain(first)
+        store.retain(second)
+
+        when:
+        store.release(first)
+
+        then:
+        store.load(first.storedFingerprintsHash) != null
+
+        when:
+        store.release(second)
+
+        then:
+        store.load(first.storedFingerprintsHash) == null
+        caches.fileFingerprintReferences.entries.isEmpty()
+    }
+
+    def "stores different file fingerprints separately"() {
+        def first = fingerprint("/a")
+        def second = fingerprint("/b")
+
+        when:
+        store.retain(first)
+        store.retain(second)
+
+        then:
+        first.storedFingerprintsHash != second.storedFingerprintsHash
+        caches.fileFingerprints.entries.size() == 2
+    }
+
+    def "file fingerprints are not available once their entry is missing"() {
+        def stored = fingerprint("/a")
+        store.retain(stored)
+
+        expect:
+        store.isAvailable(stored)
+        store.isAvailable(fingerprint("/b"))
+        store.isAvailable(EmptyHistoricalFileCollectionFingerprint.INSTANCE)
+
+        when:
+        caches.fileFingerprints.remove(stored.storedFingerprintsHash)
+
+        then:
+        !store.isAvailable(stored)
+    }
+
+    def "task history entry with missing stored output fingerprints reads as no history"() {
+        def taskHistoryCache = new TaskHistoryCache(taskHistoryStore, null, store)
+        def output = fingerprint("/out")
+        def input = fingerprint("/in")
+        def execution = Stub(HistoricalTaskExecution) {
+            getInputFingerprints() >> ImmutableSortedMap.of("input", input)
+            getOutputFingerprints() >> ImmutableSortedMap.of("output", output)
+        }
+        taskHistoryCache.put(":task", execution)
+
+        expect:
+        taskHistoryCache.get(":task") == execution
+
+        when:
+        caches.fileFingerprints.remove(input.storedFingerprintsHash)
+
+        then:
+        taskHistoryCache.get(":task") == execution
+
+        when:
+        caches.fileFingerprints.remove(output.storedFingerprintsHash)
+
+        then:
+        taskHistoryCache.get(":task") == null
+    }
+
+    def "ignores empty fingerprints"() {
+        when:
+        store.retain(EmptyHistoricalFileCollectionFingerprint.INSTANCE)
+        store.release(EmptyHistoricalFileCollectionFingerprint.INSTANCE)
+
+        then:
+        caches.fileFingerprints.entries.isEmpty()
+    }
+
+    private static DefaultHistoricalFileCollectionFingerprint fingerprint(String path) {
+        return new DefaultHistoricalFileCollectionFingerprint(
+            (path): new DefaultFileSystemLocationFingerprint(path, FileType.RegularFile, HashCode.fromInt(1234)),
+            AbsolutePathFingerprintCompareStrategy.INSTANCE,
+            ImmutableMultimap.of(path, HashCode.fromInt(1234))
+        )
+    }
+
+    private static class MapBackedCache<K, V> implements PersistentIndexedCache<K, V> {
+        final Map<K, V> entries = [:]
+
+        @Override
+        V get(K key) {
+            return entries[key]
+        }
+
+        @Override
+        V get(K key, Transformer<? extends V, ? super K> producer) {
+            return entries.computeIfAbsent(key) { producer.transform(key) }
+        }
+
+        @Override
+        void put(K key, V value) {
+            entries[key] = value
+        }
+
+        @Override
+        void remove(K key) {
+            entries.remove(key)
+        }
+    }
+}
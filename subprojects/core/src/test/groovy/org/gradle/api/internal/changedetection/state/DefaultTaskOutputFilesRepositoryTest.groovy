@@ -18,8 +18,13 @@ package org.gradle.api.internal.changedetection.state
 
 import org.gradle.api.internal.cache.StringInterner
 import org.gradle.api.internal.file.TestFiles
+import org.gradle.cache.AsyncCacheAccess
 import org.gradle.cache.CacheDecorator
+import org.gradle.cache.CrossProcessCacheAccess
+import org.gradle.cache.FileLock
+import org.gradle.cache.MultiProcessSafePersistentIndexedCache
 import org.gradle.cache.PersistentCache
+import org.gradle.cache.PersistentIndexedCacheParameters
 import org.gradle.internal.hash.TestFileHasher
 import org.gradle.internal.serialize.BaseSerializerFactory
 import org.gradle.internal.snapshot.WellKnownFileLocations
@@ -40,8 +45,13 @@ class DefaultTaskOutputFilesRepositoryTest extends Specification {
     public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
 
     def outputFiles = new InMemoryIndexedCache<String, Boolean>(BaseSerializerFactory.BOOLEAN_SERIALIZER)
+    PersistentIndexedCacheParameters cacheParameters
     def cacheAccess = Stub(PersistentCache) {
-        createCache(_) >> outputFiles
+        getBaseDir() >> tmpDir.createDir("cache")
+        createCache(_) >> { PersistentIndexedCacheParameters parameters ->
+            cacheParameters = parameters
+            outputFiles
+        }
     }
     def cacheDecorator = Mock(CacheDecorator)
     def inMemoryCacheDecoratorFactory = Stub(InMemoryCacheDecoratorFactory) {
@@ -72,6 +82,76 @@ class DefaultTaskOutputFilesRepositoryTest extends Specification {
         !repository.isGeneratedByGradle(file('build/not-existing'))
     }
 
+    def "remembers output files generated by Gradle in later builds"() {
+        def outputFile = tmpDir.createFile('build/file')
+        repository.recordOutputs([snapshotter.snapshot(outputFile)])
+
+        when:
+        repository.close()
+        def nextRepository = new DefaultTaskOutputFilesRepository(cacheAccess, inMemoryCacheDecoratorFactory)
+
+        then:
+        tmpDir.file("cache/outputFiles.bloom").assertIsFile()
+        nextRepository.isGeneratedByGradle(file('build/file'))
+        nextRepository.isGeneratedByGradle(file('build'))
+        !nextRepository.isGeneratedByGradle(file('build/other'))
+    }
+
+    def "queries the index when recorded paths were not stored"() {
+        def outputFile = tmpDir.createFile('build/file')
+        repository.recordOutputs([snapshotter.snapshot(outputFile)])
+        tmpDir.createFile("cache/outputFiles.bin")
+
+        when:
+        def nextRepository = new DefaultTaskOutputFilesRepository(cacheAccess, inMemoryCacheDecoratorFactory)
+
+        then:
+        nextRepository.isGeneratedByGradle(file('build/file'))
+        !nextRepository.isGeneratedByGradle(file('build/other'))
+    }
+
+    def "does not use stored recorded paths when the index changed since they were stored"() {
+        def outputFile = tmpDir.createFile('build/file')
+        repository.recordOutputs([snapshotter.snapshot(outputFile)])
+
+        when:
+        repository.close()
+        // Another process records an output without storing the recorded paths
+        outputFiles.put(file('build/other').path, Boolean.TRUE)
+        tmpDir.file("cache/outputFiles.bin").text = "changed"
+        def nextRepository = new DefaultTaskOutputFilesRepository(cacheAccess, inMemoryCacheDecoratorFactory)
+
+        then:
+        nextRepository.isGeneratedByGradle(file('build/file'))
+        nextRepository.isGeneratedByGradle(file('build/other'))
+    }
+
+    def "stops using recorded paths when another process changes the index"() {
+        def state = Stub(FileLock.State) {
+            canDetectChanges() >> true
+        }
+        def changedState = Stub(FileLock.State) {
+            canDetectChanges() >> true
+            hasBeenUpdatedSince(state) >> true
+        }
+        cacheDecorator.decorate(*_) >> Stub(MultiProcessSafePersistentIndexedCache)
+        def index = cacheParameters.cacheDecorator.decorate("id", "outputFiles", Stub(MultiProcessSafePersistentIndexedCache), Stub(CrossProcessCacheAccess), Stub(AsyncCacheAccess))
+
+        when:
+        index.afterLockAcquire(state)
+        index.beforeLockRelease(state)
+        outputFiles.put(file('build/other').path, Boolean.TRUE)
+
+        then:
+        !repository.isGeneratedByGradle(file('build/other'))
+
+        when:
+        index.afterLockAcquire(changedState)
+
+        then:
+        repository.isGeneratedByGradle(file('build/other'))
+    }
+
     private File file(String path) {
         tmpDir.file(path).absoluteFile
     }
@@ -227,6 +227,13 @@ class InputPropertiesSerializerTest extends Specification {
         copy.unknownReason.contains("lambda")
     }
 
+    def "encodes properties on their own"() {
+        def original = ImmutableMap.copyOf([a: string("x"), b: list(integer(1), integer(2))])
+
+        expect:
+        serializer.fromBytes(serializer.toBytes(original)) == original
+    }
+
     private ArrayValueSnapshot array(ValueSnapshot... elements) {
         return new ArrayValueSnapshot(elements)
     }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.delete
+
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.Requires
+import org.gradle.util.TestPrecondition
+import org.junit.Rule
+import spock.lang.Specification
+
+import static org.gradle.api.internal.file.TestFiles.fileSystem
+
+class ParallelTreeDeleterTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def deleter = new ParallelTreeDeleter(fileSystem(), new DefaultExecutorFactory().create("test", 4))
+
+    def cleanup() {
+        deleter.stop()
+    }
+
+    def "deletes files and directory trees"() {
+        def file = tmpDir.createFile("file")
+        def dir = tmpDir.createDir("dir")
+        (1..5).each { i ->
+            (1..20).each { j ->
+                dir.createFile("sub$i/nested/file$j")
+            }
+        }
+
+        when:
+        deleter.delete([file, dir])
+
+        then:
+        file.assertDoesNotExist()
+        dir.assertDoesNotExist()
+    }
+
+    def "ignores files which do not exist"() {
+        def missing = tmpDir.file("missing")
+        def file = tmpDir.createFile("file")
+
+        when:
+        deleter.delete([missing, file])
+
+        then:
+        file.assertDoesNotExist()
+    }
+
+    def "waits for the deletions already started when deleting a root fails"() {
+        def dir = tmpDir.createDir("dir")
+        (1..20).each { i ->
+            dir.createFile("sub$i/file")
+        }
+        def failure = new RuntimeException("broken")
+        def roots = [iterator: { ->
+            def files = [dir].iterator()
+            [hasNext: { true }, next: { if (files.hasNext()) { return files.next() }; throw failure }] as Iterator
+        }] as Iterable
+
+        when:
+        deleter.delete(roots)
+
+        then:
+        def e = thrown(RuntimeException)
+        e.is(failure)
+        (1..20).each { i ->
+            dir.file("sub$i/file").assertDoesNotExist()
+        }
+    }
+
+    @Requires([TestPrecondition.UNIX_DERIVATIVE])
+    def "does not follow symbolic links"() {
+        def target = tmpDir.createDir("target")
+        def keep = target.createFile("keep")
+        def dir = tmpDir.createDir("dir")
+        fileSystem().createSymbolicLink(dir.file("link"), target)
+
+        when:
+        deleter.delete([dir])
+
+        then:
+        dir.assertDoesNotExist()
+        keep.assertIsFile()
+    }
+}
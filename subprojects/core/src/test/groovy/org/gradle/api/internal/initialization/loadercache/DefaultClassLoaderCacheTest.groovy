@@ -21,6 +21,7 @@ import org.gradle.internal.classloader.FilteringClassLoader
 import org.gradle.internal.classpath.ClassPath
 import org.gradle.internal.classpath.DefaultClassPath
 import org.gradle.internal.hash.HashCode
+import org.gradle.internal.snapshot.WellKnownFileLocations
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
@@ -29,7 +30,8 @@ import spock.lang.Specification
 class DefaultClassLoaderCacheTest extends Specification {
 
     def classpathHasher = new FileClasspathHasher()
-    def cache = new DefaultClassLoaderCache(new DefaultHashingClassLoaderFactory(classpathHasher), classpathHasher)
+    def wellKnownFileLocations = Stub(WellKnownFileLocations)
+    def cache = new DefaultClassLoaderCache(new DefaultHashingClassLoaderFactory(classpathHasher), classpathHasher, wellKnownFileLocations)
     def id1 = new ClassLoaderId() {
         @Override
         String getDisplayName() { "id1" }
@@ -73,6 +75,38 @@ class DefaultClassLoaderCacheTest extends Specification {
         cache.get(id1, classPath("c1"), root, null).is cache.get(id2, classPath("c1"), root, null)
     }
 
+    def "class loaders are shared when immutable class paths in different locations have the same content"() {
+        def root = classLoader(classPath("root"))
+        def contentHash = HashCode.fromInt(100)
+        wellKnownFileLocations.isImmutable(_) >> true
+
+        expect:
+        cache.get(id1, classPath("c1"), root, null, contentHash).is cache.get(id2, classPath("copy/c1"), root, null, contentHash)
+        cache.size() == 1
+
+        when:
+        cache.remove(id1)
+
+        then:
+        cache.size() == 1 // still used by id2
+
+        when:
+        cache.remove(id2)
+
+        then:
+        cache.size() == 0
+    }
+
+    def "class loaders are not shared when mutable class paths in different locations have the same content"() {
+        def root = classLoader(classPath("root"))
+        def contentHash = HashCode.fromInt(100)
+        wellKnownFileLocations.isImmutable(_) >> false
+
+        expect:
+        !cache.get(id1, classPath("c1"), root, null, contentHash).is(cache.get(id2, classPath("copy/c1"), root, null, contentHash))
+        cache.size() == 2
+    }
+
     def "parents are respected"() {
         expect:
         def root1 = classLoader(classPath("root1"))
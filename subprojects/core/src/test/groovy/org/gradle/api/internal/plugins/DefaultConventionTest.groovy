@@ -16,8 +16,10 @@
 
 package org.gradle.api.internal.plugins
 
+import org.gradle.api.Action
 import org.gradle.api.internal.AsmBackedClassGenerator
 import org.gradle.api.internal.ClassGeneratorBackedInstantiator
+import org.gradle.api.internal.DefaultMutationGuard
 import org.gradle.api.reflect.HasPublicType
 import org.gradle.api.internal.ThreadGlobalInstantiator
 import org.gradle.api.plugins.Convention
@@ -167,6 +169,34 @@ class DefaultConventionTest {
         assert convention.schema["foo"] == typeOf(FooExtension)
     }
 
+    @Test void extensionsAndExtraPropertiesCannotBeAddedWhenTheMutationGuardDisallowsIt() {
+        def mutationGuard = new DefaultMutationGuard()
+        def guardedConvention = new DefaultConvention(instantiator, mutationGuard)
+
+        mutationGuard.withMutationDisabled({
+            try {
+                guardedConvention.add("foo", new FooExtension())
+                fail()
+            } catch (IllegalStateException e) {
+                assertThat(e.message, equalTo("ExtensionContainer#add on ${guardedConvention} cannot be executed in the current context.".toString()))
+            }
+            try {
+                guardedConvention.extraProperties.set("foo", "bar")
+                fail()
+            } catch (IllegalStateException e) {
+                assertThat(e.message, equalTo("ExtraPropertiesExtension#set on ${guardedConvention.extraProperties} cannot be executed in the current context.".toString()))
+            }
+        } as Action).execute(null)
+
+        assert guardedConvention.findByName("foo") == null
+        assert !guardedConvention.extraProperties.has("foo")
+
+        guardedConvention.add("foo", new FooExtension())
+        guardedConvention.extraProperties.set("foo", "bar")
+        assert guardedConvention.findByName("foo") instanceof FooExtension
+        assert guardedConvention.extraProperties.get("foo") == "bar"
+    }
+
     interface PublicExtensionType {
     }
 
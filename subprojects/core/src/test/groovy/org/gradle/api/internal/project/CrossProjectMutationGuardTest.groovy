@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.project
+
+import org.gradle.api.internal.MutationGuards
+import spock.lang.Specification
+
+class CrossProjectMutationGuardTest extends Specification {
+    def mutationState = Stub(ProjectState)
+    def project = Stub(ProjectInternal) {
+        getMutationState() >> mutationState
+        getPath() >> ":b"
+    }
+    def parallelProjectConfiguration = new ParallelProjectConfiguration(true)
+    def guard = new CrossProjectMutationGuard(project, parallelProjectConfiguration, MutationGuards.identity())
+
+    def "rejects mutation from another project while projects are configured in parallel"() {
+        given:
+        mutationState.hasOnlyMutableStateOfOtherProjects() >> true
+
+        when:
+        boolean allowed = true
+        parallelProjectConfiguration.configureInParallel {
+            allowed = guard.isMutationAllowed()
+            guard.assertMutationAllowed("create", "target", String)
+        }
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message.startsWith("String#create on target cannot be executed from another project while projects are configured in parallel.")
+        !allowed
+    }
+
+    def "allows mutation from another project once projects have been configured"() {
+        given:
+        mutationState.hasOnlyMutableStateOfOtherProjects() >> true
+        parallelProjectConfiguration.configureInParallel {}
+
+        when:
+        guard.assertMutationAllowed("create", "target", String)
+
+        then:
+        noExceptionThrown()
+        guard.isMutationAllowed()
+    }
+
+    def "allows mutation from the owning project while projects are configured in parallel"() {
+        given:
+        mutationState.hasOnlyMutableStateOfOtherProjects() >> false
+
+        expect:
+        parallelProjectConfiguration.configureInParallel {
+            guard.assertMutationAllowed("create", "target", String)
+            assert guard.isMutationAllowed()
+        }
+    }
+
+    def "does not guard against other projects when projects are not configured in parallel"() {
+        def delegate = MutationGuards.identity()
+
+        expect:
+        CrossProjectMutationGuard.of(project, new ParallelProjectConfiguration(false), delegate).is(delegate)
+        CrossProjectMutationGuard.of(project, parallelProjectConfiguration, delegate) instanceof CrossProjectMutationGuard
+    }
+}
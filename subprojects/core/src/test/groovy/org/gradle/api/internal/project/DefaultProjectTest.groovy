@@ -191,6 +191,7 @@ class DefaultProjectTest extends Specification {
         serviceRegistryMock.get(DependencyMetaDataProvider) >> dependencyMetaDataProviderMock
         serviceRegistryMock.get(FileResolver) >> Stub(FileResolver)
         serviceRegistryMock.get(Instantiator) >> instantiatorMock
+        serviceRegistryMock.get(ParallelProjectConfiguration) >> new ParallelProjectConfiguration(false)
         serviceRegistryMock.get((Type) FileOperations) >> fileOperationsMock
         serviceRegistryMock.get((Type) ProviderFactory) >> propertyStateFactoryMock
         serviceRegistryMock.get((Type) ProcessOperations) >> processOperationsMock
@@ -30,6 +30,35 @@ class ProjectStateInternalSpec extends Specification {
         stateString { failed(new Error("bang")); configured() } == "FAILED (bang)"
     }
 
+    def "only one thread can claim the configuration of a project"() {
+        def state = new ProjectStateInternal()
+
+        expect:
+        state.startConfiguring()
+        state.configuringThread == Thread.currentThread()
+        !state.configuringOnOtherThread
+        !state.startConfiguring()
+
+        when:
+        def otherThreadClaimed = null
+        def otherThreadSeesConfiguration = null
+        Thread.start {
+            otherThreadClaimed = state.startConfiguring()
+            otherThreadSeesConfiguration = state.configuringOnOtherThread
+        }.join()
+
+        then:
+        !otherThreadClaimed
+        otherThreadSeesConfiguration
+
+        when:
+        state.configured()
+
+        then:
+        state.configuringThread == null
+        !state.startConfiguring()
+    }
+
     String stateString(@DelegatesTo(ProjectStateInternal) Closure closure) {
         def state = ConfigureUtil.configure(closure, new ProjectStateInternal())
         def matcher = state.toString() =~ /^project state '(.*?)'$/
@@ -29,7 +29,9 @@ import org.gradle.api.internal.AsmBackedClassGenerator
 import org.gradle.api.internal.GradleInternal
 import org.gradle.api.internal.TaskInternal
 import org.gradle.api.internal.project.BuildOperationCrossProjectConfigurator
+import org.gradle.api.internal.project.ParallelProjectConfiguration
 import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectState
 import org.gradle.api.internal.project.taskfactory.ITaskFactory
 import org.gradle.api.internal.project.taskfactory.TaskFactory
 import org.gradle.api.internal.project.taskfactory.TaskIdentity
@@ -76,7 +78,8 @@ class DefaultTaskContainerTest extends AbstractPolymorphicDomainObjectContainerS
         accessListener,
         new TaskStatistics(),
         buildOperationExecutor,
-        new BuildOperationCrossProjectConfigurator(buildOperationExecutor)
+        new BuildOperationCrossProjectConfigurator(buildOperationExecutor),
+        new ParallelProjectConfiguration(false)
     ).create()
 
     @Override
@@ -1929,6 +1932,39 @@ class DefaultTaskContainerTest extends AbstractPolymorphicDomainObjectContainerS
         ex.message == "The domain object 'obj' (DefaultTask) for this provider is no longer present in its container."
     }
 
+    def "rejects task creation from another project while projects are configured in parallel"() {
+        given:
+        def mutationState = Stub(ProjectState) {
+            hasOnlyMutableStateOfOtherProjects() >> true
+        }
+        def otherProject = Stub(ProjectInternal) {
+            getMutationState() >> mutationState
+            getPath() >> ":other"
+        }
+        def parallelProjectConfiguration = new ParallelProjectConfiguration(true)
+        def otherContainer = new DefaultTaskContainerFactory(
+            modelRegistry,
+            DirectInstantiator.INSTANCE,
+            taskFactory,
+            otherProject,
+            accessListener,
+            new TaskStatistics(),
+            buildOperationExecutor,
+            new BuildOperationCrossProjectConfigurator(buildOperationExecutor),
+            parallelProjectConfiguration
+        ).create()
+
+        when:
+        parallelProjectConfiguration.configureInParallel {
+            otherContainer.register("task")
+        }
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message.contains("cannot be executed from another project while projects are configured in parallel. Use a cross-project configuration block such as project(':other') {} instead.")
+        otherContainer.names.empty
+    }
+
     private ProjectInternal expectTaskLookupInOtherProject(final String projectPath, final String taskName, def task) {
         def otherProject = Mock(ProjectInternal)
         def otherTaskContainer = Mock(TaskContainerInternal)
@@ -17,6 +17,7 @@ package org.gradle.api.internal.tasks.execution
 
 import org.gradle.api.execution.TaskActionListener
 import org.gradle.api.internal.TaskInternal
+import org.gradle.api.internal.file.collections.ImmutableFileCollection
 import org.gradle.api.internal.tasks.TaskExecuter
 import org.gradle.api.internal.tasks.TaskExecutionContext
 import org.gradle.api.internal.tasks.TaskStateInternal
@@ -63,4 +64,39 @@ class ActionEventFiringTaskExecutorTest extends Specification {
         and:
         thrown IllegalStateException
     }
+
+    def "notifies about the declared output locations about to change"() {
+        def outputDir = new File("build/classes")
+        def localState = new File("build/tmp")
+        def taskProperties = Stub(TaskProperties) {
+            hasDeclaredOutputs() >> true
+            getOutputFiles() >> ImmutableFileCollection.of(outputDir)
+            getLocalStateFiles() >> ImmutableFileCollection.of(localState)
+            getDestroyableFiles() >> ImmutableFileCollection.of()
+        }
+        _ * task.hasTaskActions() >> true
+        _ * executionContext.taskProperties >> taskProperties
+
+        when:
+        executer.execute(task, state, executionContext)
+
+        then:
+        1 * internalListener.beforeTaskOutputChanged({ it as Set == [outputDir, localState] as Set })
+        0 * internalListener.beforeTaskOutputChanged()
+    }
+
+    def "notifies that any output may change when task does not declare outputs"() {
+        def taskProperties = Stub(TaskProperties) {
+            hasDeclaredOutputs() >> false
+        }
+        _ * task.hasTaskActions() >> true
+        _ * executionContext.taskProperties >> taskProperties
+
+        when:
+        executer.execute(task, state, executionContext)
+
+        then:
+        1 * internalListener.beforeTaskOutputChanged()
+        0 * internalListener.beforeTaskOutputChanged(_)
+    }
 }
@@ -26,11 +26,13 @@ import org.gradle.api.tasks.StopExecutionException
 import org.gradle.api.tasks.TaskExecutionException
 import org.gradle.groovy.scripts.ScriptSource
 import org.gradle.initialization.DefaultBuildCancellationToken
+import org.gradle.internal.Factory
 import org.gradle.internal.exceptions.DefaultMultiCauseException
 import org.gradle.internal.exceptions.MultiCauseException
 import org.gradle.internal.operations.BuildOperationContext
 import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.operations.RunnableBuildOperation
+import org.gradle.internal.resources.ProjectLeaseRegistry
 import org.gradle.internal.work.AsyncWorkTracker
 import org.gradle.logging.StandardOutputCapture
 import spock.lang.Specification
@@ -47,8 +49,9 @@ class ExecuteActionsTaskExecutorTest extends Specification {
     def standardOutputCapture = Mock(StandardOutputCapture)
     def buildOperationExecutor = Mock(BuildOperationExecutor)
     def asyncWorkTracker = Mock(AsyncWorkTracker)
+    def projectLeaseRegistry = Mock(ProjectLeaseRegistry)
 
-    def executer = new ExecuteActionsTaskExecuter(buildOperationExecutor, asyncWorkTracker, new DefaultBuildCancellationToken())
+    def executer = new ExecuteActionsTaskExecuter(buildOperationExecutor, asyncWorkTracker, new DefaultBuildCancellationToken(), projectLeaseRegistry)
 
     def setup() {
         ProjectInternal project = Mock(ProjectInternal)
@@ -56,6 +59,7 @@ class ExecuteActionsTaskExecutorTest extends Specification {
         task.getState() >> state
         project.getBuildScriptSource() >> scriptSource
         task.getStandardOutputCapture() >> standardOutputCapture
+        task.isProjectLockRequired() >> true
     }
 
     void noMoreInteractions() {
@@ -132,6 +136,37 @@ class ExecuteActionsTaskExecutorTest extends Specification {
         state.actionable
     }
 
+    def releasesProjectLockWhileExecutingActionsWhenTaskDoesNotRequireIt() {
+        given:
+        task.getTaskActions() >> [action1]
+        task.hasTaskActions() >> true
+
+        when:
+        executer.execute(task, state, executionContext)
+
+        then:
+        task.isProjectLockRequired() >> false
+        1 * projectLeaseRegistry.withoutProjectLock(_ as Factory) >> { args -> args[0].create() }
+        then:
+        1 * standardOutputCapture.start()
+        then:
+        1 * action1.contextualise(executionContext)
+        then:
+        1 * buildOperationExecutor.run(_ as RunnableBuildOperation) >> { args -> args[0].run(Stub(BuildOperationContext)) }
+        then:
+        1 * action1.execute(task)
+        then:
+        1 * action1.releaseContext()
+        then:
+        1 * asyncWorkTracker.waitForCompletion(_, true)
+        then:
+        1 * standardOutputCapture.stop()
+        then:
+        noMoreInteractions()
+
+        state.outcome == TaskExecutionOutcome.EXECUTED
+    }
+
     def executeDoesOperateOnNewActionListInstance() {
         given:
         interaction {
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.execution
+
+import com.google.common.collect.ImmutableSortedSet
+import org.gradle.api.internal.file.collections.ImmutableFileCollection
+import org.gradle.api.internal.tasks.TaskInputFilePropertySpec
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.concurrent.ParallelismConfigurationManagerFixture
+import org.gradle.internal.resources.DefaultResourceLockCoordinationService
+import org.gradle.internal.resources.ResourceLockCoordinationService
+import org.gradle.internal.snapshot.FileSystemSnapshotter
+import org.gradle.internal.work.DefaultWorkerLeaseService
+import org.gradle.internal.work.WorkerLeaseRegistry
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class InputFileSnapshotPrefetcherTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def fileSystemSnapshotter = Mock(FileSystemSnapshotter)
+    def executor = new DefaultExecutorFactory().create("test")
+    def coordinationService = new DefaultResourceLockCoordinationService()
+    def workerLeaseService = new DefaultWorkerLeaseService(coordinationService, new ParallelismConfigurationManagerFixture(true, 4))
+    def prefetcher = new InputFileSnapshotPrefetcher(fileSystemSnapshotter, executor, workerLeaseService, coordinationService)
+    def taskLease = workerLeaseService.getWorkerLease().start()
+
+    def cleanup() {
+        taskLease.leaseFinish()
+        prefetcher.stop()
+        workerLeaseService.stop()
+    }
+
+    def "snapshots each input file root once"() {
+        def classes = tmpDir.createDir("classes")
+        def jar = tmpDir.createFile("lib.jar")
+        def resources = tmpDir.createDir("resources")
+
+        when:
+        prefetcher.prefetch(taskProperties(property("classpath", classes, jar), property("resources", jar, resources)))
+
+        then:
+        1 * fileSystemSnapshotter.snapshot(classes)
+        1 * fileSystemSnapshotter.snapshot(jar)
+        1 * fileSystemSnapshotter.snapshot(resources)
+        0 * _
+    }
+
+    def "does not snapshot a single input file root up front"() {
+        when:
+        prefetcher.prefetch(taskProperties(property("classpath", tmpDir.createDir("classes"))))
+
+        then:
+        0 * fileSystemSnapshotter._
+    }
+
+    def "ignores failures to snapshot input file roots"() {
+        def classes = tmpDir.createDir("classes")
+        def resources = tmpDir.createDir("resources")
+
+        when:
+        prefetcher.prefetch(taskProperties(property("classpath", classes, resources)))
+
+        then:
+        1 * fileSystemSnapshotter.snapshot(classes) >> { throw new RuntimeException("broken") }
+        1 * fileSystemSnapshotter.snapshot(resources) >> { throw new RuntimeException("broken") }
+        noExceptionThrown()
+    }
+
+    def "does not snapshot input file roots when no worker lease is free"() {
+        def workerLease = Stub(WorkerLeaseRegistry.WorkerLease)
+        def workerLeaseRegistry = Stub(WorkerLeaseRegistry) {
+            getCurrentWorkerLease() >> workerLease
+        }
+        def busyCoordinationService = Stub(ResourceLockCoordinationService) {
+            withStateLock(_) >> false
+        }
+        def busyPrefetcher = new InputFileSnapshotPrefetcher(fileSystemSnapshotter, executor, workerLeaseRegistry, busyCoordinationService)
+
+        when:
+        busyPrefetcher.prefetch(taskProperties(property("classpath", tmpDir.createDir("classes"), tmpDir.createDir("resources"))))
+
+        then:
+        0 * fileSystemSnapshotter._
+    }
+
+    private TaskProperties taskProperties(TaskInputFilePropertySpec... properties) {
+        Stub(TaskProperties) {
+            getInputFileProperties() >> ImmutableSortedSet.copyOf(properties)
+        }
+    }
+
+    private TaskInputFilePropertySpec property(String name, File... files) {
+        Stub(TaskInputFilePropertySpec) {
+            getPropertyName() >> name
+            getPropertyFiles() >> ImmutableFileCollection.of(files)
+            compareTo(_) >> { TaskInputFilePropertySpec other -> name <=> other.propertyName }
+        }
+    }
+}
@@ -74,6 +74,32 @@ class ResolveBuildCacheKeyExecuterTest extends Specification {
         0 * _
     }
 
+    def "snapshots input file roots ahead of calculating build cache key"() {
+        def prefetcher = Mock(InputFileSnapshotPrefetcher)
+        def prefetchingExecuter = new ResolveBuildCacheKeyExecuter(delegate, buildOperationExecutor, false, prefetcher)
+
+        when:
+        prefetchingExecuter.execute(task, taskState, taskContext)
+
+        then:
+        1 * task.getIdentityPath() >> Path.path(":foo")
+        1 * taskContext.getTaskProperties() >> taskProperties
+        1 * prefetcher.prefetch(taskProperties)
+
+        then:
+        1 * taskContext.getTaskArtifactState() >> taskArtifactState
+        1 * taskArtifactState.calculateCacheKey() >> cacheKey
+
+        then:
+        1 * taskContext.getTaskProperties() >> taskProperties
+        1 * taskProperties.hasDeclaredOutputs() >> false
+        1 * taskContext.setBuildCacheKey(cacheKey)
+
+        then:
+        1 * delegate.execute(task, taskState, taskContext)
+        0 * _
+    }
+
     def "propagates exceptions if cache key cannot be calculated"() {
         def failure = new RuntimeException("Bad cache key")
 
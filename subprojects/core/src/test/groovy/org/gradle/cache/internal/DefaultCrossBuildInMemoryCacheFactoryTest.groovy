@@ -106,6 +106,69 @@ class DefaultCrossBuildInMemoryCacheFactoryTest extends ConcurrentSpec {
         0 * transformer._
     }
 
+    def "does not retain null values"() {
+        def a = new Object()
+        def transformer = Mock(Transformer)
+
+        given:
+        def cache = factory.newCache()
+        cache.put("b", a)
+
+        when:
+        def r1 = cache.get("a", transformer)
+        cache.put("b", null)
+
+        then:
+        r1 == null
+        cache.get("b") == null
+
+        and:
+        1 * transformer.transform("a") >> null
+        0 * transformer._
+
+        when:
+        def r2 = cache.get("a", transformer)
+
+        then:
+        r2 == a
+
+        and:
+        1 * transformer.transform("a") >> a
+        0 * transformer._
+    }
+
+    def "can read and replace entries while other threads create null entries"() {
+        def a = new Object()
+        def failures = new CopyOnWriteArrayList()
+
+        given:
+        def cache = factory.newCache()
+        def transformer = { String key -> key.startsWith("null") ? null : a } as Transformer
+
+        when:
+        async {
+            4.times { thread ->
+                start {
+                    try {
+                        100.times { i ->
+                            cache.get("null-" + i, transformer)
+                            cache.get("value-" + i, transformer)
+                            cache.put("replaced-" + i, thread % 2 == 0 ? null : a)
+                            cache.get("replaced-" + i)
+                        }
+                    } catch (Throwable t) {
+                        failures << t
+                    }
+                }
+            }
+        }
+
+        then:
+        failures.empty
+        cache.get("null-0") == null
+        cache.get("value-0") == a
+    }
+
     def "can get entries"() {
         def a = new Object()
         def b = new Object()
@@ -17,6 +17,7 @@
 package org.gradle.configuration.project
 
 import org.gradle.StartParameter
+import org.gradle.api.CircularReferenceException
 import org.gradle.api.ProjectConfigurationException
 import org.gradle.api.ProjectEvaluationListener
 import org.gradle.api.internal.GradleInternal
@@ -24,9 +25,12 @@ import org.gradle.api.internal.project.ProjectInternal
 import org.gradle.api.internal.project.ProjectState
 import org.gradle.api.internal.project.ProjectStateInternal
 import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.internal.resources.ProjectLeaseRegistry
 import org.gradle.util.Path
 import spock.lang.Specification
 
+import java.util.concurrent.CountDownLatch
+
 class LifecycleProjectEvaluatorTest extends Specification {
 
     private project = Mock(ProjectInternal)
@@ -34,7 +38,8 @@ class LifecycleProjectEvaluatorTest extends Specification {
     private listener = Mock(ProjectEvaluationListener)
     private delegate = Mock(ProjectEvaluator)
     private buildOperationExecutor = new TestBuildOperationExecutor()
-    private evaluator = new LifecycleProjectEvaluator(buildOperationExecutor, delegate)
+    private projectLeaseRegistry = Mock(ProjectLeaseRegistry)
+    private evaluator = new LifecycleProjectEvaluator(buildOperationExecutor, projectLeaseRegistry, delegate)
     private state = new ProjectStateInternal()
     private mutationState = Mock(ProjectState)
 
@@ -203,6 +208,64 @@ class LifecycleProjectEvaluatorTest extends Specification {
         }
     }
 
+    void "waits without holding project locks for a project that is being configured by another thread"() {
+        def claimed = new CountDownLatch(1)
+        def waiting = new CountDownLatch(1)
+        def configuringThread = Thread.start {
+            state.startConfiguring()
+            claimed.countDown()
+            waiting.await()
+            state.configured()
+        }
+        claimed.await()
+
+        when:
+        evaluate()
+
+        then:
+        1 * projectLeaseRegistry.withoutProjectLock(_ as Runnable) >> { Runnable action ->
+            waiting.countDown()
+            action.run()
+        }
+        0 * delegate._
+
+        and:
+        state.executed
+
+        cleanup:
+        configuringThread?.join()
+    }
+
+    void "reports threads waiting for each other's projects as a circular reference"() {
+        def otherProject = Mock(ProjectInternal)
+        def otherState = new ProjectStateInternal()
+        def claimed = new CountDownLatch(1)
+        def waiting = new CountDownLatch(1)
+        otherState.startConfiguring()
+        projectLeaseRegistry.withoutProjectLock(_ as Runnable) >> { Runnable action ->
+            waiting.countDown()
+            action.run()
+        }
+        def configuringThread = Thread.start {
+            state.startConfiguring()
+            claimed.countDown()
+            evaluator.evaluate(otherProject, otherState)
+            state.configured()
+        }
+        claimed.await()
+        waiting.await()
+
+        when:
+        evaluate()
+
+        then:
+        thrown(CircularReferenceException)
+
+        cleanup:
+        otherState.configured()
+        configuringThread?.join()
+    }
+
     private void evaluate() {
         evaluator.evaluate(project, state)
     }
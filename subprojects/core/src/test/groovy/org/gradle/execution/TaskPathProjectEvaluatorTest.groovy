@@ -17,14 +17,17 @@
 package org.gradle.execution
 
 import org.gradle.api.BuildCancelledException
+import org.gradle.api.internal.project.ParallelProjectConfiguration
 import org.gradle.api.internal.project.ProjectInternal
 import org.gradle.initialization.BuildCancellationToken
+import org.gradle.internal.operations.TestBuildOperationExecutor
 import spock.lang.Specification
 
 class TaskPathProjectEvaluatorTest extends Specification {
     private cancellationToken = Mock(BuildCancellationToken)
     private project = Mock(ProjectInternal)
-    private evaluator = new TaskPathProjectEvaluator(cancellationToken)
+    private buildOperationExecutor = new TestBuildOperationExecutor()
+    private evaluator = new TaskPathProjectEvaluator(cancellationToken, buildOperationExecutor, new ParallelProjectConfiguration(false))
 
     def "project configuration fails when cancelled"() {
         given:
@@ -60,4 +63,28 @@ class TaskPathProjectEvaluatorTest extends Specification {
         1 * child1.evaluate()
         0 * child2._
     }
+
+    def "configures parents before their children when configuring in parallel"() {
+        def parallelEvaluator = new TaskPathProjectEvaluator(cancellationToken, buildOperationExecutor, new ParallelProjectConfiguration(true))
+        def child = Mock(ProjectInternal)
+        def grandChild = Mock(ProjectInternal)
+        def evaluated = []
+
+        given:
+        project.subprojects >> [child, grandChild]
+        child.parent >> project
+        grandChild.parent >> child
+
+        when:
+        parallelEvaluator.configureHierarchy(project)
+
+        then:
+        (1.._) * project.evaluate() >> { evaluated << project }
+        (1.._) * child.evaluate() >> { evaluated << child }
+        1 * grandChild.evaluate() >> { evaluated << grandChild }
+
+        and:
+        evaluated.indexOf(project) < evaluated.indexOf(child)
+        evaluated.indexOf(child) < evaluated.indexOf(grandChild)
+    }
 }
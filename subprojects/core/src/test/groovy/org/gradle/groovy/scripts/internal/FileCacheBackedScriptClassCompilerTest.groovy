@@ -98,6 +98,36 @@ class FileCacheBackedScriptClassCompilerTest extends Specification {
 
         1 * scriptCompilationHandler.loadFromDir(source, _, classLoader, new File(localDir, 'classes'), new File(localDir, 'metadata'), operation, Script, classLoaderId) >> compiledScript
         0 * scriptCompilationHandler._
+
+        and:
+        compiler.statistics.requested == 1
+        compiler.statistics.remapped == 1
+        compiler.statistics.compiled == 0
+        compiler.statistics.hitRate == 0
+        compiler.statistics.remapRate == 100
+        compiler.statistics.compileRate == 0
+    }
+
+    def "counts scripts already cached for their location as hits"() {
+        when:
+        compiler.compile(source, classLoader, classLoaderId, operation, Script, verifier)
+
+        then:
+        1 * hasher.hash(source) >> HashCode.fromInt(0x0123)
+        1 * cacheRepository.cache({ it =~ "scripts-remapped/ScriptClassName/\\p{XDigit}+/TransformerId\\p{XDigit}+" }) >> localCacheBuilder
+        1 * localCacheBuilder.withInitializer(!null) >> localCacheBuilder
+        1 * localCacheBuilder.withDisplayName(!null) >> localCacheBuilder
+        1 * localCacheBuilder.open() >> localCache
+        0 * cacheRepository._
+        1 * scriptCompilationHandler.loadFromDir(source, _, classLoader, new File(localDir, 'classes'), new File(localDir, 'metadata'), operation, Script, classLoaderId) >> compiledScript
+
+        and:
+        compiler.statistics.requested == 1
+        compiler.statistics.remapped == 0
+        compiler.statistics.compiled == 0
+        compiler.statistics.hitRate == 100
+        compiler.statistics.remapRate == 0
+        compiler.statistics.compileRate == 0
     }
 
     def "compiles classes to cache directory when cache is invalid"() {
@@ -138,6 +168,14 @@ class FileCacheBackedScriptClassCompilerTest extends Specification {
         1 * scriptCompilationHandler.compileToDir({ it instanceof RemappingScriptSource }, classLoader, classesDir, metadataDir, operation, Script, verifier)
         1 * scriptCompilationHandler.loadFromDir(source, _, classLoader, localClassesDir, localMetadataDir, operation, Script, classLoaderId) >> compiledScript
         0 * scriptCompilationHandler._
+
+        and:
+        compiler.statistics.requested == 1
+        compiler.statistics.remapped == 1
+        compiler.statistics.compiled == 1
+        compiler.statistics.hitRate == 0
+        compiler.statistics.remapRate == 0
+        compiler.statistics.compileRate == 100
     }
 
     def "reports compilation progress even in case of a failure"() {
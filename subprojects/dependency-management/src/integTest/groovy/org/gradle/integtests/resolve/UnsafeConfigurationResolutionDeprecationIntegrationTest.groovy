@@ -228,4 +228,45 @@ class UnsafeConfigurationResolutionDeprecationIntegrationTest extends AbstractDe
         executer.withArguments("--parallel", "-I", "init-script.gradle")
         succeeds(":help")
     }
+
+    def "no deprecation warning when already resolved configuration is read from a non-gradle thread"() {
+        mavenRepo.module("test", "test-jar", "1.0").publish()
+
+        settingsFile << """
+            rootProject.name = "foo"
+            include(':bar')
+        """
+
+        buildFile << """
+            task resolve {
+                def thread = new Thread({
+                    println project(':bar').configurations.bar.files
+                })
+                doFirst {
+                    thread.start()
+                    thread.join()
+                }
+            }
+           
+            project(':bar') {
+                repositories {
+                    maven { url '${mavenRepo.uri}' }
+                }
+                
+                configurations {
+                    bar
+                }
+                
+                dependencies {
+                    bar "test:test-jar:1.0"
+                }
+
+                println configurations.bar.files
+            }    
+        """
+
+        expect:
+        executer.withArgument("--parallel")
+        succeeds(":resolve")
+    }
 }
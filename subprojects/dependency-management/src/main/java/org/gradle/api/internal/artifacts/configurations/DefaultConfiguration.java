@@ -55,6 +55,8 @@ import org.gradle.api.internal.CompositeDomainObjectSet;
 import org.gradle.api.internal.DefaultDomainObjectSet;
 import org.gradle.api.internal.DocumentationRegistry;
 import org.gradle.api.internal.DomainObjectContext;
+import org.gradle.api.internal.MutationGuard;
+import org.gradle.api.internal.MutationGuards;
 import org.gradle.api.internal.artifacts.ConfigurationResolver;
 import org.gradle.api.internal.artifacts.DefaultDependencyConstraintSet;
 import org.gradle.api.internal.artifacts.DefaultDependencySet;
@@ -206,6 +208,7 @@ public class DefaultConfiguration extends AbstractFileCollection implements Conf
     private final FileCollection intrinsicFiles;
 
     private final ProjectStateRegistry projectStateRegistry;
+    private final MutationGuard mutationGuard;
 
     private final DisplayName displayName;
 
@@ -226,7 +229,8 @@ public class DefaultConfiguration extends AbstractFileCollection implements Conf
                                 ImmutableAttributesFactory attributesFactory,
                                 RootComponentMetadataBuilder rootComponentMetadataBuilder,
                                 ProjectStateRegistry projectStateRegistry,
-                                DocumentationRegistry documentationRegistry
+                                DocumentationRegistry documentationRegistry,
+                                MutationGuard mutationGuard
 
     ) {
         this.identityPath = domainObjectContext.identityPath(name);
@@ -250,6 +254,7 @@ public class DefaultConfiguration extends AbstractFileCollection implements Conf
         this.intrinsicFiles = new ConfigurationFileCollection(Specs.<Dependency>satisfyAll());
         this.projectStateRegistry = projectStateRegistry;
         this.documentationRegistry = documentationRegistry;
+        this.mutationGuard = mutationGuard;
         this.resolutionLock = projectStateRegistry.newExclusiveOperationLock();
         this.resolvableDependencies = instantiator.newInstance(ConfigurationResolvableDependencies.class, this);
 
@@ -516,6 +521,11 @@ public class DefaultConfiguration extends AbstractFileCollection implements Conf
     private void resolveToStateOrLater(final InternalState requestedState) {
         assertIsResolvable();
 
+        if (isResolvedTo(requestedState)) {
+            // The results are already available, so there is no need to access the project, e.g. from a task action that runs without the project lock
+            return;
+        }
+
         if (!hasMutableProjectState()) {
             // We don't have mutable access to the project, so we throw a deprecation warning and then continue with
             // lenient locking to prevent deadlocks in user-managed threads.
@@ -531,6 +541,14 @@ public class DefaultConfiguration extends AbstractFileCollection implements Conf
         }
     }
 
+    private boolean isResolvedTo(InternalState requestedState) {
+        InternalState currentState = resolvedState;
+        if (currentState == ARTIFACTS_RESOLVED) {
+            return !dependenciesModified;
+        }
+        return currentState == GRAPH_RESOLVED && requestedState == GRAPH_RESOLVED && !dependenciesModified;
+    }
+
     private void resolveExclusively(InternalState requestedState) {
         resolutionLock.withLock(new Runnable() {
             @Override
@@ -839,7 +857,7 @@ public class DefaultConfiguration extends AbstractFileCollection implements Conf
         Factory<ResolutionStrategyInternal> childResolutionStrategy = resolutionStrategy != null ? Factories.constant(resolutionStrategy.copy()) : resolutionStrategyFactory;
         DefaultConfiguration copiedConfiguration = instantiator.newInstance(DefaultConfiguration.class, domainObjectContext, newName,
             configurationsProvider, resolver, listenerManager, metaDataProvider, childResolutionStrategy, projectAccessListener, projectFinder, fileCollectionFactory, buildOperationExecutor, instantiator, artifactNotationParser, capabilityNotationParser, attributesFactory,
-            rootComponentMetadataBuilder, projectStateRegistry, documentationRegistry);
+            rootComponentMetadataBuilder, projectStateRegistry, documentationRegistry, MutationGuards.identity());
         configurationsProvider.setTheOnlyConfiguration(copiedConfiguration);
         // state, cachedResolvedConfiguration, and extendsFrom intentionally not copied - must re-resolve copy
         // copying extendsFrom could mess up dependencies when copy was re-resolved
@@ -953,6 +971,7 @@ public class DefaultConfiguration extends AbstractFileCollection implements Conf
     }
 
     public void validateMutation(MutationType type) {
+        mutationGuard.assertMutationAllowed(type.toString(), this, Configuration.class);
         preventIllegalMutation(type);
         markAsModified(type);
         notifyChildren(type);
@@ -25,6 +25,8 @@ import org.gradle.api.capabilities.Capability;
 import org.gradle.api.internal.AbstractValidatingNamedDomainObjectContainer;
 import org.gradle.api.internal.DocumentationRegistry;
 import org.gradle.api.internal.DomainObjectContext;
+import org.gradle.api.internal.MutationGuard;
+import org.gradle.api.internal.MutationGuards;
 import org.gradle.api.internal.artifacts.ComponentSelectorConverter;
 import org.gradle.api.internal.artifacts.ConfigurationResolver;
 import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
@@ -39,6 +41,9 @@ import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.DefaultRootC
 import org.gradle.api.internal.artifacts.ivyservice.resolutionstrategy.DefaultResolutionStrategy;
 import org.gradle.api.internal.attributes.ImmutableAttributesFactory;
 import org.gradle.api.internal.file.FileCollectionFactory;
+import org.gradle.api.internal.project.CrossProjectMutationGuard;
+import org.gradle.api.internal.project.ParallelProjectConfiguration;
+import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.api.internal.project.ProjectStateRegistry;
 import org.gradle.api.internal.tasks.TaskResolver;
 import org.gradle.initialization.ProjectAccessListener;
@@ -70,6 +75,8 @@ public class DefaultConfigurationContainer extends AbstractValidatingNamedDomain
     private final ImmutableAttributesFactory attributesFactory;
     private final ProjectStateRegistry projectStateRegistry;
     private final DocumentationRegistry documentationRegistry;
+    private final MutationGuard mutationGuard;
+    private final MutationGuard configurationMutationGuard;
 
     private int detachedConfigurationDefaultNameCounter = 1;
     private final Factory<ResolutionStrategyInternal> resolutionStrategyFactory;
@@ -90,7 +97,8 @@ public class DefaultConfigurationContainer extends AbstractValidatingNamedDomain
                                          final ComponentSelectorConverter componentSelectorConverter,
                                          final DependencyLockingProvider dependencyLockingProvider,
                                          ProjectStateRegistry projectStateRegistry,
-                                         DocumentationRegistry documentationRegistry) {
+                                         DocumentationRegistry documentationRegistry,
+                                         ParallelProjectConfiguration parallelProjectConfiguration) {
         super(Configuration.class, instantiator, new Configuration.Namer());
         this.resolver = resolver;
         this.instantiator = instantiator;
@@ -113,13 +121,26 @@ public class DefaultConfigurationContainer extends AbstractValidatingNamedDomain
             }
         };
         this.rootComponentMetadataBuilder = new DefaultRootComponentMetadataBuilder(dependencyMetaDataProvider, componentIdentifierFactory, moduleIdentifierFactory, projectFinder, localComponentMetadataBuilder, this, projectStateRegistry, dependencyLockingProvider);
+        if (context instanceof ProjectInternal) {
+            ProjectInternal project = (ProjectInternal) context;
+            this.mutationGuard = CrossProjectMutationGuard.of(project, parallelProjectConfiguration, super.getMutationGuard());
+            this.configurationMutationGuard = CrossProjectMutationGuard.of(project, parallelProjectConfiguration, MutationGuards.identity());
+        } else {
+            this.mutationGuard = super.getMutationGuard();
+            this.configurationMutationGuard = MutationGuards.identity();
+        }
+    }
+
+    @Override
+    public MutationGuard getMutationGuard() {
+        return mutationGuard;
     }
 
     @Override
     protected Configuration doCreate(String name) {
         DefaultConfiguration configuration = instantiator.newInstance(DefaultConfiguration.class, context, name, this, resolver,
             listenerManager, dependencyMetaDataProvider, resolutionStrategyFactory, projectAccessListener, projectFinder,
-            fileCollectionFactory, buildOperationExecutor, instantiator, artifactNotationParser, capabilityNotationParser, attributesFactory, rootComponentMetadataBuilder, projectStateRegistry, documentationRegistry);
+            fileCollectionFactory, buildOperationExecutor, instantiator, artifactNotationParser, capabilityNotationParser, attributesFactory, rootComponentMetadataBuilder, projectStateRegistry, documentationRegistry, configurationMutationGuard);
         configuration.addMutationValidator(rootComponentMetadataBuilder.getValidator());
         return configuration;
     }
@@ -150,7 +171,7 @@ public class DefaultConfigurationContainer extends AbstractValidatingNamedDomain
             context, name, detachedConfigurationsProvider, resolver,
             listenerManager, dependencyMetaDataProvider, resolutionStrategyFactory, projectAccessListener, projectFinder,
             fileCollectionFactory, buildOperationExecutor, instantiator, artifactNotationParser, capabilityNotationParser, attributesFactory,
-            rootComponentMetadataBuilder.withConfigurationsProvider(detachedConfigurationsProvider), projectStateRegistry, documentationRegistry);
+            rootComponentMetadataBuilder.withConfigurationsProvider(detachedConfigurationsProvider), projectStateRegistry, documentationRegistry, MutationGuards.identity());
         DomainObjectSet<Dependency> detachedDependencies = detachedConfiguration.getDependencies();
         for (Dependency dependency : dependencies) {
             detachedDependencies.add(dependency.copy());
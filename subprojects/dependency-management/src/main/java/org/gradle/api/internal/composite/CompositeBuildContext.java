@@ -21,11 +21,25 @@ import org.gradle.api.artifacts.DependencySubstitution;
 import org.gradle.api.artifacts.ModuleVersionIdentifier;
 import org.gradle.api.artifacts.component.ProjectComponentIdentifier;
 import org.gradle.api.internal.artifacts.ivyservice.dependencysubstitution.DependencySubstitutionRules;
+import org.gradle.internal.Factory;
 import org.gradle.internal.Pair;
 
 import java.util.Set;
 
 public interface CompositeBuildContext extends DependencySubstitutionRules {
     void addAvailableModules(Set<Pair<ModuleVersionIdentifier, ProjectComponentIdentifier>> availableModules);
+
+    /**
+     * Registers modules that are only discovered the first time a module with one of the given names is substituted.
+     */
+    void addAvailableModulesOnDemand(Set<String> moduleNames, Factory<Set<Pair<ModuleVersionIdentifier, ProjectComponentIdentifier>>> availableModules);
+
+    /**
+     * Runs the given action on behalf of the discovery of the modules registered with {@link #addAvailableModulesOnDemand(Set, Factory)},
+     * for example to configure one of the builds on a worker thread. Rules queried by the action use the modules known so far, instead
+     * of waiting for the discovery to complete.
+     */
+    void runDuringModuleDiscovery(Runnable action);
+
     void registerSubstitution(Action<DependencySubstitution> substitutions);
 }
@@ -29,6 +29,9 @@ import org.gradle.api.internal.artifacts.dsl.dependencies.ProjectFinder
 import org.gradle.api.internal.artifacts.ivyservice.dependencysubstitution.DependencySubstitutionRules
 import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.LocalComponentMetadataBuilder
 import org.gradle.api.internal.file.FileCollectionFactory
+import org.gradle.api.internal.project.ParallelProjectConfiguration
+import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectState
 import org.gradle.api.internal.project.ProjectStateRegistry
 import org.gradle.api.internal.tasks.TaskResolver
 import org.gradle.initialization.ProjectAccessListener
@@ -70,7 +73,7 @@ class DefaultConfigurationContainerSpec extends Specification {
 
     private DefaultConfigurationContainer configurationContainer = new DefaultConfigurationContainer(resolver, instantiator, domainObjectContext, listenerManager, metaDataProvider,
         projectAccessListener, projectFinder, metaDataBuilder, fileCollectionFactory, globalSubstitutionRules, vcsMappingsInternal, componentIdentifierFactory, buildOperationExecutor, taskResolver,
-        immutableAttributesFactory, moduleIdentifierFactory, componentSelectorConverter, dependencyLockingProvider, projectStateRegistry, documentationRegistry)
+        immutableAttributesFactory, moduleIdentifierFactory, componentSelectorConverter, dependencyLockingProvider, projectStateRegistry, documentationRegistry, new ParallelProjectConfiguration(false))
 
     def "adds and gets"() {
         1 * domainObjectContext.identityPath("compile") >> Path.path(":build:compile")
@@ -134,4 +137,50 @@ class DefaultConfigurationContainerSpec extends Specification {
         detached.getDependencies().size() == 2
         detached.path == ":detachedConfiguration1"
     }
+
+    def "rejects mutations of configurations from another project while projects are configured in parallel"() {
+        given:
+        def mutationState = Stub(ProjectState) {
+            hasOnlyMutableStateOfOtherProjects() >> true
+        }
+        def project = Stub(ProjectInternal) {
+            getMutationState() >> mutationState
+            getPath() >> ":b"
+            identityPath(_) >> { String name -> Path.path(":b:$name") }
+            projectPath(_) >> { String name -> Path.path(":b:$name") }
+        }
+        def parallelProjectConfiguration = new ParallelProjectConfiguration(true)
+        def container = new DefaultConfigurationContainer(resolver, instantiator, project, listenerManager, metaDataProvider,
+            projectAccessListener, projectFinder, metaDataBuilder, fileCollectionFactory, globalSubstitutionRules, vcsMappingsInternal, componentIdentifierFactory, buildOperationExecutor, taskResolver,
+            immutableAttributesFactory, moduleIdentifierFactory, componentSelectorConverter, dependencyLockingProvider, projectStateRegistry, documentationRegistry, parallelProjectConfiguration)
+        def compile = container.create("compile")
+
+        when:
+        parallelProjectConfiguration.configureInParallel {
+            container.create("other")
+        }
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message.contains("cannot be executed from another project while projects are configured in parallel. Use a cross-project configuration block such as project(':b') {} instead.")
+        container.names == ["compile"] as SortedSet
+
+        when:
+        parallelProjectConfiguration.configureInParallel {
+            compile.dependencies.add(new DefaultExternalModuleDependency("group", "name", "version"))
+        }
+
+        then:
+        e = thrown(IllegalStateException)
+        e.message.startsWith("Configuration#dependencies on configuration ':b:compile' cannot be executed from another project while projects are configured in parallel.")
+        compile.dependencies.empty
+
+        when:
+        compile.dependencies.add(new DefaultExternalModuleDependency("group", "name", "version"))
+        container.create("other")
+
+        then:
+        compile.dependencies.size() == 1
+        container.names == ["compile", "other"] as SortedSet
+    }
 }
@@ -23,8 +23,11 @@ import org.gradle.api.file.FileVisitor;
 import org.gradle.api.file.RelativePath;
 import org.gradle.api.internal.file.DefaultFileVisitDetails;
 import org.gradle.api.specs.Spec;
+import org.gradle.internal.file.FileType;
+import org.gradle.internal.nativeintegration.filesystem.DirectoryEntry;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
@@ -39,7 +42,7 @@ public abstract class AbstractDirectoryWalker implements DirectoryWalker {
 
     @Override
     public void walkDir(File file, RelativePath path, FileVisitor visitor, Spec<? super FileTreeElement> spec, AtomicBoolean stopFlag, boolean postfix) {
-        File[] children = getChildren(file);
+        List<DirectoryEntry> children = getChildren(file);
         if (children == null) {
             if (file.isDirectory() && !file.canRead()) {
                 throw new GradleException(String.format("Could not list contents of directory '%s' as it is not readable.", file));
@@ -48,11 +51,11 @@ public abstract class AbstractDirectoryWalker implements DirectoryWalker {
             throw new GradleException(String.format("Could not list contents of '%s'.", file));
         }
         List<FileVisitDetails> dirs = new ArrayList<FileVisitDetails>();
-        for (int i = 0; !stopFlag.get() && i < children.length; i++) {
-            File child = children[i];
-            boolean isFile = child.isFile();
+        for (int i = 0; !stopFlag.get() && i < children.size(); i++) {
+            DirectoryEntry child = children.get(i);
+            boolean isFile = child.getType() == FileType.RegularFile;
             RelativePath childPath = path.append(isFile, child.getName());
-            FileVisitDetails details = new DefaultFileVisitDetails(child, childPath, stopFlag, fileSystem, fileSystem, !isFile);
+            FileVisitDetails details = new DefaultFileVisitDetails(new File(file, child.getName()), childPath, stopFlag, fileSystem, fileSystem, !isFile, child.getLastModified(), child.getLength());
             if (DirectoryFileTree.isAllowed(details, spec)) {
                 if (isFile) {
                     visitor.visitFile(details);
@@ -75,5 +78,11 @@ public abstract class AbstractDirectoryWalker implements DirectoryWalker {
         }
     }
 
-    protected abstract File[] getChildren(File file);
+    /**
+     * Lists the children of the given directory, along with their metadata so they do not need to be queried one by one.
+     */
+    @Nullable
+    protected List<DirectoryEntry> getChildren(File file) {
+        return fileSystem.listDir(file);
+    }
 }
@@ -18,15 +18,8 @@ package org.gradle.api.internal.file.collections;
 
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
 
-import java.io.File;
-
 public class DefaultDirectoryWalker extends AbstractDirectoryWalker {
     public DefaultDirectoryWalker(FileSystem fileSystem) {
         super(fileSystem);
     }
-
-    @Override
-    protected File[] getChildren(File file) {
-        return file.listFiles();
-    }
 }
@@ -16,21 +16,34 @@
 
 package org.gradle.api.internal.file.collections;
 
+import org.gradle.internal.nativeintegration.filesystem.DirectoryEntry;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
 
+import javax.annotation.Nullable;
 import java.io.File;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 
 public class ReproducibleDirectoryWalker extends AbstractDirectoryWalker {
     public ReproducibleDirectoryWalker(FileSystem fileSystem) {
         super(fileSystem);
     }
 
+    private static final Comparator<DirectoryEntry> FILE_ORDER = new Comparator<DirectoryEntry>() {
+        @Override
+        public int compare(DirectoryEntry o1, DirectoryEntry o2) {
+            // Same order as sorting the children as files, which depends on the case sensitivity of the platform
+            return new File(o1.getName()).compareTo(new File(o2.getName()));
+        }
+    };
+
+    @Nullable
     @Override
-    protected File[] getChildren(File file) {
-        File[] children = file.listFiles();
+    protected List<DirectoryEntry> getChildren(File file) {
+        List<DirectoryEntry> children = super.getChildren(file);
         if (children != null) {
-            Arrays.sort(children);
+            Collections.sort(children, FILE_ORDER);
         }
         return children;
     }
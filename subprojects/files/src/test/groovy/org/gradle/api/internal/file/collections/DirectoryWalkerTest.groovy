@@ -36,7 +36,7 @@ import java.util.concurrent.atomic.AtomicInteger
 class DirectoryWalkerTest extends AbstractDirectoryWalkerTest<DirectoryWalker> {
     @Override
     protected List<DirectoryWalker> getWalkers() {
-        return [new DefaultDirectoryWalker(), new Jdk7DirectoryWalker(), new ReproducibleDirectoryWalker()]
+        return [new DefaultDirectoryWalker(TestFiles.fileSystem()), new Jdk7DirectoryWalker(TestFiles.fileSystem()), new ReproducibleDirectoryWalker(TestFiles.fileSystem())]
     }
 
     // java.nio2 cannot access files with unicode characters when using single-byte non-unicode platform encoding
@@ -67,7 +67,7 @@ class DirectoryWalkerTest extends AbstractDirectoryWalkerTest<DirectoryWalker> {
 
         when:
         def visitedWithJdk7Walker = walkFiles(rootDir, new Jdk7DirectoryWalker())
-        def visitedWithDefaultWalker = walkFiles(rootDir, new DefaultDirectoryWalker())
+        def visitedWithDefaultWalker = walkFiles(rootDir, new DefaultDirectoryWalker(TestFiles.fileSystem()))
 
         then:
         visitedWithDefaultWalker.size() == 340
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.tasks.compile
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+import org.gradle.integtests.fixtures.executer.GradleContextualExecuter
+import org.gradle.test.fixtures.server.http.BlockingHttpServer
+import org.junit.Rule
+import spock.lang.IgnoreIf
+
+@IgnoreIf({ GradleContextualExecuter.parallel })
+// no point, always runs in parallel
+class JavaCompileWithoutProjectLockIntegrationTest extends AbstractIntegrationSpec {
+
+    @Rule
+    public final BlockingHttpServer blockingServer = new BlockingHttpServer()
+
+    def setup() {
+        blockingServer.start()
+
+        settingsFile << "include 'processor', 'a'"
+
+        // Calls back into the test from the compiler, so that the compilation of a source set blocks until the other one is compiled concurrently
+        file("processor/src/main/java/PingProcessor.java") << """
+            import java.net.URL;
+            import java.util.Set;
+            import javax.annotation.processing.AbstractProcessor;
+            import javax.annotation.processing.RoundEnvironment;
+            import javax.annotation.processing.SupportedAnnotationTypes;
+            import javax.annotation.processing.SupportedOptions;
+            import javax.lang.model.SourceVersion;
+            import javax.lang.model.element.TypeElement;
+
+            @SupportedAnnotationTypes("*")
+            @SupportedOptions("ping")
+            public class PingProcessor extends AbstractProcessor {
+                private boolean pinged;
+
+                @Override
+                public SourceVersion getSupportedSourceVersion() {
+                    return SourceVersion.latestSupported();
+                }
+
+                @Override
+                public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+                    if (!pinged) {
+                        pinged = true;
+                        try {
+                            new URL(processingEnv.getOptions().get("ping")).openStream().close();
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                    return false;
+                }
+            }
+        """
+        file("processor/src/main/resources/META-INF/services/javax.annotation.processing.Processor") << "PingProcessor"
+
+        buildFile << """
+            project(':processor') {
+                apply plugin: 'java'
+            }
+
+            project(':a') {
+                apply plugin: 'java'
+
+                sourceSets {
+                    other
+                }
+
+                dependencies {
+                    annotationProcessor project(':processor')
+                    otherAnnotationProcessor project(':processor')
+                }
+
+                compileJava.options.compilerArgs << "-Aping=${blockingServer.uri(':a:compileJava')}"
+                compileOtherJava.options.compilerArgs << "-Aping=${blockingServer.uri(':a:compileOtherJava')}"
+            }
+        """
+        file("a/src/main/java/Main.java") << "public class Main {}"
+        file("a/src/other/java/Other.java") << "public class Other {}"
+    }
+
+    def "compile tasks of the same project execute in parallel"() {
+        given:
+        executer.withArguments("--parallel", "--max-workers=2")
+
+        expect:
+        blockingServer.expectConcurrent(":a:compileJava", ":a:compileOtherJava")
+
+        succeeds ":a:compileJava", ":a:compileOtherJava"
+    }
+
+    def "compile tasks with custom actions of the same project execute serially"() {
+        given:
+        executer.withArguments("--parallel", "--max-workers=2")
+        buildFile << """
+            project(':a') {
+                compileJava.doLast { }
+                compileOtherJava.doLast { }
+            }
+        """
+
+        expect:
+        blockingServer.expect(":a:compileJava")
+        blockingServer.expect(":a:compileOtherJava")
+
+        succeeds ":a:compileJava", ":a:compileOtherJava"
+    }
+}
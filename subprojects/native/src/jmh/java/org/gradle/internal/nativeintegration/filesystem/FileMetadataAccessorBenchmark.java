@@ -38,6 +38,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -69,6 +71,7 @@ public class FileMetadataAccessorBenchmark {
     Path directoryPath;
     File realFile;
     Path realFilePath;
+    File populatedDirectory;
 
     @Setup
     public void prepare() throws IOException {
@@ -84,12 +87,25 @@ public class FileMetadataAccessorBenchmark {
         FileOutputStream fos = new FileOutputStream(realFile);
         fos.write(new byte[1024]);
         fos.close();
+
+        populatedDirectory = File.createTempFile("jmh", "populated");
+        populatedDirectory.delete();
+        populatedDirectory.mkdirs();
+        for (int i = 0; i < 100; i++) {
+            fos = new FileOutputStream(new File(populatedDirectory, "file" + i));
+            fos.write(new byte[i]);
+            fos.close();
+        }
     }
 
     @TearDown
     public void tearDown() {
         directory.delete();
         realFile.delete();
+        for (File child : populatedDirectory.listFiles()) {
+            child.delete();
+        }
+        populatedDirectory.delete();
     }
 
     @SuppressWarnings("unchecked")
@@ -112,6 +128,19 @@ public class FileMetadataAccessorBenchmark {
         bh.consume(getAccessor(accessorClassName).stat(realFilePath));
     }
 
+    @Benchmark
+    public void list_directory(Blackhole bh) {
+        bh.consume(getAccessor(accessorClassName).listDir(populatedDirectory));
+    }
+
+    @Benchmark
+    public void list_and_stat_directory_children(Blackhole bh) {
+        FileMetadataAccessor accessor = getAccessor(accessorClassName);
+        for (File child : populatedDirectory.listFiles()) {
+            bh.consume(accessor.stat(child));
+        }
+    }
+
     private static class NioFileMetadataAccessor implements FileMetadataAccessor {
 
         @Override
@@ -139,5 +168,19 @@ public class FileMetadataAccessorBenchmark {
                 return DefaultFileMetadata.missing();
             }
         }
+
+        @Override
+        public List<DirectoryEntry> listDir(File dir) {
+            File[] children = dir.listFiles();
+            if (children == null) {
+                return null;
+            }
+            List<DirectoryEntry> entries = new ArrayList<DirectoryEntry>(children.length);
+            for (File child : children) {
+                FileMetadataSnapshot stat = stat(child);
+                entries.add(new DirectoryEntry(child.getName(), stat.getType(), stat.getLastModified(), stat.getLength()));
+            }
+            return entries;
+        }
     }
 }
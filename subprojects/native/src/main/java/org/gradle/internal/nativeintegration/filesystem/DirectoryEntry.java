@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.nativeintegration.filesystem;
+
+import org.gradle.internal.file.FileMetadataSnapshot;
+import org.gradle.internal.file.FileType;
+
+/**
+ * An entry of a directory, together with the metadata read while listing the directory.
+ *
+ * <p>Unlike {@link FileMetadataAccessor#stat(java.io.File)}, the last modified time and length are reported for directories as well.</p>
+ */
+public class DirectoryEntry implements FileMetadataSnapshot {
+    private final String name;
+    private final FileType type;
+    private final long lastModified;
+    private final long length;
+
+    public DirectoryEntry(String name, FileType type, long lastModified, long length) {
+        this.name = name;
+        this.type = type;
+        this.lastModified = lastModified;
+        this.length = length;
+    }
+
+    public static DirectoryEntry missing(String name) {
+        return new DirectoryEntry(name, FileType.Missing, 0, 0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public FileType getType() {
+        return type;
+    }
+
+    @Override
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public long getLength() {
+        return length;
+    }
+}
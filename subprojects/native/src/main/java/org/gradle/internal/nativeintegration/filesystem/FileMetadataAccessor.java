@@ -18,11 +18,22 @@ package org.gradle.internal.nativeintegration.filesystem;
 
 import org.gradle.internal.file.FileMetadataSnapshot;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 
 public interface FileMetadataAccessor {
     FileMetadataSnapshot stat(File f);
     FileMetadataSnapshot stat(Path path) throws IOException;
+
+    /**
+     * Lists the children of the given directory together with their metadata, following symbolic links.
+     * Implementations read the metadata along with the directory listing where possible, which is cheaper than calling {@link #stat(File)} for each child.
+     *
+     * @return the children of the directory, or {@code null} if the directory cannot be listed.
+     */
+    @Nullable
+    List<DirectoryEntry> listDir(File dir);
 }
@@ -18,10 +18,20 @@ package org.gradle.internal.nativeintegration.filesystem;
 
 import org.gradle.internal.file.FileMetadataSnapshot;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.util.List;
 
 public interface Stat {
     int getUnixMode(File f) throws FileException;
 
     FileMetadataSnapshot stat(File f) throws FileException;
+
+    /**
+     * Lists the children of the given directory together with their metadata in one go.
+     *
+     * @return the children of the directory, or {@code null} if the directory cannot be listed.
+     */
+    @Nullable
+    List<DirectoryEntry> listDir(File dir) throws FileException;
 }
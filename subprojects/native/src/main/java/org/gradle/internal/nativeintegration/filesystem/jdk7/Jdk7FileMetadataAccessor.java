@@ -15,17 +15,25 @@
  */
 package org.gradle.internal.nativeintegration.filesystem.jdk7;
 
+import org.gradle.internal.IoActions;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.file.FileMetadataSnapshot;
 import org.gradle.internal.file.FileType;
 import org.gradle.internal.nativeintegration.filesystem.DefaultFileMetadata;
+import org.gradle.internal.nativeintegration.filesystem.DirectoryEntry;
 import org.gradle.internal.nativeintegration.filesystem.FileMetadataAccessor;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Jdk7FileMetadataAccessor implements FileMetadataAccessor {
     @Override
@@ -58,4 +66,49 @@ public class Jdk7FileMetadataAccessor implements FileMetadataAccessor {
         }
         return new DefaultFileMetadata(FileType.RegularFile, bfa.lastModifiedTime().toMillis(), bfa.size());
     }
+
+    @Nullable
+    @Override
+    public List<DirectoryEntry> listDir(File dir) {
+        DirectoryStream<Path> stream;
+        try {
+            stream = Files.newDirectoryStream(dir.toPath());
+        } catch (IOException e) {
+            return null;
+        }
+        try {
+            List<DirectoryEntry> entries = new ArrayList<DirectoryEntry>();
+            for (Path child : stream) {
+                entries.add(toDirectoryEntry(child));
+            }
+            return entries;
+        } catch (DirectoryIteratorException e) {
+            return null;
+        } finally {
+            IoActions.closeQuietly(stream);
+        }
+    }
+
+    private static DirectoryEntry toDirectoryEntry(Path child) {
+        String name = child.getFileName().toString();
+        try {
+            // On some platforms, the attributes have already been read along with the directory listing
+            BasicFileAttributes bfa = Files.readAttributes(child, BasicFileAttributes.class);
+            FileType type = bfa.isDirectory() ? FileType.Directory : FileType.RegularFile;
+            return new DirectoryEntry(name, type, bfa.lastModifiedTime().toMillis(), bfa.size());
+        } catch (NoSuchFileException e) {
+            // Removed since listing the directory, or a symbolic link pointing to nothing
+            return DirectoryEntry.missing(name);
+        } catch (IOException e) {
+            // For example, access denied. Fall back to the file API, which reports such files as neither file nor directory instead of failing
+            File file = child.toFile();
+            if (file.isFile()) {
+                return new DirectoryEntry(name, FileType.RegularFile, file.lastModified(), file.length());
+            }
+            if (file.isDirectory()) {
+                return new DirectoryEntry(name, FileType.Directory, file.lastModified(), file.length());
+            }
+            return DirectoryEntry.missing(name);
+        }
+    }
 }
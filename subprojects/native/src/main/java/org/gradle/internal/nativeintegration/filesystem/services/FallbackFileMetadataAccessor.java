@@ -17,12 +17,17 @@
 package org.gradle.internal.nativeintegration.filesystem.services;
 
 import org.gradle.internal.file.FileMetadataSnapshot;
+import org.gradle.internal.file.FileType;
 import org.gradle.internal.nativeintegration.filesystem.DefaultFileMetadata;
+import org.gradle.internal.nativeintegration.filesystem.DirectoryEntry;
 import org.gradle.internal.nativeintegration.filesystem.FileMetadataAccessor;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 public class FallbackFileMetadataAccessor implements FileMetadataAccessor {
     @Override
@@ -40,4 +45,20 @@ public class FallbackFileMetadataAccessor implements FileMetadataAccessor {
     public FileMetadataSnapshot stat(Path path) throws IOException {
         return stat(path.toFile());
     }
+
+    @Nullable
+    @Override
+    public List<DirectoryEntry> listDir(File dir) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return null;
+        }
+        List<DirectoryEntry> entries = new ArrayList<DirectoryEntry>(children.length);
+        for (File child : children) {
+            FileMetadataSnapshot stat = stat(child);
+            long lastModified = stat.getType() == FileType.Directory ? child.lastModified() : stat.getLastModified();
+            entries.add(new DirectoryEntry(child.getName(), stat.getType(), lastModified, stat.getLength()));
+        }
+        return entries;
+    }
 }
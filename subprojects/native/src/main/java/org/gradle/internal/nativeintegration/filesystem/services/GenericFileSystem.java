@@ -19,6 +19,7 @@ import com.google.common.base.Charsets;
 import com.google.common.io.Files;
 import org.apache.commons.io.FileUtils;
 import org.gradle.internal.file.FileMetadataSnapshot;
+import org.gradle.internal.nativeintegration.filesystem.DirectoryEntry;
 import org.gradle.internal.nativeintegration.filesystem.FileException;
 import org.gradle.internal.nativeintegration.filesystem.FileMetadataAccessor;
 import org.gradle.internal.nativeintegration.filesystem.FileModeAccessor;
@@ -28,8 +29,10 @@ import org.gradle.internal.nativeplatform.filesystem.FileSystem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 class GenericFileSystem implements FileSystem {
@@ -82,6 +85,12 @@ class GenericFileSystem implements FileSystem {
         return metadata.stat(f);
     }
 
+    @Nullable
+    @Override
+    public List<DirectoryEntry> listDir(File dir) throws FileException {
+        return metadata.listDir(dir);
+    }
+
     @Override
     public void chmod(File f, int mode) {
         try {
@@ -16,15 +16,22 @@
 
 package org.gradle.internal.nativeintegration.filesystem.services;
 
+import net.rubygrapefruit.platform.DirEntry;
 import net.rubygrapefruit.platform.FileInfo;
 import net.rubygrapefruit.platform.Files;
+import net.rubygrapefruit.platform.NativeException;
 import org.gradle.internal.file.FileMetadataSnapshot;
+import org.gradle.internal.file.FileType;
 import org.gradle.internal.nativeintegration.filesystem.DefaultFileMetadata;
+import org.gradle.internal.nativeintegration.filesystem.DirectoryEntry;
 import org.gradle.internal.nativeintegration.filesystem.FileMetadataAccessor;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 public class NativePlatformBackedFileMetadataAccessor implements FileMetadataAccessor {
     private final Files files;
@@ -52,4 +59,32 @@ public class NativePlatformBackedFileMetadataAccessor implements FileMetadataAcc
     public FileMetadataSnapshot stat(Path path) throws IOException {
         return stat(path.toFile());
     }
+
+    @Nullable
+    @Override
+    public List<DirectoryEntry> listDir(File dir) {
+        List<? extends DirEntry> children;
+        try {
+            children = files.listDir(dir, true);
+        } catch (NativeException e) {
+            return null;
+        }
+        List<DirectoryEntry> entries = new ArrayList<DirectoryEntry>(children.size());
+        for (DirEntry child : children) {
+            entries.add(toDirectoryEntry(child));
+        }
+        return entries;
+    }
+
+    private static DirectoryEntry toDirectoryEntry(DirEntry entry) {
+        switch (entry.getType()) {
+            case File:
+                return new DirectoryEntry(entry.getName(), FileType.RegularFile, entry.getLastModifiedTime(), entry.getSize());
+            case Directory:
+                return new DirectoryEntry(entry.getName(), FileType.Directory, entry.getLastModifiedTime(), entry.getSize());
+            default:
+                // A symbolic link pointing to nothing, or something which is neither a file nor a directory
+                return DirectoryEntry.missing(entry.getName());
+        }
+    }
 }
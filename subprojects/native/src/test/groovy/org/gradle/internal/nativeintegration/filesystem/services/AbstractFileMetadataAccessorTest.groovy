@@ -77,4 +77,46 @@ abstract class AbstractFileMetadataAccessorTest extends Specification {
         stat.lastModified == lastModified(file)
         stat.length == 3
     }
+
+    def "lists directory"() {
+        def dir = tmpDir.file("dir").createDir()
+        def file = dir.file("file")
+        file.text = "123"
+        def subDir = dir.file("subdir").createDir()
+
+        expect:
+        def entries = accessor.listDir(dir).sort { it.name }
+        entries*.name == ["file", "subdir"]
+        entries[0].type == FileType.RegularFile
+        entries[0].lastModified == lastModified(file)
+        entries[0].length == 3
+        entries[1].type == FileType.Directory
+        entries[1].lastModified == lastModified(subDir)
+    }
+
+    def "cannot list missing directory or regular file"() {
+        def file = tmpDir.file("file")
+        file.text = "123"
+
+        expect:
+        accessor.listDir(tmpDir.file("missing")) == null
+        accessor.listDir(file) == null
+    }
+
+    @Requires(TestPrecondition.SYMLINKS)
+    def "lists symlinks as their targets"() {
+        def dir = tmpDir.file("dir").createDir()
+        def file = tmpDir.file("file")
+        file.text = "123"
+        dir.file("link").createLink(file)
+        dir.file("broken").createLink(tmpDir.file("missing"))
+
+        expect:
+        def entries = accessor.listDir(dir).sort { it.name }
+        entries*.name == ["broken", "link"]
+        entries[0].type == FileType.Missing
+        entries[1].type == FileType.RegularFile
+        entries[1].lastModified == lastModified(file)
+        entries[1].length == 3
+    }
 }
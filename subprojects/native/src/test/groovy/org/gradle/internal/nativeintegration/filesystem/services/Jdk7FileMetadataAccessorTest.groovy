@@ -16,8 +16,11 @@
 
 package org.gradle.internal.nativeintegration.filesystem.services
 
+import org.gradle.internal.file.FileType
 import org.gradle.internal.nativeintegration.filesystem.FileMetadataAccessor
 import org.gradle.internal.nativeintegration.filesystem.jdk7.Jdk7FileMetadataAccessor
+import org.gradle.util.Requires
+import org.gradle.util.TestPrecondition
 import org.gradle.util.UsesNativeServices
 
 import java.nio.file.Files
@@ -34,4 +37,21 @@ class Jdk7FileMetadataAccessorTest extends AbstractFileMetadataAccessorTest {
     long lastModified(File file) {
         return Files.getFileAttributeView(file.toPath(), BasicFileAttributeView, LinkOption.NOFOLLOW_LINKS).readAttributes().lastModifiedTime().toMillis()
     }
+
+    @Requires(TestPrecondition.FILE_PERMISSIONS)
+    def "lists children whose attributes cannot be read"() {
+        def dir = tmpDir.createDir("dir")
+        dir.createFile("file")
+        dir.setMode(0444)
+
+        when:
+        def entries = accessor.listDir(dir)
+
+        then:
+        entries*.name == ["file"]
+        entries[0].type == FileType.Missing
+
+        cleanup:
+        dir.setMode(0755)
+    }
 }
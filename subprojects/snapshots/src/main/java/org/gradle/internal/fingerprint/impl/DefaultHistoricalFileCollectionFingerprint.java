@@ -20,6 +20,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Objects;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import org.gradle.api.internal.cache.StringInterner;
 import org.gradle.internal.changes.TaskStateChangeVisitor;
@@ -33,16 +34,28 @@ import org.gradle.internal.serialize.Encoder;
 import org.gradle.internal.serialize.HashCodeSerializer;
 import org.gradle.internal.serialize.Serializer;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 
+/**
+ * A fingerprint loaded from the task history.
+ *
+ * <p>When read from the history, only the compare strategy and the root hashes are decoded up front. The file fingerprints
+ * are kept in their serialized form, or left in the {@link FileFingerprintsStore} they are shared through, until they are needed.
+ * That is only the case when the root hashes differ from the current ones.</p>
+ */
 public class DefaultHistoricalFileCollectionFingerprint implements HistoricalFileCollectionFingerprint {
 
-    private final Map<String, FileSystemLocationFingerprint> fingerprints;
     private final FingerprintCompareStrategy compareStrategy;
     private final ImmutableMultimap<String, HashCode> rootHashes;
+    private Map<String, FileSystemLocationFingerprint> fingerprints;
+    private byte[] encodedFingerprints;
+    private HashCode storedFingerprintsHash;
+    private FileFingerprintsStore fingerprintsStore;
+    private FingerprintMapSerializer fingerprintMapSerializer;
 
     public DefaultHistoricalFileCollectionFingerprint(Map<String, FileSystemLocationFingerprint> fingerprints, FingerprintCompareStrategy compareStrategy, ImmutableMultimap<String, HashCode> rootHashes) {
         this.fingerprints = fingerprints;
@@ -50,6 +63,21 @@ public class DefaultHistoricalFileCollectionFingerprint implements HistoricalFil
         this.rootHashes = rootHashes;
     }
 
+    private DefaultHistoricalFileCollectionFingerprint(byte[] encodedFingerprints, FingerprintMapSerializer fingerprintMapSerializer, FingerprintCompareStrategy compareStrategy, ImmutableMultimap<String, HashCode> rootHashes) {
+        this.encodedFingerprints = encodedFingerprints;
+        this.fingerprintMapSerializer = fingerprintMapSerializer;
+        this.compareStrategy = compareStrategy;
+        this.rootHashes = rootHashes;
+    }
+
+    private DefaultHistoricalFileCollectionFingerprint(HashCode storedFingerprintsHash, FileFingerprintsStore fingerprintsStore, FingerprintMapSerializer fingerprintMapSerializer, FingerprintCompareStrategy compareStrategy, ImmutableMultimap<String, HashCode> rootHashes) {
+        this.storedFingerprintsHash = storedFingerprintsHash;
+        this.fingerprintsStore = fingerprintsStore;
+        this.fingerprintMapSerializer = fingerprintMapSerializer;
+        this.compareStrategy = compareStrategy;
+        this.rootHashes = rootHashes;
+    }
+
     @Override
     public boolean visitChangesSince(FileCollectionFingerprint oldFingerprint, String title, boolean includeAdded, TaskStateChangeVisitor visitor) {
         return compareStrategy.visitChangesSince(visitor, getFingerprints(), oldFingerprint.getFingerprints(), title, includeAdded);
@@ -61,10 +89,38 @@ public class DefaultHistoricalFileCollectionFingerprint implements HistoricalFil
     }
 
     @Override
-    public Map<String, FileSystemLocationFingerprint> getFingerprints() {
+    public synchronized Map<String, FileSystemLocationFingerprint> getFingerprints() {
+        if (fingerprints == null) {
+            byte[] encoded = encodedFingerprints != null ? encodedFingerprints : fingerprintsStore.load(storedFingerprintsHash);
+            // A missing entry makes the file fingerprints look changed, so the task is executed rather than wrongly considered up-to-date
+            fingerprints = encoded != null ? fingerprintMapSerializer.fromBytes(encoded) : ImmutableMap.<String, FileSystemLocationFingerprint>of();
+            encodedFingerprints = null;
+            fingerprintsStore = null;
+            fingerprintMapSerializer = null;
+        }
         return fingerprints;
     }
 
+    /**
+     * Returns the serialized file fingerprints when they have not been decoded yet.
+     */
+    @Nullable
+    private synchronized byte[] getEncodedFingerprints() {
+        return encodedFingerprints;
+    }
+
+    /**
+     * Returns the hash of the file fingerprints in the {@link FileFingerprintsStore}, or {@code null} when they have not been stored.
+     */
+    @Nullable
+    public synchronized HashCode getStoredFingerprintsHash() {
+        return storedFingerprintsHash;
+    }
+
+    public synchronized void setStoredFingerprintsHash(HashCode storedFingerprintsHash) {
+        this.storedFingerprintsHash = storedFingerprintsHash;
+    }
+
     @Override
     public ImmutableMultimap<String, HashCode> getRootHashes() {
         return rootHashes;
@@ -81,12 +137,22 @@ public class DefaultHistoricalFileCollectionFingerprint implements HistoricalFil
         private final StringInterner stringInterner;
         private final HashCodeSerializer hashCodeSerializer;
         private final BiMap<Integer, FingerprintCompareStrategy> compareStrategies;
+        private final FileFingerprintsStore fingerprintsStore;
 
         public SerializerImpl(StringInterner stringInterner, List<FingerprintCompareStrategy> compareStrategies) {
+            this(stringInterner, compareStrategies, null);
+        }
+
+        /**
+         * Creates a serializer that writes a reference to the file fingerprints in the given store instead of the fingerprints themselves.
+         * The file fingerprints need to be stored before a fingerprint is written, see {@link DefaultHistoricalFileCollectionFingerprint#getStoredFingerprintsHash()}.
+         */
+        public SerializerImpl(StringInterner stringInterner, List<FingerprintCompareStrategy> compareStrategies, @Nullable FileFingerprintsStore fingerprintsStore) {
             this.fingerprintMapSerializer = new FingerprintMapSerializer(stringInterner);
             this.stringInterner = stringInterner;
             this.hashCodeSerializer = new HashCodeSerializer();
             this.compareStrategies = mapStrategies(compareStrategies);
+            this.fingerprintsStore = fingerprintsStore;
         }
 
         private static BiMap<Integer, FingerprintCompareStrategy> mapStrategies(List<FingerprintCompareStrategy> compareStrategies) {
@@ -104,9 +170,13 @@ public class DefaultHistoricalFileCollectionFingerprint implements HistoricalFil
         public DefaultHistoricalFileCollectionFingerprint read(Decoder decoder) throws IOException {
             int type = decoder.readSmallInt();
             FingerprintCompareStrategy compareStrategy = compareStrategies.get(type);
-            Map<String, FileSystemLocationFingerprint> fingerprints = fingerprintMapSerializer.read(decoder);
             ImmutableMultimap<String, HashCode> rootHashes = readRootHashes(decoder);
-            return new DefaultHistoricalFileCollectionFingerprint(fingerprints, compareStrategy, rootHashes);
+            if (fingerprintsStore != null) {
+                HashCode storedFingerprintsHash = hashCodeSerializer.read(decoder);
+                return new DefaultHistoricalFileCollectionFingerprint(storedFingerprintsHash, fingerprintsStore, fingerprintMapSerializer, compareStrategy, rootHashes);
+            }
+            byte[] encodedFingerprints = decoder.readBinary();
+            return new DefaultHistoricalFileCollectionFingerprint(encodedFingerprints, fingerprintMapSerializer, compareStrategy, rootHashes);
         }
 
         private ImmutableMultimap<String, HashCode> readRootHashes(Decoder decoder) throws IOException {
@@ -126,8 +196,20 @@ public class DefaultHistoricalFileCollectionFingerprint implements HistoricalFil
         @Override
         public void write(Encoder encoder, DefaultHistoricalFileCollectionFingerprint value) throws Exception {
             encoder.writeSmallInt(compareStrategies.inverse().get(value.compareStrategy));
-            fingerprintMapSerializer.write(encoder, value.getFingerprints());
             writeRootHashes(encoder, value.getRootHashes());
+            if (fingerprintsStore != null) {
+                HashCode storedFingerprintsHash = value.getStoredFingerprintsHash();
+                if (storedFingerprintsHash == null) {
+                    throw new IllegalStateException("The file fingerprints need to be stored before writing a reference to them.");
+                }
+                hashCodeSerializer.write(encoder, storedFingerprintsHash);
+                return;
+            }
+            byte[] encodedFingerprints = value.getEncodedFingerprints();
+            if (encodedFingerprints == null) {
+                encodedFingerprints = fingerprintMapSerializer.toBytes(value.getFingerprints());
+            }
+            encoder.writeBinary(encodedFingerprints);
         }
 
         private void writeRootHashes(Encoder encoder, ImmutableMultimap<String, HashCode> rootHashes) throws IOException {
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.fingerprint.impl;
+
+import org.gradle.internal.hash.HashCode;
+
+import javax.annotation.Nullable;
+
+/**
+ * Content addressed storage for the file fingerprints of {@link DefaultHistoricalFileCollectionFingerprint}s,
+ * so that the same file fingerprints are stored only once even when they are part of the history of many tasks.
+ */
+public interface FileFingerprintsStore {
+    /**
+     * Loads the file fingerprints stored under the given hash, encoded with {@link FingerprintMapSerializer#toBytes(java.util.Map)}.
+     *
+     * @return the encoded file fingerprints, or {@code null} when there are none stored under the hash.
+     */
+    @Nullable
+    byte[] load(HashCode hash);
+}
@@ -21,11 +21,16 @@ import org.gradle.api.internal.cache.StringInterner;
 import org.gradle.internal.file.FileType;
 import org.gradle.internal.fingerprint.FileSystemLocationFingerprint;
 import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.serialize.AbstractSerializer;
 import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.Encoder;
 import org.gradle.internal.serialize.HashCodeSerializer;
+import org.gradle.internal.serialize.InputStreamBackedDecoder;
+import org.gradle.internal.serialize.OutputStreamBackedEncoder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -110,6 +115,29 @@ public class FingerprintMapSerializer extends AbstractSerializer<Map<String, Fil
         }
     }
 
+    /**
+     * Encodes the fingerprints on their own, so they can be stored separately from the rest of a fingerprint.
+     */
+    public byte[] toBytes(Map<String, FileSystemLocationFingerprint> value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputStreamBackedEncoder encoder = new OutputStreamBackedEncoder(bytes);
+        try {
+            write(encoder, value);
+            encoder.flush();
+        } catch (Exception e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public Map<String, FileSystemLocationFingerprint> fromBytes(byte[] bytes) {
+        try {
+            return read(new InputStreamBackedDecoder(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (!super.equals(obj)) {
@@ -22,18 +22,22 @@ import org.gradle.internal.snapshot.FileSystemMirror;
 import org.gradle.internal.snapshot.WellKnownFileLocations;
 
 import javax.annotation.Nullable;
+import java.io.File;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * See {@link DefaultFileSystemSnapshotter} for some more details
  */
 public class DefaultFileSystemMirror implements FileSystemMirror {
     // Maps from interned absolute path for a file to metadata for the file.
-    private final Map<String, FileMetadataSnapshot> metadata = new ConcurrentHashMap<String, FileMetadataSnapshot>();
+    // Sorted by path, so the entries below a changed output location can be found without looking at all entries.
+    private final NavigableMap<String, FileMetadataSnapshot> metadata = new ConcurrentSkipListMap<String, FileMetadataSnapshot>();
     private final Map<String, FileMetadataSnapshot> cacheMetadata = new ConcurrentHashMap<String, FileMetadataSnapshot>();
     // Maps from interned absolute path for a file to snapshot for the file.
-    private final Map<String, FileSystemLocationSnapshot> files = new ConcurrentHashMap<String, FileSystemLocationSnapshot>();
+    private final NavigableMap<String, FileSystemLocationSnapshot> files = new ConcurrentSkipListMap<String, FileSystemLocationSnapshot>();
     private final Map<String, FileSystemLocationSnapshot> cacheFiles = new ConcurrentHashMap<String, FileSystemLocationSnapshot>();
 
     private final WellKnownFileLocations wellKnownFileLocations;
@@ -82,11 +86,37 @@ public class DefaultFileSystemMirror implements FileSystemMirror {
 
     public void beforeTaskOutputChanged() {
         // When the task outputs are generated, throw away all state for files that do not live in an append-only cache.
-        // This is intentionally very simple, to be improved later
         metadata.clear();
         files.clear();
     }
 
+    /**
+     * Called when a task is about to change its outputs, where only files in the given locations can change.
+     * Throws away the state for these locations, for the files below them and for their ancestor directories.
+     * The state for all other files is kept.
+     */
+    public void beforeTaskOutputChanged(Iterable<File> outputLocations) {
+        for (File outputLocation : outputLocations) {
+            String changedPath = outputLocation.getAbsolutePath();
+            if (wellKnownFileLocations.isImmutable(changedPath)) {
+                continue;
+            }
+            invalidate(metadata, changedPath);
+            invalidate(files, changedPath);
+        }
+    }
+
+    private static void invalidate(NavigableMap<String, ?> entries, String changedPath) {
+        String descendantPrefix = changedPath.endsWith(File.separator) ? changedPath : changedPath + File.separatorChar;
+        String descendantsEnd = descendantPrefix.substring(0, descendantPrefix.length() - 1) + (char) (File.separatorChar + 1);
+        entries.subMap(descendantPrefix, true, descendantsEnd, false).clear();
+        File location = new File(changedPath);
+        while (location != null) {
+            entries.remove(location.getPath());
+            location = location.getParentFile();
+        }
+    }
+
     public void beforeBuildFinished() {
         // We throw away all state between builds
         metadata.clear();
@@ -281,6 +281,35 @@ class AbsolutePathFileCollectionFingerprinterTest extends Specification {
         0 * listener._
     }
 
+    def "consumer fingerprint reuses the snapshot taken after the producer executed when other outputs change"() {
+        given:
+        def fileHasher = Spy(TestFileHasher)
+        def consumerFingerprinter = new AbsolutePathFileCollectionFingerprinter(stringInterner, new DefaultFileSystemSnapshotter(fileHasher, stringInterner, TestFiles.fileSystem(), fileSystemMirror))
+        TestFile producerOutput = tmpDir.createDir('producer')
+        TestFile otherOutput = tmpDir.createDir('other')
+
+        and:
+        fileSystemMirror.beforeTaskOutputChanged([producerOutput])
+        producerOutput.createFile('file1') << "content"
+        def producerFingerprint = fingerprinter.fingerprint(files(producerOutput))
+        fileSystemMirror.beforeTaskOutputChanged([otherOutput])
+        otherOutput.createFile('file2') << "other"
+
+        when:
+        def consumerFingerprint = consumerFingerprinter.fingerprint(files(producerOutput))
+
+        then:
+        0 * fileHasher._
+        consumerFingerprint.fingerprints == producerFingerprint.fingerprints
+
+        when:
+        fileSystemMirror.beforeTaskOutputChanged([producerOutput.file('file1')])
+        consumerFingerprinter.fingerprint(files(producerOutput))
+
+        then:
+        (1.._) * fileHasher._
+    }
+
     private static void changes(FileCollectionFingerprint newFingerprint, FileCollectionFingerprint oldFingerprint, ChangeListener<String> listener) {
         newFingerprint.visitChangesSince(oldFingerprint, "TYPE", true) { FileChange change ->
             switch (change.type) {
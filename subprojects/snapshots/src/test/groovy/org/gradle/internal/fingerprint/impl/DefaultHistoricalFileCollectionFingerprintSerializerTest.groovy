@@ -92,4 +92,57 @@ class DefaultHistoricalFileCollectionFingerprintSerializerTest extends Serialize
         out.fingerprints.keySet() as List == ["/3", "/2", "/1"]
         out.rootHashes.keySet() as List == ["/3", "/2", "/1"]
     }
+
+    def "decodes file fingerprints only when they are accessed"() {
+        def rootHashes = ImmutableMultimap.of("/1", HashCode.fromInt(1234))
+        def bytes = toBytes(new DefaultHistoricalFileCollectionFingerprint(
+            "/1": new DefaultFileSystemLocationFingerprint('1', FileType.RegularFile, HashCode.fromInt(1234)),
+            AbsolutePathFingerprintCompareStrategy.INSTANCE, rootHashes
+        ), serializer)
+
+        when:
+        def out = fromBytes(bytes, serializer)
+
+        then:
+        out.rootHashes == rootHashes
+        out.@fingerprints == null
+
+        when:
+        def reserialized = toBytes(out, serializer)
+
+        then:
+        reserialized == bytes
+        out.@fingerprints == null
+
+        when:
+        def fingerprints = out.fingerprints
+
+        then:
+        fingerprints.keySet() as List == ["/1"]
+        toBytes(out, serializer) == bytes
+    }
+
+    def "writes a reference to stored file fingerprints"() {
+        def hash = HashCode.fromInt(5678)
+        def fingerprints = ["/1": new DefaultFileSystemLocationFingerprint('1', FileType.RegularFile, HashCode.fromInt(1234))]
+        def fingerprintsStore = Mock(FileFingerprintsStore)
+        def referencingSerializer = new DefaultHistoricalFileCollectionFingerprint.SerializerImpl(stringInterner, COMPARE_STRATEGIES, fingerprintsStore)
+        def fingerprint = new DefaultHistoricalFileCollectionFingerprint(fingerprints, AbsolutePathFingerprintCompareStrategy.INSTANCE, ImmutableMultimap.of("/1", HashCode.fromInt(1234)))
+        fingerprint.storedFingerprintsHash = hash
+
+        when:
+        def out = serialize(fingerprint, referencingSerializer)
+
+        then:
+        out.storedFingerprintsHash == hash
+        0 * fingerprintsStore._
+
+        when:
+        def loaded = out.fingerprints
+
+        then:
+        1 * fingerprintsStore.load(hash) >> new FingerprintMapSerializer(stringInterner).toBytes(fingerprints)
+        loaded.keySet() as List == ["/1"]
+        loaded["/1"].normalizedPath == "1"
+    }
 }
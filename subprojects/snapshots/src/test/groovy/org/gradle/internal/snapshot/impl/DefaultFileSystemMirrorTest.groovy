@@ -132,4 +132,51 @@ class DefaultFileSystemMirrorTest extends Specification {
         mirror.getMetadata(file.path) == null
         mirror.getSnapshot(file.path) == null
     }
+
+    def "keeps state about files unrelated to the task outputs which change"() {
+        def outputDir = tmpDir.file("build/classes")
+        def sourceDir = tmpDir.file("src/main/java")
+        def outputSnapshot = Stub(FileSystemLocationSnapshot)
+        def outputFileSnapshot = Stub(FileSystemLocationSnapshot)
+        def buildDirSnapshot = Stub(FileSystemLocationSnapshot)
+        def sourceSnapshot = Stub(FileSystemLocationSnapshot)
+        def metadata = Stub(FileMetadataSnapshot)
+
+        given:
+        _ * outputSnapshot.absolutePath >> outputDir.path
+        _ * outputFileSnapshot.absolutePath >> outputDir.file("some/Class.class").path
+        _ * buildDirSnapshot.absolutePath >> tmpDir.file("build").path
+        _ * sourceSnapshot.absolutePath >> sourceDir.path
+
+        when:
+        [outputSnapshot, outputFileSnapshot, buildDirSnapshot, sourceSnapshot].each { mirror.putSnapshot(it) }
+        mirror.putMetadata(outputDir.path, metadata)
+        mirror.putMetadata(sourceDir.path, metadata)
+        mirror.putMetadata(tmpDir.file("build/classes-other").path, metadata)
+        mirror.beforeTaskOutputChanged([outputDir])
+
+        then:
+        mirror.getSnapshot(outputDir.path) == null
+        mirror.getSnapshot(outputDir.file("some/Class.class").path) == null
+        mirror.getSnapshot(tmpDir.file("build").path) == null
+        mirror.getMetadata(outputDir.path) == null
+        mirror.getSnapshot(sourceDir.path) == sourceSnapshot
+        mirror.getMetadata(sourceDir.path) == metadata
+        mirror.getMetadata(tmpDir.file("build/classes-other").path) == metadata
+    }
+
+    def "discards snapshots of task outputs when any output may change"() {
+        def outputDir = tmpDir.file("build/classes")
+        def outputSnapshot = Stub(FileSystemLocationSnapshot)
+
+        given:
+        _ * outputSnapshot.absolutePath >> outputDir.path
+
+        when:
+        mirror.putSnapshot(outputSnapshot)
+        mirror.beforeTaskOutputChanged()
+
+        then:
+        mirror.getSnapshot(outputDir.path) == null
+    }
 }
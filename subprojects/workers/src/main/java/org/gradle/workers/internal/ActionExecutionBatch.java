@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.workers.internal;
+
+import org.gradle.internal.exceptions.Contextual;
+import org.gradle.internal.io.ClassLoaderObjectInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An {@link ActionExecutionSpec} that carries several work items of the same implementation class, so that they
+ * can be sent to a worker in a single request.
+ *
+ * <p>The parameters of all items are written to a single serialization stream. The stream is reset after each item,
+ * so that each item captures the state of its parameters when it is added, even when the same mutable object is
+ * passed to several items. Items can be added until the batch is sealed, which happens when it is sent to the
+ * worker or when its parameters are first read. {@link #getParams(ClassLoader)} returns one parameter array per item.</p>
+ */
+public class ActionExecutionBatch implements ActionExecutionSpec {
+    private final Class<? extends Runnable> implementationClass;
+    private final int maxItems;
+    private final List<String> itemDisplayNames = new ArrayList<String>();
+    private byte[] params;
+    private transient ByteArrayOutputStream buffer;
+    private transient ObjectOutputStream output;
+
+    public ActionExecutionBatch(Class<? extends Runnable> implementationClass, int maxItems) {
+        this.implementationClass = implementationClass;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Adds a work item to this batch, serializing its parameters in the calling thread.
+     *
+     * @return true if the item was added, false if this batch is sealed or full.
+     */
+    public synchronized boolean add(String displayName, Object[] itemParams) {
+        if (params != null || itemDisplayNames.size() >= maxItems) {
+            return false;
+        }
+        int mark = 0;
+        try {
+            if (output == null) {
+                buffer = new ByteArrayOutputStream();
+                output = new ObjectOutputStream(buffer);
+            }
+            output.flush();
+            mark = buffer.size();
+            output.writeObject(itemParams);
+            // Don't let a later item refer back to the state of an object written for this one
+            output.reset();
+            output.flush();
+        } catch (IOException e) {
+            // Keep the items written so far, and stop accepting new ones as the stream is now unusable
+            params = Arrays.copyOf(buffer.toByteArray(), mark);
+            buffer = null;
+            output = null;
+            throw new SerializingActionExecutionSpec.ParameterSerializationException("Could not serialize parameters", e);
+        }
+        itemDisplayNames.add(displayName);
+        return true;
+    }
+
+    /**
+     * Stops accepting new work items.
+     */
+    public synchronized void seal() {
+        if (params != null) {
+            return;
+        }
+        if (output == null) {
+            params = new byte[0];
+            return;
+        }
+        try {
+            output.close();
+        } catch (IOException e) {
+            throw new SerializingActionExecutionSpec.ParameterSerializationException("Could not serialize parameters", e);
+        }
+        params = buffer.toByteArray();
+        buffer = null;
+        output = null;
+    }
+
+    public synchronized boolean isSealed() {
+        return params != null;
+    }
+
+    public synchronized int size() {
+        return itemDisplayNames.size();
+    }
+
+    public synchronized List<String> getItemDisplayNames() {
+        return Collections.unmodifiableList(new ArrayList<String>(itemDisplayNames));
+    }
+
+    @Override
+    public Class<? extends Runnable> getImplementationClass() {
+        return implementationClass;
+    }
+
+    @Override
+    public synchronized String getDisplayName() {
+        if (itemDisplayNames.size() == 1) {
+            return itemDisplayNames.get(0);
+        }
+        return "batch of " + itemDisplayNames.size() + " work items (" + implementationClass.getName() + ")";
+    }
+
+    @Override
+    public Object[] getParams(ClassLoader classLoader) {
+        seal();
+        int itemCount = size();
+        Object[] items = new Object[itemCount];
+        if (itemCount == 0) {
+            return items;
+        }
+        try {
+            ObjectInputStream ois = new ClassLoaderObjectInputStream(new ByteArrayInputStream(params), classLoader);
+            for (int i = 0; i < itemCount; i++) {
+                items[i] = ois.readObject();
+            }
+        } catch (IOException e) {
+            throw new SerializingActionExecutionSpec.ParameterSerializationException("Could not deserialize parameters", e);
+        } catch (ClassNotFoundException e) {
+            throw new SerializingActionExecutionSpec.ParameterSerializationException("Could not deserialize parameters", e);
+        }
+        return items;
+    }
+
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        seal();
+        out.defaultWriteObject();
+    }
+
+    @Contextual
+    static class ItemExecutionException extends RuntimeException {
+        ItemExecutionException(String description, Throwable cause) {
+            super("A failure occurred while executing " + description, cause);
+        }
+    }
+}
@@ -16,9 +16,11 @@
 
 package org.gradle.workers.internal;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
 import org.gradle.api.Action;
 import org.gradle.api.Transformer;
+import org.gradle.concurrent.ParallelismConfiguration;
 import org.gradle.internal.classloader.ClasspathUtil;
 import org.gradle.internal.classloader.FilteringClassLoader;
 import org.gradle.internal.exceptions.Contextual;
@@ -45,10 +47,19 @@ import org.gradle.workers.WorkerExecutionException;
 import org.gradle.workers.WorkerExecutor;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Callable;
 
 public class DefaultWorkerExecutor implements WorkerExecutor {
+    /**
+     * When set to true, work items submitted with {@link IsolationMode#PROCESS} are coalesced into batches
+     * that are sent to a worker daemon in a single request.
+     */
+    public static final String BATCH_PROCESS_WORK_PROPERTY = "org.gradle.workers.internal.batch-process-work";
+    private static final int MAX_BATCH_SIZE = 64;
+
     private final ConditionalExecutionQueue<DefaultWorkResult> executionQueue;
     private final WorkerFactory daemonWorkerFactory;
     private final WorkerFactory isolatedClassloaderWorkerFactory;
@@ -58,10 +69,24 @@ public class DefaultWorkerExecutor implements WorkerExecutor {
     private final BuildOperationExecutor buildOperationExecutor;
     private final AsyncWorkTracker asyncWorkTracker;
     private final WorkerDirectoryProvider workerDirectoryProvider;
+    private final boolean batchProcessWork;
+    private final int maxWorkerCount;
+    private final Object batchLock = new Object();
+    private final List<OpenBatch> openBatches = new ArrayList<OpenBatch>();
 
     public DefaultWorkerExecutor(WorkerFactory daemonWorkerFactory, WorkerFactory isolatedClassloaderWorkerFactory, WorkerFactory noIsolationWorkerFactory,
                                  PathToFileResolver fileResolver, WorkerLeaseRegistry workerLeaseRegistry, BuildOperationExecutor buildOperationExecutor,
-                                 AsyncWorkTracker asyncWorkTracker, WorkerDirectoryProvider workerDirectoryProvider, WorkerExecutionQueueFactory workerExecutionQueueFactory) {
+                                 AsyncWorkTracker asyncWorkTracker, WorkerDirectoryProvider workerDirectoryProvider, WorkerExecutionQueueFactory workerExecutionQueueFactory,
+                                 ParallelismConfiguration parallelismConfiguration) {
+        this(daemonWorkerFactory, isolatedClassloaderWorkerFactory, noIsolationWorkerFactory, fileResolver, workerLeaseRegistry, buildOperationExecutor,
+            asyncWorkTracker, workerDirectoryProvider, workerExecutionQueueFactory, Boolean.getBoolean(BATCH_PROCESS_WORK_PROPERTY), parallelismConfiguration.getMaxWorkerCount());
+    }
+
+    @VisibleForTesting
+    DefaultWorkerExecutor(WorkerFactory daemonWorkerFactory, WorkerFactory isolatedClassloaderWorkerFactory, WorkerFactory noIsolationWorkerFactory,
+                          PathToFileResolver fileResolver, WorkerLeaseRegistry workerLeaseRegistry, BuildOperationExecutor buildOperationExecutor,
+                          AsyncWorkTracker asyncWorkTracker, WorkerDirectoryProvider workerDirectoryProvider, WorkerExecutionQueueFactory workerExecutionQueueFactory,
+                          boolean batchProcessWork, int maxWorkerCount) {
         this.daemonWorkerFactory = daemonWorkerFactory;
         this.isolatedClassloaderWorkerFactory = isolatedClassloaderWorkerFactory;
         this.noIsolationWorkerFactory = noIsolationWorkerFactory;
@@ -71,6 +96,8 @@ public class DefaultWorkerExecutor implements WorkerExecutor {
         this.buildOperationExecutor = buildOperationExecutor;
         this.asyncWorkTracker = asyncWorkTracker;
         this.workerDirectoryProvider = workerDirectoryProvider;
+        this.batchProcessWork = batchProcessWork;
+        this.maxWorkerCount = Math.max(1, maxWorkerCount);
     }
 
     @Override
@@ -85,6 +112,11 @@ public class DefaultWorkerExecutor implements WorkerExecutor {
             throw new WorkExecutionException(description + ": setting the working directory of a worker is not supported.");
         }
 
+        if (batchProcessWork && configuration.getIsolationMode() == IsolationMode.PROCESS) {
+            submitBatched(actionClass, description, configuration.getParams(), getDaemonForkOptions(actionClass, configuration));
+            return;
+        }
+
         // Serialize parameters in this thread prior to starting work in a separate thread
         ActionExecutionSpec spec;
         try {
@@ -99,9 +131,13 @@ public class DefaultWorkerExecutor implements WorkerExecutor {
     private void submit(final ActionExecutionSpec spec, final IsolationMode isolationMode, final DaemonForkOptions daemonForkOptions) {
         final WorkerLease currentWorkerWorkerLease = getCurrentWorkerLease();
         final BuildOperationRef currentBuildOperation = buildOperationExecutor.getCurrentOperation();
-        WorkerExecution execution = new WorkerExecution(spec.getDisplayName(), currentWorkerWorkerLease, new Callable<DefaultWorkResult>() {
+        WorkerExecution execution = new WorkerExecution(spec, currentWorkerWorkerLease, new Callable<DefaultWorkResult>() {
             @Override
             public DefaultWorkResult call() throws Exception {
+                if (spec instanceof ActionExecutionBatch) {
+                    // No more work can join the batch once it starts running
+                    ((ActionExecutionBatch) spec).seal();
+                }
                 try {
                     WorkerFactory workerFactory = getWorkerFactory(isolationMode);
                     Worker worker = workerFactory.getWorker(daemonForkOptions);
@@ -115,6 +151,47 @@ public class DefaultWorkerExecutor implements WorkerExecutor {
         asyncWorkTracker.registerWork(currentBuildOperation, execution);
     }
 
+    /**
+     * Adds the work item to a compatible batch that has not been sent to a worker yet, or queues a new batch for it.
+     *
+     * <p>A new batch is opened as long as there are fewer compatible batches waiting than there are workers, so that
+     * every worker that becomes free can pick up work. Once that many batches are waiting, the item joins the smallest
+     * of them, which spreads the backlog evenly over the workers instead of piling it onto a single one.
+     * Parameters are serialized in this thread, as for unbatched work.</p>
+     */
+    private void submitBatched(Class<? extends Runnable> actionClass, String description, Object[] params, DaemonForkOptions daemonForkOptions) {
+        WorkerLease currentWorkerLease = getCurrentWorkerLease();
+        BuildOperationRef currentBuildOperation = buildOperationExecutor.getCurrentOperation();
+        ActionExecutionBatch batch;
+        synchronized (batchLock) {
+            try {
+                OpenBatch smallest = null;
+                int waiting = 0;
+                Iterator<OpenBatch> iterator = openBatches.iterator();
+                while (iterator.hasNext()) {
+                    OpenBatch candidate = iterator.next();
+                    if (candidate.batch.isSealed()) {
+                        iterator.remove();
+                    } else if (candidate.accepts(actionClass, daemonForkOptions, currentWorkerLease, currentBuildOperation)) {
+                        waiting++;
+                        if (smallest == null || candidate.batch.size() < smallest.batch.size()) {
+                            smallest = candidate;
+                        }
+                    }
+                }
+                if (waiting >= maxWorkerCount && smallest.batch.add(description, params)) {
+                    return;
+                }
+                batch = new ActionExecutionBatch(actionClass, MAX_BATCH_SIZE);
+                batch.add(description, params);
+            } catch (Throwable t) {
+                throw new WorkExecutionException(description, t);
+            }
+            openBatches.add(new OpenBatch(batch, daemonForkOptions, currentWorkerLease, currentBuildOperation));
+        }
+        submit(batch, IsolationMode.PROCESS, daemonForkOptions);
+    }
+
     private WorkerLease getCurrentWorkerLease() {
         try {
             return workerLeaseRegistry.getCurrentWorkerLease();
@@ -146,6 +223,9 @@ public class DefaultWorkerExecutor implements WorkerExecutor {
     @Override
     public void await() throws WorkerExecutionException {
         BuildOperationRef currentOperation = buildOperationExecutor.getCurrentOperation();
+        synchronized (batchLock) {
+            openBatches.clear();
+        }
         try {
             if (asyncWorkTracker.hasUncompletedWork(currentOperation)) {
                 executionQueue.expand();
@@ -273,22 +353,43 @@ public class DefaultWorkerExecutor implements WorkerExecutor {
     }
 
     private static class WorkerExecution extends AbstractConditionalExecution<DefaultWorkResult> implements AsyncWorkCompletion {
-        private final String description;
+        private final ActionExecutionSpec spec;
 
-        public WorkerExecution(String description, WorkerLease parentWorkerLease, Callable<DefaultWorkResult> callable) {
+        public WorkerExecution(ActionExecutionSpec spec, WorkerLease parentWorkerLease, Callable<DefaultWorkResult> callable) {
             super(callable, new LazyChildWorkerLeaseLock(parentWorkerLease));
-            this.description = description;
+            this.spec = spec;
         }
 
         @Override
         public void waitForCompletion() {
             DefaultWorkResult result = await();
             if (!result.isSuccess()) {
-                throw new WorkExecutionException(description, result.getException());
+                throw new WorkExecutionException(spec.getDisplayName(), result.getException());
             }
         }
     }
 
+    private static class OpenBatch {
+        private final ActionExecutionBatch batch;
+        private final DaemonForkOptions daemonForkOptions;
+        private final WorkerLease workerLease;
+        private final BuildOperationRef buildOperation;
+
+        OpenBatch(ActionExecutionBatch batch, DaemonForkOptions daemonForkOptions, WorkerLease workerLease, BuildOperationRef buildOperation) {
+            this.batch = batch;
+            this.daemonForkOptions = daemonForkOptions;
+            this.workerLease = workerLease;
+            this.buildOperation = buildOperation;
+        }
+
+        boolean accepts(Class<?> actionClass, DaemonForkOptions daemonForkOptions, WorkerLease workerLease, BuildOperationRef buildOperation) {
+            return batch.getImplementationClass() == actionClass
+                && this.workerLease == workerLease
+                && this.buildOperation == buildOperation
+                && this.daemonForkOptions.isCompatibleWith(daemonForkOptions);
+        }
+    }
+
     private static class LazyChildWorkerLeaseLock implements ResourceLock {
         private final WorkerLease parentWorkerLease;
         private WorkerLease child;
@@ -17,9 +17,12 @@
 package org.gradle.workers.internal;
 
 import org.gradle.api.tasks.WorkResult;
+import org.gradle.internal.exceptions.DefaultMultiCauseException;
 import org.gradle.internal.reflect.Instantiator;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 public class DefaultWorkerServer implements WorkerProtocol {
@@ -32,9 +35,50 @@ public class DefaultWorkerServer implements WorkerProtocol {
 
     @Override
     public DefaultWorkResult execute(ActionExecutionSpec spec) {
+        if (spec instanceof ActionExecutionBatch) {
+            return executeBatch((ActionExecutionBatch) spec);
+        }
         try {
             Class<?> implementationClass = spec.getImplementationClass();
-            Object action = instantiator.newInstance(implementationClass, spec.getParams(implementationClass.getClassLoader()));
+            return execute(implementationClass, spec.getParams(implementationClass.getClassLoader()));
+        } catch (Throwable t) {
+            return new DefaultWorkResult(true, t);
+        }
+    }
+
+    private DefaultWorkResult executeBatch(ActionExecutionBatch batch) {
+        Class<?> implementationClass = batch.getImplementationClass();
+        Object[] items;
+        try {
+            items = batch.getParams(implementationClass.getClassLoader());
+        } catch (Throwable t) {
+            return new DefaultWorkResult(true, t);
+        }
+        if (items.length == 1) {
+            return execute(implementationClass, (Object[]) items[0]);
+        }
+        List<String> itemDisplayNames = batch.getItemDisplayNames();
+        List<Throwable> failures = new ArrayList<Throwable>();
+        boolean didWork = false;
+        for (int i = 0; i < items.length; i++) {
+            DefaultWorkResult result = execute(implementationClass, (Object[]) items[i]);
+            didWork |= result.getDidWork();
+            if (!result.isSuccess()) {
+                failures.add(new ActionExecutionBatch.ItemExecutionException(itemDisplayNames.get(i), result.getException()));
+            }
+        }
+        if (failures.isEmpty()) {
+            return new DefaultWorkResult(didWork, null);
+        } else if (failures.size() == 1) {
+            return new DefaultWorkResult(didWork, failures.get(0));
+        } else {
+            return new DefaultWorkResult(didWork, new DefaultMultiCauseException("Multiple work items of " + batch.getDisplayName() + " failed.", failures));
+        }
+    }
+
+    private DefaultWorkResult execute(Class<?> implementationClass, Object[] params) {
+        try {
+            Object action = instantiator.newInstance(implementationClass, params);
             if (action instanceof Runnable) {
                 ((Runnable) action).run();
                 return new DefaultWorkResult(true, null);
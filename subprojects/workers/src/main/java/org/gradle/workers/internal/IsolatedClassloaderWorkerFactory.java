@@ -43,6 +43,7 @@ import org.gradle.internal.serialize.ExceptionReplacingObjectOutputStream;
 import org.gradle.util.GUtil;
 import org.gradle.workers.IsolationMode;
 
+import javax.annotation.Nullable;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -55,11 +56,17 @@ public class IsolatedClassloaderWorkerFactory implements WorkerFactory {
 
     private final ClassLoaderFactory classLoaderFactory;
     private final BuildOperationExecutor buildOperationExecutor;
+    private final WorkerActionClassLoaderCache actionClassLoaderCache;
     private final GroovySystemLoaderFactory groovySystemLoaderFactory = new GroovySystemLoaderFactory();
 
     public IsolatedClassloaderWorkerFactory(ClassLoaderFactory classLoaderFactory, BuildOperationExecutor buildOperationExecutor) {
+        this(classLoaderFactory, buildOperationExecutor, null);
+    }
+
+    public IsolatedClassloaderWorkerFactory(ClassLoaderFactory classLoaderFactory, BuildOperationExecutor buildOperationExecutor, @Nullable WorkerActionClassLoaderCache actionClassLoaderCache) {
         this.classLoaderFactory = classLoaderFactory;
         this.buildOperationExecutor = buildOperationExecutor;
+        this.actionClassLoaderCache = actionClassLoaderCache;
     }
 
     @Override
@@ -93,9 +100,26 @@ public class IsolatedClassloaderWorkerFactory implements WorkerFactory {
     }
 
     private DefaultWorkResult executeInWorkerClassLoader(ActionExecutionSpec spec, DaemonForkOptions forkOptions) {
+        if (actionClassLoaderCache != null) {
+            ClassLoader actionFilteredClasspathLoader = actionClassLoaderCache.acquire(forkOptions.getClasspath(), forkOptions.getSharedPackages());
+            try {
+                return executeInWorkerClassLoader(spec, actionFilteredClasspathLoader);
+            } finally {
+                actionClassLoaderCache.release(actionFilteredClasspathLoader);
+            }
+        }
+
         ClassLoader actionClasspathLoader = createActionClasspathLoader(forkOptions);
         GroovySystemLoader actionClasspathGroovy = groovySystemLoaderFactory.forClassLoader(actionClasspathLoader);
-        ClassLoader workerClassLoader = createWorkerClassLoader(actionClasspathLoader, forkOptions.getSharedPackages(), spec.getClass());
+        try {
+            return executeInWorkerClassLoader(spec, createActionFilteredClasspathLoader(actionClasspathLoader, forkOptions.getSharedPackages()));
+        } finally {
+            actionClasspathGroovy.shutdown();
+        }
+    }
+
+    private DefaultWorkResult executeInWorkerClassLoader(ActionExecutionSpec spec, ClassLoader actionFilteredClasspathLoader) {
+        ClassLoader workerClassLoader = createWorkerClassLoader(actionFilteredClasspathLoader, spec.getClass());
 
         ClassLoader previousContextLoader = Thread.currentThread().getContextClassLoader();
         try {
@@ -106,7 +130,6 @@ public class IsolatedClassloaderWorkerFactory implements WorkerFactory {
         } catch (Exception e) {
             throw UncheckedException.throwAsUncheckedException(e);
         } finally {
-            actionClasspathGroovy.shutdown();
             Thread.currentThread().setContextClassLoader(previousContextLoader);
         }
     }
@@ -115,13 +138,15 @@ public class IsolatedClassloaderWorkerFactory implements WorkerFactory {
         return classLoaderFactory.createIsolatedClassLoader("worker-action-loader", DefaultClassPath.of(forkOptions.getClasspath()));
     }
 
-    private ClassLoader createWorkerClassLoader(ClassLoader actionClasspathLoader, Iterable<String> sharedPackages, Class<?> actionClass) {
+    private ClassLoader createActionFilteredClasspathLoader(ClassLoader actionClasspathLoader, Iterable<String> sharedPackages) {
         FilteringClassLoader.Spec actionFilterSpec = new FilteringClassLoader.Spec();
         for (String packageName : sharedPackages) {
             actionFilterSpec.allowPackage(packageName);
         }
-        ClassLoader actionFilteredClasspathLoader = classLoaderFactory.createFilteringClassLoader(actionClasspathLoader, actionFilterSpec);
+        return classLoaderFactory.createFilteringClassLoader(actionClasspathLoader, actionFilterSpec);
+    }
 
+    private ClassLoader createWorkerClassLoader(ClassLoader actionFilteredClasspathLoader, Class<?> actionClass) {
         FilteringClassLoader.Spec gradleApiFilterSpec = new FilteringClassLoader.Spec();
         // Logging
         gradleApiFilterSpec.allowPackage("org.slf4j");
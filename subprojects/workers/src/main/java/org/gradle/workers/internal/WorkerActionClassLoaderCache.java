@@ -0,0 +1,169 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.workers.internal;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Sets;
+import org.gradle.api.internal.classloading.GroovySystemLoaderFactory;
+import org.gradle.api.internal.initialization.ClassLoaderIds;
+import org.gradle.api.internal.initialization.loadercache.ClassLoaderCache;
+import org.gradle.api.internal.initialization.loadercache.ClassLoaderId;
+import org.gradle.internal.classloader.ClassLoaderFactory;
+import org.gradle.internal.classloader.ClasspathHasher;
+import org.gradle.internal.classloader.FilteringClassLoader;
+import org.gradle.internal.classpath.ClassPath;
+import org.gradle.internal.classpath.DefaultClassPath;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.hash.HashCode;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Caches the classloaders for the classpath of classloader isolated worker actions, so that work items with the same classpath
+ * and shared packages reuse the classes their tools have already loaded and JIT compiled.
+ *
+ * <p>The classloaders are created through the {@link ClassLoaderCache}, keyed by the classpath, its hash and the shared packages,
+ * so entries that only differ in their shared packages filter the same classpath classloader. Entries are reference counted
+ * while work items use them, and the least recently used idle entries are evicted once there are more than
+ * {@value #MAX_IDLE_ENTRIES} of them.</p>
+ *
+ * <p>This changes the semantics of {@link org.gradle.workers.IsolationMode#CLASSLOADER}: static state of the classes loaded for
+ * a work item survives to later work items with the same classpath, including those of later builds, instead of being discarded
+ * with the classloader at the end of each work item. It is therefore only used when enabled with the
+ * {@value #CACHE_CLASSLOADERS_PROPERTY} system property.</p>
+ */
+public class WorkerActionClassLoaderCache implements Stoppable {
+    public static final String CACHE_CLASSLOADERS_PROPERTY = "org.gradle.workers.internal.cache-classloaders";
+
+    static final int MAX_IDLE_ENTRIES = 8;
+
+    private final ClassLoaderCache classLoaderCache;
+    private final ClasspathHasher classpathHasher;
+    private final ClassLoaderFactory classLoaderFactory;
+    private final GroovySystemLoaderFactory groovySystemLoaderFactory = new GroovySystemLoaderFactory();
+    private final Object lock = new Object();
+    private final Map<ClassLoaderId, CachedClassLoader> entries = new LinkedHashMap<ClassLoaderId, CachedClassLoader>(16, 0.75f, true);
+
+    public WorkerActionClassLoaderCache(ClassLoaderCache classLoaderCache, ClasspathHasher classpathHasher, ClassLoaderFactory classLoaderFactory) {
+        this.classLoaderCache = classLoaderCache;
+        this.classpathHasher = classpathHasher;
+        this.classLoaderFactory = classLoaderFactory;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(CACHE_CLASSLOADERS_PROPERTY);
+    }
+
+    /**
+     * Returns the classloader for the given classpath, with only the given packages visible. The classloader must be handed back
+     * with {@link #release(ClassLoader)} once the work item is done with it.
+     */
+    public ClassLoader acquire(Iterable<File> classpath, Iterable<String> sharedPackages) {
+        ClassPath classPath = DefaultClassPath.of(classpath);
+        HashCode classpathHash = classpathHasher.hash(classPath);
+        Set<String> packages = Sets.newTreeSet(sharedPackages);
+        ClassLoaderId id = ClassLoaderIds.workerActionClasspath(classPath.getAsFiles().toString(), classpathHash.toString(), Joiner.on(',').join(packages));
+
+        synchronized (lock) {
+            CachedClassLoader entry = entries.get(id);
+            if (entry == null) {
+                FilteringClassLoader.Spec filterSpec = new FilteringClassLoader.Spec();
+                for (String packageName : packages) {
+                    filterSpec.allowPackage(packageName);
+                }
+                ClassLoader classLoader = classLoaderCache.get(id, classPath, classLoaderFactory.getIsolatedSystemClassLoader(), filterSpec, classpathHash);
+                entry = new CachedClassLoader(classLoader);
+                entries.put(id, entry);
+            }
+            entry.inUse++;
+            return entry.classLoader;
+        }
+    }
+
+    public void release(ClassLoader classLoader) {
+        synchronized (lock) {
+            for (CachedClassLoader entry : entries.values()) {
+                if (entry.classLoader == classLoader) {
+                    entry.inUse--;
+                    break;
+                }
+            }
+            evictIdleEntries();
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    private void evictIdleEntries() {
+        int idle = 0;
+        for (CachedClassLoader entry : entries.values()) {
+            if (entry.inUse == 0) {
+                idle++;
+            }
+        }
+        Iterator<Map.Entry<ClassLoaderId, CachedClassLoader>> iterator = entries.entrySet().iterator();
+        while (idle > MAX_IDLE_ENTRIES && iterator.hasNext()) {
+            Map.Entry<ClassLoaderId, CachedClassLoader> entry = iterator.next();
+            if (entry.getValue().inUse == 0) {
+                iterator.remove();
+                discard(entry.getKey(), entry.getValue());
+                idle--;
+            }
+        }
+    }
+
+    private void discard(ClassLoaderId id, CachedClassLoader entry) {
+        classLoaderCache.remove(id);
+        // The classpath loader may still be filtered by another entry
+        ClassLoader classpathLoader = entry.classLoader.getParent();
+        for (CachedClassLoader other : entries.values()) {
+            if (other.classLoader.getParent() == classpathLoader) {
+                return;
+            }
+        }
+        groovySystemLoaderFactory.forClassLoader(classpathLoader).shutdown();
+    }
+
+    @Override
+    public void stop() {
+        synchronized (lock) {
+            Iterator<Map.Entry<ClassLoaderId, CachedClassLoader>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<ClassLoaderId, CachedClassLoader> entry = iterator.next();
+                iterator.remove();
+                discard(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static class CachedClassLoader {
+        private final ClassLoader classLoader;
+        private int inUse;
+
+        CachedClassLoader(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+    }
+}
@@ -25,6 +25,8 @@ import org.gradle.api.logging.Logging;
 import org.gradle.api.specs.Spec;
 import org.gradle.initialization.SessionLifecycleListener;
 import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.event.ListenerManager;
 import org.gradle.internal.exceptions.DefaultMultiCauseException;
@@ -32,24 +34,37 @@ import org.gradle.internal.logging.LoggingManagerInternal;
 import org.gradle.internal.logging.events.LogLevelChangeEvent;
 import org.gradle.internal.logging.events.OutputEvent;
 import org.gradle.internal.logging.events.OutputEventListener;
+import org.gradle.internal.time.Time;
+import org.gradle.internal.time.Timer;
 import org.gradle.process.internal.health.memory.MemoryManager;
 import org.gradle.process.internal.health.memory.OsMemoryInfo;
 import org.gradle.process.internal.worker.WorkerProcess;
 import org.gradle.util.CollectionUtils;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class WorkerDaemonClientsManager implements Stoppable {
 
     private static final Logger LOGGER = Logging.getLogger(WorkerDaemonClientsManager.class);
+    private static final String PRESTART_PROPERTY_KEY = "org.gradle.workers.internal.prestart-daemons";
 
     private final Object lock = new Object();
     private final List<WorkerDaemonClient> allClients = new ArrayList<WorkerDaemonClient>();
     private final List<WorkerDaemonClient> idleClients = new ArrayList<WorkerDaemonClient>();
     private final Action<WorkerProcess> workerProcessCleanupAction = new WorkerProcessCleanupAction();
+    private final WorkerDaemonStatistics statistics = new WorkerDaemonStatistics();
+    private final Map<WorkerDaemonClient, PrestartRequest> sessionScopedClients = new LinkedHashMap<WorkerDaemonClient, PrestartRequest>();
+    private final List<PrestartRequest> prestartRequests = new ArrayList<PrestartRequest>();
+    private final List<Future<?>> pendingPrestarts = new ArrayList<Future<?>>();
 
     private final WorkerDaemonStarter workerDaemonStarter;
     private final ListenerManager listenerManager;
@@ -59,9 +74,19 @@ public class WorkerDaemonClientsManager implements Stoppable {
     private final OutputEventListener logLevelChangeEventListener;
     private final WorkerDaemonExpiration workerDaemonExpiration;
     private final MemoryManager memoryManager;
+    private final ManagedExecutor prestartExecutor;
     private volatile LogLevel currentLogLevel;
 
     public WorkerDaemonClientsManager(WorkerDaemonStarter workerDaemonStarter, ListenerManager listenerManager, LoggingManagerInternal loggingManager, MemoryManager memoryManager, OsMemoryInfo memoryInfo) {
+        this(workerDaemonStarter, listenerManager, loggingManager, memoryManager, memoryInfo, null);
+    }
+
+    /**
+     * When an executor is given and the {@value #PRESTART_PROPERTY_KEY} system property is set, the session-scoped worker daemons used by a build session
+     * are started again in the background at the start of the next build session, so that they are warm when the first work item arrives.
+     */
+    public WorkerDaemonClientsManager(WorkerDaemonStarter workerDaemonStarter, ListenerManager listenerManager, LoggingManagerInternal loggingManager, MemoryManager memoryManager, OsMemoryInfo memoryInfo, @Nullable ExecutorFactory executorFactory) {
+        this.prestartExecutor = executorFactory != null && Boolean.getBoolean(PRESTART_PROPERTY_KEY) ? executorFactory.create("Worker daemon prestart", 1) : null;
         this.workerDaemonStarter = workerDaemonStarter;
         this.listenerManager = listenerManager;
         this.loggingManager = loggingManager;
@@ -93,6 +118,7 @@ public class WorkerDaemonClientsManager implements Stoppable {
                         LOGGER.info("Log level has changed, stopping idle worker daemon with out-of-date log level.");
                         candidate.stop();
                     } else {
+                        statistics.clientReused();
                         return candidate;
                     }
                 }
@@ -102,10 +128,19 @@ public class WorkerDaemonClientsManager implements Stoppable {
     }
 
     public WorkerDaemonClient reserveNewClient(Class<? extends WorkerProtocol> workerProtocolImplementationClass, DaemonForkOptions forkOptions) {
+        return startClient(workerProtocolImplementationClass, forkOptions, false);
+    }
+
+    private WorkerDaemonClient startClient(Class<? extends WorkerProtocol> workerProtocolImplementationClass, DaemonForkOptions forkOptions, boolean prestart) {
         //allow the daemon to be started concurrently
+        Timer timer = Time.startTimer();
         WorkerDaemonClient client = workerDaemonStarter.startDaemon(workerProtocolImplementationClass, forkOptions, workerProcessCleanupAction);
+        statistics.clientStarted(timer.getElapsedMillis(), prestart);
         synchronized (lock) {
             allClients.add(client);
+            if (prestartExecutor != null && forkOptions.getKeepAliveMode() == KeepAliveMode.SESSION) {
+                sessionScopedClients.put(client, new PrestartRequest(workerProtocolImplementationClass, forkOptions));
+            }
         }
         return client;
     }
@@ -120,6 +155,9 @@ public class WorkerDaemonClientsManager implements Stoppable {
 
     @Override
     public void stop() {
+        if (prestartExecutor != null) {
+            prestartExecutor.stop();
+        }
         synchronized (lock) {
             stopWorkers(allClients);
             allClients.clear();
@@ -154,6 +192,7 @@ public class WorkerDaemonClientsManager implements Stoppable {
             });
             List<WorkerDaemonClient> clientsToStop = selectionFunction.transform(new ArrayList<WorkerDaemonClient>(sortedClients));
             if (!clientsToStop.isEmpty()) {
+                statistics.clientsExpired(clientsToStop.size());
                 stopWorkers(clientsToStop);
             }
         }
@@ -185,13 +224,82 @@ public class WorkerDaemonClientsManager implements Stoppable {
         }
     }
 
+    private void prestartClients() {
+        final List<PrestartRequest> requests;
+        synchronized (lock) {
+            requests = new ArrayList<PrestartRequest>(prestartRequests);
+            prestartRequests.clear();
+        }
+        for (final PrestartRequest request : requests) {
+            Future<?> prestart = prestartExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        release(startClient(request.workerProtocolImplementationClass, request.forkOptions, true));
+                    } catch (Exception e) {
+                        LOGGER.debug("Could not start worker daemon ahead of time.", e);
+                    }
+                }
+            });
+            synchronized (lock) {
+                pendingPrestarts.add(prestart);
+            }
+        }
+    }
+
+    /**
+     * Cancels the prestarts that have not started yet and waits for the others, so that no session-scoped daemon is released into the idle pool
+     * after the session-scoped daemons have been stopped.
+     */
+    private void cancelPrestarts() {
+        List<Future<?>> prestarts;
+        synchronized (lock) {
+            prestarts = new ArrayList<Future<?>>(pendingPrestarts);
+            pendingPrestarts.clear();
+        }
+        for (Future<?> prestart : prestarts) {
+            prestart.cancel(false);
+        }
+        for (Future<?> prestart : prestarts) {
+            try {
+                prestart.get();
+            } catch (CancellationException e) {
+                // Never started
+            } catch (ExecutionException e) {
+                // Already logged by the prestart
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+    }
+
     private class StopSessionScopedWorkers implements SessionLifecycleListener {
         @Override
-        public void afterStart() { }
+        public void afterStart() {
+            if (prestartExecutor != null) {
+                prestartClients();
+            }
+        }
 
         @Override
         public void beforeComplete() {
+            if (prestartExecutor != null) {
+                // Do not hold the lock while waiting, as the prestarts need it to register the daemons they started
+                cancelPrestarts();
+            }
+            if (statistics.getStarted() > 0 || statistics.getReused() > 0) {
+                LOGGER.info("Worker daemons: {}.", statistics);
+            }
+            statistics.reset();
             synchronized (lock) {
+                // Start the daemons that were actually used by this session again at the start of the next one
+                prestartRequests.clear();
+                for (Map.Entry<WorkerDaemonClient, PrestartRequest> entry : sessionScopedClients.entrySet()) {
+                    if (entry.getKey().getUses() > 0) {
+                        prestartRequests.add(entry.getValue());
+                    }
+                }
+                sessionScopedClients.clear();
                 List<WorkerDaemonClient> sessionScopedClients = CollectionUtils.filter(allClients, new Spec<WorkerDaemonClient>() {
                     @Override
                     public boolean isSatisfiedBy(WorkerDaemonClient client) {
@@ -203,6 +311,16 @@ public class WorkerDaemonClientsManager implements Stoppable {
         }
     }
 
+    private static class PrestartRequest {
+        private final Class<? extends WorkerProtocol> workerProtocolImplementationClass;
+        private final DaemonForkOptions forkOptions;
+
+        PrestartRequest(Class<? extends WorkerProtocol> workerProtocolImplementationClass, DaemonForkOptions forkOptions) {
+            this.workerProtocolImplementationClass = workerProtocolImplementationClass;
+            this.forkOptions = forkOptions;
+        }
+    }
+
     private class LogLevelChangeEventListener implements OutputEventListener {
         @Override
         public void onOutput(OutputEvent event) {
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.workers.internal;
+
+import org.gradle.internal.time.TimeFormatting;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing how well worker daemons are reused across the work items of a build session. Thread safe.
+ */
+public class WorkerDaemonStatistics {
+    private final AtomicInteger reused = new AtomicInteger();
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger prestarted = new AtomicInteger();
+    private final AtomicInteger expired = new AtomicInteger();
+    private final AtomicLong totalStartupTime = new AtomicLong();
+
+    void clientReused() {
+        reused.incrementAndGet();
+    }
+
+    void clientStarted(long startupTimeMillis, boolean prestart) {
+        started.incrementAndGet();
+        if (prestart) {
+            prestarted.incrementAndGet();
+        }
+        totalStartupTime.addAndGet(startupTimeMillis);
+    }
+
+    void clientsExpired(int count) {
+        expired.addAndGet(count);
+    }
+
+    void reset() {
+        reused.set(0);
+        started.set(0);
+        prestarted.set(0);
+        expired.set(0);
+        totalStartupTime.set(0);
+    }
+
+    /**
+     * The number of times an idle worker daemon was reused instead of starting a new one.
+     */
+    public int getReused() {
+        return reused.get();
+    }
+
+    /**
+     * The number of worker daemons started, including the ones started ahead of time.
+     */
+    public int getStarted() {
+        return started.get();
+    }
+
+    /**
+     * The number of worker daemons started ahead of time, based on the worker daemons used by the previous build session.
+     */
+    public int getPrestarted() {
+        return prestarted.get();
+    }
+
+    /**
+     * The number of idle worker daemons stopped to free memory.
+     */
+    public int getExpired() {
+        return expired.get();
+    }
+
+    public long getAverageStartupTimeMillis() {
+        int count = started.get();
+        return count == 0 ? 0 : totalStartupTime.get() / count;
+    }
+
+    @Override
+    public String toString() {
+        return getReused() + " reused, " + getStarted() + " started (" + getPrestarted() + " ahead of time, average startup " + TimeFormatting.formatDurationVeryTerse(getAverageStartupTimeMillis()) + "), " + getExpired() + " expired";
+    }
+}
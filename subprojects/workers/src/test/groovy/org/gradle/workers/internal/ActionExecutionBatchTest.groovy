@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.workers.internal
+
+import org.gradle.api.internal.AsmBackedClassGenerator
+import org.gradle.api.internal.DefaultInstantiatorFactory
+import org.gradle.cache.internal.TestCrossBuildInMemoryCacheFactory
+import org.gradle.internal.exceptions.DefaultMultiCauseException
+import spock.lang.Specification
+
+import javax.inject.Inject
+
+class ActionExecutionBatchTest extends Specification {
+    def batch = new ActionExecutionBatch(TestRunnable, 3)
+
+    def "parameters of each item are serialized when the item is added"() {
+        def list = ["a"]
+
+        when:
+        batch.add("item 1", [list] as Object[])
+        list.add("b")
+        batch.add("item 2", [list] as Object[])
+
+        then:
+        def items = batch.getParams(getClass().classLoader)
+        items.length == 2
+        items[0] == [["a"]] as Object[]
+        items[1] == [["a", "b"]] as Object[]
+        batch.itemDisplayNames == ["item 1", "item 2"]
+    }
+
+    def "each item gets its own copy of a mutable parameter submitted several times"() {
+        def params = new MutableParams(value: "first")
+
+        when:
+        batch.add("item 1", [params] as Object[])
+        params.value = "second"
+        batch.add("item 2", [params] as Object[])
+        params.value = "third"
+
+        then:
+        def items = batch.getParams(getClass().classLoader)
+        items[0][0].value == "first"
+        items[1][0].value == "second"
+        !items[0][0].is(items[1][0])
+    }
+
+    def "does not accept items once sealed or full"() {
+        expect:
+        batch.add("item 1", [] as Object[])
+        batch.add("item 2", [] as Object[])
+        batch.add("item 3", [] as Object[])
+        !batch.add("item 4", [] as Object[])
+        batch.size() == 3
+
+        when:
+        def other = new ActionExecutionBatch(TestRunnable, 3)
+        other.add("item 1", [] as Object[])
+        other.seal()
+
+        then:
+        !other.add("item 2", [] as Object[])
+    }
+
+    def "is sealed when serialized"() {
+        given:
+        batch.add("item 1", ["a"] as Object[])
+
+        when:
+        def bytes = new ByteArrayOutputStream()
+        new ObjectOutputStream(bytes).writeObject(batch)
+        def copy = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject() as ActionExecutionBatch
+
+        then:
+        !batch.add("item 2", ["b"] as Object[])
+        copy.itemDisplayNames == ["item 1"]
+        copy.getParams(getClass().classLoader)[0] == ["a"] as Object[]
+    }
+
+    def "keeps previously added items when parameters of an item cannot be serialized"() {
+        given:
+        batch.add("item 1", ["a"] as Object[])
+
+        when:
+        batch.add("item 2", [new Object()] as Object[])
+
+        then:
+        thrown(SerializingActionExecutionSpec.ParameterSerializationException)
+        !batch.add("item 3", ["c"] as Object[])
+        batch.itemDisplayNames == ["item 1"]
+        batch.getParams(getClass().classLoader)[0] == ["a"] as Object[]
+    }
+
+    def "worker server executes each item of a batch and reports failures per item"() {
+        def server = new DefaultWorkerServer(new DefaultInstantiatorFactory(new AsmBackedClassGenerator(), new TestCrossBuildInMemoryCacheFactory()).inject())
+        def failingBatch = new ActionExecutionBatch(FailingRunnable, 3)
+        failingBatch.add("item 1", ["ok"] as Object[])
+        failingBatch.add("item 2", ["fail 2"] as Object[])
+        failingBatch.add("item 3", ["fail 3"] as Object[])
+
+        when:
+        def result = server.execute(failingBatch)
+
+        then:
+        result.didWork
+        result.exception instanceof DefaultMultiCauseException
+        result.exception.causes*.message == ["A failure occurred while executing item 2", "A failure occurred while executing item 3"]
+        result.exception.causes*.cause*.message == ["fail 2", "fail 3"]
+    }
+
+    static class MutableParams implements Serializable {
+        String value
+    }
+
+    static class TestRunnable implements Runnable {
+        @Override
+        void run() {
+        }
+    }
+
+    static class FailingRunnable implements Runnable {
+        private final String value
+
+        @Inject
+        FailingRunnable(String value) {
+            this.value = value
+        }
+
+        @Override
+        void run() {
+            if (value.startsWith("fail")) {
+                throw new RuntimeException(value)
+            }
+        }
+    }
+}
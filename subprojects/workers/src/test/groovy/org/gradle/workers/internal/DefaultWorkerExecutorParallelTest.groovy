@@ -18,6 +18,7 @@ package org.gradle.workers.internal
 
 import com.google.common.util.concurrent.ListenableFutureTask
 import org.gradle.api.internal.InstantiatorFactory
+import org.gradle.concurrent.ParallelismConfiguration
 import org.gradle.internal.Factory
 import org.gradle.internal.exceptions.DefaultMultiCauseException
 import org.gradle.internal.file.PathToFileResolver
@@ -51,6 +52,9 @@ class DefaultWorkerExecutorParallelTest extends ConcurrentSpec {
     def instantiatorFactory = Mock(InstantiatorFactory)
     def executionQueueFactory = Mock(WorkerExecutionQueueFactory)
     def executionQueue = Mock(ConditionalExecutionQueue)
+    def parallelismConfiguration = Stub(ParallelismConfiguration) {
+        getMaxWorkerCount() >> 4
+    }
     ListenableFutureTask task
     DefaultWorkerExecutor workerExecutor
 
@@ -58,7 +62,7 @@ class DefaultWorkerExecutorParallelTest extends ConcurrentSpec {
         _ * fileResolver.resolve(_ as File) >> { files -> files[0] }
         _ * fileResolver.resolve(_ as String) >> { files -> new File(files[0]) }
         _ * executionQueueFactory.create() >> executionQueue
-        workerExecutor = new DefaultWorkerExecutor(workerDaemonFactory, workerInProcessFactory, workerNoIsolationFactory, fileResolver, buildOperationWorkerRegistry, buildOperationExecutor, asyncWorkerTracker, workerDirectoryProvider, executionQueueFactory)
+        workerExecutor = new DefaultWorkerExecutor(workerDaemonFactory, workerInProcessFactory, workerNoIsolationFactory, fileResolver, buildOperationWorkerRegistry, buildOperationExecutor, asyncWorkerTracker, workerDirectoryProvider, executionQueueFactory, parallelismConfiguration)
     }
 
     @Unroll
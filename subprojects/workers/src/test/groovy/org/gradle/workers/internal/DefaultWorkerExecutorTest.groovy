@@ -17,6 +17,7 @@
 package org.gradle.workers.internal
 
 import org.gradle.api.internal.InstantiatorFactory
+import org.gradle.concurrent.ParallelismConfiguration
 import org.gradle.internal.file.PathToFileResolver
 import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.work.AsyncWorkTracker
@@ -52,6 +53,9 @@ class DefaultWorkerExecutorTest extends Specification {
     def instantiatorFactory = Mock(InstantiatorFactory)
     def executionQueueFactory = Mock(WorkerExecutionQueueFactory)
     def executionQueue = Mock(ConditionalExecutionQueue)
+    def parallelismConfiguration = Stub(ParallelismConfiguration) {
+        getMaxWorkerCount() >> 4
+    }
     def worker = Mock(Worker)
     ConditionalExecution task
     DefaultWorkerExecutor workerExecutor
@@ -60,7 +64,7 @@ class DefaultWorkerExecutorTest extends Specification {
         _ * fileResolver.resolve(_ as File) >> { files -> files[0] }
         _ * fileResolver.resolve(_ as String) >> { files -> new File(files[0]) }
         _ * executionQueueFactory.create() >> executionQueue
-        workerExecutor = new DefaultWorkerExecutor(workerDaemonFactory, inProcessWorkerFactory, noIsolationWorkerFactory, fileResolver, buildOperationWorkerRegistry, buildOperationExecutor, asyncWorkTracker, workerDirectoryProvider, executionQueueFactory)
+        workerExecutor = new DefaultWorkerExecutor(workerDaemonFactory, inProcessWorkerFactory, noIsolationWorkerFactory, fileResolver, buildOperationWorkerRegistry, buildOperationExecutor, asyncWorkTracker, workerDirectoryProvider, executionQueueFactory, parallelismConfiguration)
     }
 
     def "worker configuration fork property defaults to AUTO"() {
@@ -199,6 +203,102 @@ class DefaultWorkerExecutorTest extends Specification {
         }
     }
 
+    def "coalesces process isolated work into a single batch until it is sent to a worker"() {
+        given:
+        workerExecutor = new DefaultWorkerExecutor(workerDaemonFactory, inProcessWorkerFactory, noIsolationWorkerFactory, fileResolver, buildOperationWorkerRegistry, buildOperationExecutor, asyncWorkTracker, workerDirectoryProvider, executionQueueFactory, true, 1)
+
+        when:
+        3.times { i ->
+            workerExecutor.submit(TestRunnable.class) { WorkerConfiguration configuration ->
+                configuration.isolationMode = IsolationMode.PROCESS
+                configuration.displayName = "item ${i}"
+                configuration.params = []
+            }
+        }
+
+        then:
+        1 * executionQueue.submit(_) >> { args -> task = args[0] }
+        1 * asyncWorkTracker.registerWork(_, _)
+
+        when:
+        task.getExecution().run()
+
+        then:
+        1 * workerDaemonFactory.getWorker(_) >> worker
+        1 * worker.execute(_, _) >> { spec, buildOperation ->
+            assert spec instanceof ActionExecutionBatch
+            assert spec.itemDisplayNames == ["item 0", "item 1", "item 2"]
+            return new DefaultWorkResult(true, null)
+        }
+
+        when:
+        workerExecutor.submit(TestRunnable.class) { WorkerConfiguration configuration ->
+            configuration.isolationMode = IsolationMode.PROCESS
+            configuration.params = []
+        }
+
+        then:
+        1 * executionQueue.submit(_)
+    }
+
+    def "spreads backlogged process isolated work over as many batches as there are workers"() {
+        given:
+        workerExecutor = new DefaultWorkerExecutor(workerDaemonFactory, inProcessWorkerFactory, noIsolationWorkerFactory, fileResolver, buildOperationWorkerRegistry, buildOperationExecutor, asyncWorkTracker, workerDirectoryProvider, executionQueueFactory, true, 2)
+        def tasks = []
+
+        when:
+        5.times { i ->
+            workerExecutor.submit(TestRunnable.class) { WorkerConfiguration configuration ->
+                configuration.isolationMode = IsolationMode.PROCESS
+                configuration.displayName = "item ${i}"
+                configuration.params = []
+            }
+        }
+
+        then:
+        2 * executionQueue.submit(_) >> { args -> tasks << args[0] }
+
+        when:
+        tasks*.getExecution()*.run()
+
+        then:
+        2 * workerDaemonFactory.getWorker(_) >> worker
+        1 * worker.execute({ it.itemDisplayNames == ["item 0", "item 2", "item 4"] }, _) >> new DefaultWorkResult(true, null)
+        1 * worker.execute({ it.itemDisplayNames == ["item 1", "item 3"] }, _) >> new DefaultWorkResult(true, null)
+    }
+
+    def "does not batch process isolated work of different action classes"() {
+        given:
+        workerExecutor = new DefaultWorkerExecutor(workerDaemonFactory, inProcessWorkerFactory, noIsolationWorkerFactory, fileResolver, buildOperationWorkerRegistry, buildOperationExecutor, asyncWorkTracker, workerDirectoryProvider, executionQueueFactory, true, 1)
+
+        when:
+        [TestRunnable, OtherTestRunnable].each { actionClass ->
+            workerExecutor.submit(actionClass) { WorkerConfiguration configuration ->
+                configuration.isolationMode = IsolationMode.PROCESS
+                configuration.params = []
+            }
+        }
+
+        then:
+        2 * executionQueue.submit(_)
+    }
+
+    def "does not batch work that is not process isolated"() {
+        given:
+        workerExecutor = new DefaultWorkerExecutor(workerDaemonFactory, inProcessWorkerFactory, noIsolationWorkerFactory, fileResolver, buildOperationWorkerRegistry, buildOperationExecutor, asyncWorkTracker, workerDirectoryProvider, executionQueueFactory, true, 1)
+
+        when:
+        2.times {
+            workerExecutor.submit(TestRunnable.class) { WorkerConfiguration configuration ->
+                configuration.isolationMode = IsolationMode.CLASSLOADER
+                configuration.params = []
+            }
+        }
+
+        then:
+        2 * executionQueue.submit(_)
+    }
+
     def "cannot set classpath in isolation mode NONE"() {
         when:
         workerExecutor.submit(TestRunnable.class) { WorkerConfiguration configuration ->
@@ -303,4 +403,11 @@ class DefaultWorkerExecutorTest extends Specification {
             println "executing"
         }
     }
+
+    static class OtherTestRunnable implements Runnable {
+        @Override
+        void run() {
+            println "executing other"
+        }
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.workers.internal
+
+import org.gradle.api.internal.initialization.loadercache.ClassLoaderCache
+import org.gradle.internal.classloader.ClassLoaderFactory
+import org.gradle.internal.classloader.ClasspathHasher
+import org.gradle.internal.classloader.FilteringClassLoader
+import org.gradle.internal.hash.HashCode
+import spock.lang.Specification
+
+class WorkerActionClassLoaderCacheTest extends Specification {
+    def classLoaderCache = Mock(ClassLoaderCache)
+    def classpathHasher = Stub(ClasspathHasher) {
+        hash(_) >> HashCode.fromInt(123)
+    }
+    def classLoaderFactory = Stub(ClassLoaderFactory)
+    def cache = new WorkerActionClassLoaderCache(classLoaderCache, classpathHasher, classLoaderFactory)
+
+    def "reuses the classloader for the same classpath and shared packages"() {
+        when:
+        def first = cache.acquire([new File("tool.jar")], ["com.tool", "com.other"])
+        cache.release(first)
+        def second = cache.acquire([new File("tool.jar")], ["com.other", "com.tool"])
+
+        then:
+        1 * classLoaderCache.get(_, _, _, _, HashCode.fromInt(123)) >> filteringLoader()
+        0 * classLoaderCache._
+        second.is(first)
+        cache.size() == 1
+    }
+
+    def "creates separate classloaders for different classpaths or shared packages"() {
+        when:
+        cache.acquire([new File("tool.jar")], ["com.tool"])
+        cache.acquire([new File("tool.jar")], ["com.other"])
+        cache.acquire([new File("other.jar")], ["com.tool"])
+
+        then:
+        3 * classLoaderCache.get(_, _, _, _, _) >> { filteringLoader() }
+        cache.size() == 3
+    }
+
+    def "evicts least recently used idle classloaders"() {
+        def ids = []
+        _ * classLoaderCache.get(_, _, _, _, _) >> { args -> ids << args[0]; filteringLoader() }
+
+        when:
+        (WorkerActionClassLoaderCache.MAX_IDLE_ENTRIES + 1).times { i ->
+            cache.release(cache.acquire([new File("tool${i}.jar")], ["com.tool"]))
+        }
+
+        then:
+        cache.size() == WorkerActionClassLoaderCache.MAX_IDLE_ENTRIES
+        1 * classLoaderCache.remove({ it == ids[0] })
+    }
+
+    def "does not evict classloaders in use"() {
+        _ * classLoaderCache.get(_, _, _, _, _) >> { filteringLoader() }
+
+        when:
+        def inUse = (WorkerActionClassLoaderCache.MAX_IDLE_ENTRIES + 2).collect { i ->
+            cache.acquire([new File("tool${i}.jar")], ["com.tool"])
+        }
+        cache.release(inUse[0])
+
+        then:
+        0 * classLoaderCache.remove(_)
+        cache.size() == WorkerActionClassLoaderCache.MAX_IDLE_ENTRIES + 2
+    }
+
+    def "removes all classloaders from the cache when stopped"() {
+        _ * classLoaderCache.get(_, _, _, _, _) >> { filteringLoader() }
+        cache.acquire([new File("tool.jar")], ["com.tool"])
+        cache.acquire([new File("other.jar")], ["com.tool"])
+
+        when:
+        cache.stop()
+
+        then:
+        2 * classLoaderCache.remove(_)
+        cache.size() == 0
+    }
+
+    private static ClassLoader filteringLoader() {
+        return new FilteringClassLoader(new URLClassLoader(new URL[0], (ClassLoader) null), new FilteringClassLoader.Spec())
+    }
+}
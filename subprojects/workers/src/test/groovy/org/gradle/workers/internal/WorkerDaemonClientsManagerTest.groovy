@@ -19,6 +19,8 @@ package org.gradle.workers.internal
 import org.gradle.api.Transformer
 import org.gradle.api.logging.LogLevel
 import org.gradle.initialization.SessionLifecycleListener
+import org.gradle.internal.concurrent.ExecutorFactory
+import org.gradle.internal.concurrent.ManagedExecutor
 import org.gradle.internal.event.DefaultListenerManager
 import org.gradle.internal.event.ListenerManager
 import org.gradle.internal.exceptions.DefaultMultiCauseException
@@ -31,6 +33,8 @@ import org.gradle.process.internal.health.memory.MemoryManager
 import org.gradle.util.ConcurrentSpecification
 import spock.lang.Subject
 
+import java.util.concurrent.FutureTask
+
 class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
 
     def workingDir = new File("some-dir")
@@ -291,6 +295,156 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         1 * client3.stop()
     }
 
+    def "tracks reused, started and expired clients"() {
+        def client1 = Mock(WorkerDaemonClient) {
+            isCompatibleWith(_) >> true
+            getLogLevel() >> LogLevel.DEBUG
+        }
+        def client2 = Mock(WorkerDaemonClient)
+        starter.startDaemon(serverImpl.class, options, _) >>> [client1, client2]
+        def stopAll = new Transformer<List<WorkerDaemonClient>, List<WorkerDaemonClient>>() {
+            @Override
+            List<WorkerDaemonClient> transform(List<WorkerDaemonClient> workerDaemonClients) {
+                return workerDaemonClients
+            }
+        }
+
+        when:
+        manager.reserveNewClient(serverImpl.class, options)
+        manager.reserveNewClient(serverImpl.class, options)
+        manager.release(client1)
+        manager.reserveIdleClient(options)
+        manager.release(client1)
+        manager.release(client2)
+        manager.selectIdleClientsToStop(stopAll)
+
+        then:
+        manager.statistics.started == 2
+        manager.statistics.prestarted == 0
+        manager.statistics.reused == 1
+        manager.statistics.expired == 2
+    }
+
+    def "restarts used session-scoped clients at the start of the next session when enabled"() {
+        System.setProperty("org.gradle.workers.internal.prestart-daemons", "true")
+        listenerManager = new DefaultListenerManager()
+        def executorFactory = Stub(ExecutorFactory) {
+            create(_, _) >> Stub(ManagedExecutor) {
+                submit(_ as Runnable) >> { Runnable runnable ->
+                    def future = new FutureTask(runnable, null)
+                    future.run()
+                    future
+                }
+            }
+        }
+        manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo(), executorFactory)
+        def sessionOptions = Stub(DaemonForkOptions) { getKeepAliveMode() >> KeepAliveMode.SESSION }
+        def usedClient = Stub(WorkerDaemonClient) {
+            getKeepAliveMode() >> KeepAliveMode.SESSION
+            getUses() >> 1
+        }
+        def unusedClient = Stub(WorkerDaemonClient) {
+            getKeepAliveMode() >> KeepAliveMode.SESSION
+            getUses() >> 0
+        }
+        def prestartedClient = Stub(WorkerDaemonClient) {
+            isCompatibleWith(_) >> true
+        }
+        starter.startDaemon(serverImpl.class, sessionOptions, _) >>> [usedClient, unusedClient, prestartedClient]
+
+        when:
+        manager.reserveNewClient(serverImpl.class, sessionOptions)
+        manager.reserveNewClient(serverImpl.class, sessionOptions)
+        listenerManager.getBroadcaster(SessionLifecycleListener).beforeComplete()
+        listenerManager.getBroadcaster(SessionLifecycleListener).afterStart()
+
+        then:
+        manager.statistics.started == 1
+        manager.statistics.prestarted == 1
+        manager.reserveIdleClient(sessionOptions) == prestartedClient
+
+        cleanup:
+        System.clearProperty("org.gradle.workers.internal.prestart-daemons")
+    }
+
+    def "does not restart session-scoped clients by default"() {
+        listenerManager = new DefaultListenerManager()
+        manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo(), Stub(ExecutorFactory))
+        def sessionOptions = Stub(DaemonForkOptions) { getKeepAliveMode() >> KeepAliveMode.SESSION }
+        def client = Stub(WorkerDaemonClient) {
+            getKeepAliveMode() >> KeepAliveMode.SESSION
+            getUses() >> 1
+        }
+        starter.startDaemon(serverImpl.class, sessionOptions, _) >> client
+
+        when:
+        manager.reserveNewClient(serverImpl.class, sessionOptions)
+        listenerManager.getBroadcaster(SessionLifecycleListener).beforeComplete()
+        listenerManager.getBroadcaster(SessionLifecycleListener).afterStart()
+
+        then:
+        manager.statistics.started == 0
+        manager.statistics.prestarted == 0
+    }
+
+    def "waits for prestarted clients before stopping session-scoped clients"() {
+        System.setProperty("org.gradle.workers.internal.prestart-daemons", "true")
+        listenerManager = new DefaultListenerManager()
+        def prestarts = []
+        def executorFactory = Stub(ExecutorFactory) {
+            create(_, _) >> Stub(ManagedExecutor) {
+                submit(_ as Runnable) >> { Runnable runnable ->
+                    def future = new FutureTask(runnable, null)
+                    prestarts << future
+                    future
+                }
+            }
+        }
+        manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo(), executorFactory)
+        def sessionOptions = Stub(DaemonForkOptions) { getKeepAliveMode() >> KeepAliveMode.SESSION }
+        def usedClient = Stub(WorkerDaemonClient) {
+            getKeepAliveMode() >> KeepAliveMode.SESSION
+            getUses() >> 1
+        }
+        def prestartedClient = Mock(WorkerDaemonClient) {
+            getKeepAliveMode() >> KeepAliveMode.SESSION
+        }
+        starter.startDaemon(serverImpl.class, sessionOptions, _) >>> [usedClient, prestartedClient]
+
+        when:
+        manager.reserveNewClient(serverImpl.class, sessionOptions)
+        listenerManager.getBroadcaster(SessionLifecycleListener).beforeComplete()
+        listenerManager.getBroadcaster(SessionLifecycleListener).afterStart()
+        listenerManager.getBroadcaster(SessionLifecycleListener).beforeComplete()
+
+        then:
+        prestarts.size() == 1
+        prestarts[0].cancelled
+        0 * prestartedClient.stop()
+        manager.reserveIdleClient(sessionOptions) == null
+
+        cleanup:
+        System.clearProperty("org.gradle.workers.internal.prestart-daemons")
+    }
+
+    def "resets statistics at the end of each session"() {
+        listenerManager = new DefaultListenerManager()
+        manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo())
+        starter.startDaemon(serverImpl.class, options, _) >> Stub(WorkerDaemonClient)
+
+        when:
+        manager.reserveNewClient(serverImpl.class, options)
+
+        then:
+        manager.statistics.started == 1
+
+        when:
+        listenerManager.getBroadcaster(SessionLifecycleListener).beforeComplete()
+
+        then:
+        manager.statistics.started == 0
+    }
+
     def "registers/deregisters a worker daemon expiration with the memory manager"() {
         WorkerDaemonExpiration workerDaemonExpiration
 